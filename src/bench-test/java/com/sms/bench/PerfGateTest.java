@@ -0,0 +1,89 @@
+package com.sms.bench;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PerfGate.compare(): the rules that decide whether a run fails the gate.
+ */
+class PerfGateTest {
+
+    private static final double TOLERANCE = 0.10;
+    private static final double ALLOC_TOLERANCE = 0.10;
+
+    private static PerfGate.Verdict compare(Map<String, Double> baseline, Map<String, Double> current,
+                                            Map<String, Double> errors) {
+        return PerfGate.compare(baseline, current, errors, TOLERANCE, ALLOC_TOLERANCE);
+    }
+
+    /** The status column of the report line for the metric. */
+    private static String status(PerfGate.Verdict v, String key) {
+        return v.report.lines().filter(l -> l.startsWith(key + " ")).findFirst().orElseThrow().trim()
+                .replaceAll(".*\\s", "");
+    }
+
+    @Test
+    void test01_throughputDropWithinTolerance_passes() {
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0), Map.of("a.ops", 91.0), Map.of());
+        assertTrue(v.passed(), v.report);
+        assertEquals("ok", status(v, "a.ops"));
+    }
+
+    @Test
+    void test02_throughputDropBeyondTolerance_fails() {
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0), Map.of("a.ops", 85.0), Map.of("a.ops", 2.0));
+        assertFalse(v.passed());
+        assertEquals(List.of("a.ops -15.0%"), v.regressions);
+        assertEquals("REGRESSED", status(v, "a.ops"));
+        assertTrue(v.report.contains("FAILED: 1 regression(s)"), v.report);
+    }
+
+    @Test
+    void test03_errorMarginGivesThroughputTheBenefitOfTheDoubt() {
+        // 85 + 6 reaches the 90 floor: the drop may be noise
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0), Map.of("a.ops", 85.0), Map.of("a.ops", 6.0));
+        assertTrue(v.passed(), v.report);
+    }
+
+    @Test
+    void test04_throughputGainIsReportedAsImproved() {
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0), Map.of("a.ops", 120.0), Map.of());
+        assertTrue(v.passed());
+        assertEquals("improved", status(v, "a.ops"));
+    }
+
+    @Test
+    void test05_allocGrowthNeedsBothTheToleranceAndTheSlack() {
+        Map<String, Double> baseline = Map.of("small.alloc", 100.0, "large.alloc", 10_000.0, "zero.alloc", 0.0);
+
+        // +50% but only 50 B/op (within the slack), +9% of a large figure, +48 B from zero
+        PerfGate.Verdict ok = compare(baseline,
+                Map.of("small.alloc", 150.0, "large.alloc", 10_900.0, "zero.alloc", 48.0), Map.of());
+        assertTrue(ok.passed(), ok.report);
+
+        // +100 B/op (+100%), +11% of a large figure, +80 B from zero
+        PerfGate.Verdict bad = compare(baseline,
+                Map.of("small.alloc", 200.0, "large.alloc", 11_100.0, "zero.alloc", 80.0), Map.of());
+        assertEquals(List.of("large.alloc +11.0%", "small.alloc +100.0%", "zero.alloc +80.00"), bad.regressions);
+    }
+
+    @Test
+    void test06_missingMetricIsARegression() {
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0, "b.ops", 50.0), Map.of("a.ops", 100.0), Map.of());
+        assertFalse(v.passed());
+        assertEquals(List.of("b.ops missing"), v.regressions);
+        assertEquals("MISSING", status(v, "b.ops"));
+    }
+
+    @Test
+    void test07_newMetricIsOnlyReported() {
+        PerfGate.Verdict v = compare(Map.of("a.ops", 100.0), Map.of("a.ops", 100.0, "b.alloc", 1e6), Map.of());
+        assertTrue(v.passed(), v.report);
+        assertEquals("NEW", status(v, "b.alloc"));
+        assertTrue(v.report.contains("PASSED: no regressions."));
+    }
+}
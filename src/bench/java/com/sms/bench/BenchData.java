@@ -0,0 +1,115 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.CsvExportWriter;
+import com.sms.util.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by the dataset-size benchmarks. Rows are deterministic, so the
+ * same size always gives the same database and results stay comparable across runs.
+ *
+ * Seeded databases are kept in -Dsms.bench.dir (default target/bench) as
+ * students-ROWS.db and reused while they still hold the expected row count:
+ * seeding a million rows takes longer than most benchmarks.
+ */
+final class BenchData {
+
+    static final String[] PROGRAMMES = {
+            "Computer Science", "Information Technology", "Nursing", "Business Administration",
+            "Mechanical Engineering", "Accounting", "Public Health", "Economics"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Kwame", "Ama", "Kofi", "Akosua", "Yaw", "Abena", "Kojo", "Efua", "Kwesi", "Adwoa",
+            "Fiifi", "Esi", "Nana", "Afia", "Kwabena", "Akua", "Yaa", "Ekow", "Aba", "Kobby"
+    };
+    private static final String[] LAST_NAMES = {
+            "Mensah", "Asante", "Owusu", "Boateng", "Osei", "Addo", "Acheampong", "Appiah", "Darko", "Ofori",
+            "Amoah", "Agyeman", "Quaye", "Sarpong", "Tetteh", "Annan", "Badu", "Frimpong", "Nkrumah", "Yeboah"
+    };
+    private static final LocalDate FIRST_INTAKE = LocalDate.of(2020, 9, 1);
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchData() {}
+
+    /**
+     * Student number i, valid under the default rules: IDs STU0000000..., 400 name combinations,
+     * eight programmes, every level, GPA 0.00–3.99, 1 in 5 inactive.
+     */
+    static Student student(int i) {
+        return new Student(
+                String.format("STU%07d", i),
+                FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[i / FIRST_NAMES.length % LAST_NAMES.length],
+                PROGRAMMES[i % PROGRAMMES.length],
+                100 * (1 + i % 7),
+                (i * 37 % 400) / 100.0,
+                "student" + i + "@stu.edu.gh",
+                "0244" + (100000 + i % 900000),
+                FIRST_INTAKE.plusDays(i % 1500),
+                i % 5 == 0 ? "Inactive" : "Active");
+    }
+
+    static List<Student> students(int from, int count) {
+        List<Student> list = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) list.add(student(i));
+        return list;
+    }
+
+    /** Points DatabaseManager at a database holding exactly rows students, seeding it if needed. */
+    static StudentRepository database(int rows) throws IOException {
+        Path dir = Path.of(System.getProperty("sms.bench.dir", "target/bench"));
+        Files.createDirectories(dir);
+        Path db = dir.resolve("students-" + rows + ".db");
+
+        DatabaseManager.closeConnection();
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, db.toString());
+        StudentRepository repository = new SQLiteStudentRepository();
+        if (repository.count() == rows) return repository;
+
+        DatabaseManager.closeConnection();
+        Files.deleteIfExists(db);
+        repository = new SQLiteStudentRepository();
+        for (int i = 0; i < rows; i += SEED_BATCH) {
+            repository.saveAll(students(i, Math.min(SEED_BATCH, rows - i)));
+        }
+        return repository;
+    }
+
+    /** Points DatabaseManager at a new, empty database file named name.db, with its schema created. */
+    static StudentRepository emptyDatabase(String name) throws IOException {
+        Path dir = Path.of(System.getProperty("sms.bench.dir", "target/bench"));
+        Files.createDirectories(dir);
+        Path db = dir.resolve(name + ".db");
+
+        DatabaseManager.closeConnection();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(dir.resolve(name + ".db" + suffix));
+        }
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, db.toString());
+        StudentRepository repository = new SQLiteStudentRepository();
+        repository.count(); // opens the file and creates the tables
+        return repository;
+    }
+
+    /** Writes rows students to a CSV file in the benchmark directory (reused if present). */
+    static Path csvFile(int rows) throws IOException {
+        Path dir = Path.of(System.getProperty("sms.bench.dir", "target/bench"));
+        Path file = dir.resolve("students-" + rows + ".csv");
+        if (Files.exists(file)) return file;
+        Files.createDirectories(dir);
+        try (CsvExportWriter writer = new CsvExportWriter(file, false)) {
+            writer.writeHeader();
+            for (int i = 0; i < rows; i++) writer.writeRow(student(i));
+            writer.commit();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.service.CsvParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old String.split based row parsing with the char-buffer CsvParser.
+ * Both variants read the same in-memory CSV and build a Student per row.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="CsvParseBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParseBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(rows * 100);
+        sb.append("student_id,full_name,programme,level,gpa,email,phone_number,date_added,status\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append("STU").append(100000 + i).append(',')
+              .append("Student Number ").append(i).append(',')
+              .append(i % 3 == 0 ? "Computer Science" : "Information Technology").append(',')
+              .append(100 * (1 + i % 7)).append(',')
+              .append((i % 400) / 100.0).append(',')
+              .append("student").append(i).append("@stu.edu.gh").append(',')
+              .append("0244").append(100000 + i).append(',')
+              .append("2025-09-01").append(',')
+              .append(i % 5 == 0 ? "Inactive" : "Active").append('\n');
+        }
+        csv = sb.toString();
+    }
+
+    /** The parser CsvService used before: readLine + split(",") + trim + boxed parsing. */
+    @Benchmark
+    public void legacySplit(Blackhole bh) throws IOException {
+        try (BufferedReader br = new BufferedReader(new StringReader(csv))) {
+            br.readLine(); // header
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",", -1);
+                Student s = new Student();
+                s.setStudentId(parts[0].trim());
+                s.setFullName(parts[1].trim());
+                s.setProgramme(parts[2].trim());
+                s.setLevel(Integer.parseInt(parts[3].trim()));
+                s.setGpa(Double.parseDouble(parts[4].trim()));
+                s.setEmail(parts[5].trim());
+                s.setPhoneNumber(parts[6].trim());
+                s.setDateAdded(LocalDate.parse(parts[7].trim()));
+                s.setStatus(parts[8].trim());
+                bh.consume(s);
+            }
+        }
+    }
+
+    @Benchmark
+    public void charBufferParser(Blackhole bh) throws IOException {
+        try (CsvParser p = new CsvParser(new StringReader(csv))) {
+            p.nextRecord(); // header
+            while (p.nextRecord()) {
+                Student s = new Student();
+                s.setStudentId(p.getString(0));
+                s.setFullName(p.getString(1));
+                s.setProgramme(p.getString(2));
+                s.setLevel(p.getInt(3));
+                s.setGpa(p.getDouble(4));
+                s.setEmail(p.getString(5));
+                s.setPhoneNumber(p.getString(6));
+                s.setDateAdded(p.getDate(7));
+                s.setStatus(p.fieldEquals(8, "Active") ? "Active" : p.getString(8));
+                bh.consume(s);
+            }
+        }
+    }
+}
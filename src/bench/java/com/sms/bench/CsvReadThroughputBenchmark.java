@@ -0,0 +1,88 @@
+package com.sms.bench;
+
+import com.sms.service.CsvParser;
+import com.sms.service.MappedCsvReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of a large synthetic CSV through the different reader chains.
+ * Each benchmark parses every record of the file; the "mb" aux counter turns the
+ * result into MB/s.
+ *
+ * The file is generated once under java.io.tmpdir and reused across runs.
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="CsvReadThroughputBenchmark -p sizeMb=3072"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvReadThroughputBenchmark {
+
+    @Param({"512"})
+    public int sizeMb;
+
+    private Path file;
+    private double fileMb;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public double mb;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Path.of(System.getProperty("java.io.tmpdir"), "sms-bench-" + sizeMb + "mb.csv");
+        long target = sizeMb * 1024L * 1024L;
+        if (!Files.exists(file) || Files.size(file) < target) {
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(file.toFile()), StandardCharsets.UTF_8), 1 << 20)) {
+                w.write("student_id,full_name,programme,level,gpa,email,phone_number,date_added,status\n");
+                long written = 0;
+                for (long i = 0; written < target; i++) {
+                    String row = "STU" + (1000000 + i) + ",\"Mensah, Kɔfi " + i + "\",Computer Science,"
+                            + (100 * (1 + i % 7)) + "," + (i % 400) / 100.0 + ",s" + i + "@stu.edu.gh,0244"
+                            + (100000 + i % 900000) + ",2025-09-01," + (i % 5 == 0 ? "Inactive" : "Active") + "\n";
+                    w.write(row);
+                    written += row.length() + 1; // one non-ASCII char per row
+                }
+            }
+        }
+        fileMb = Files.size(file) / (1024.0 * 1024.0);
+    }
+
+    /** The chain CsvService used originally: FileReader (platform charset) + BufferedReader.readLine. */
+    @Benchmark
+    public void legacyBufferedReader(Bytes bytes, Blackhole bh) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(file.toFile()))) {
+            String line;
+            while ((line = br.readLine()) != null) bh.consume(line.split(",", -1));
+        }
+        bytes.mb += fileMb;
+    }
+
+    @Benchmark
+    public void streamReaderParser(Bytes bytes, Blackhole bh) throws IOException {
+        try (CsvParser p = new CsvParser(new InputStreamReader(new FileInputStream(file.toFile()), StandardCharsets.UTF_8))) {
+            while (p.nextRecord()) bh.consume(p.getFieldCount());
+        }
+        bytes.mb += fileMb;
+    }
+
+    @Benchmark
+    public void mappedReaderParser(Bytes bytes, Blackhole bh) throws IOException {
+        try (CsvParser p = new CsvParser(new MappedCsvReader(file))) {
+            while (p.nextRecord()) bh.consume(p.getFieldCount());
+        }
+        bytes.mb += fileMb;
+    }
+}
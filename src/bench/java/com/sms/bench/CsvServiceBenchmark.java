@@ -0,0 +1,83 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteExportWatermarkRepository;
+import com.sms.repository.SQLiteImportCheckpointRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.CsvService;
+import com.sms.service.ImportService;
+import com.sms.service.SnapshotService;
+import com.sms.service.ValidationService;
+import com.sms.util.DatabaseManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CsvService end to end on files of 1k, 100k or 1M rows: an import through ImportService
+ * (parse, validate, duplicate check and batched inserts into an empty database, as the
+ * Import screen runs it) and exportStudents from memory to data/.
+ * CsvParseBenchmark isolates the parser itself.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="CsvServiceBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dsms.log.level=WARN", "-Dsms.log.console=false"})
+@State(Scope.Benchmark)
+public class CsvServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final CsvService service = new CsvService();
+    private File csv;
+    private List<Student> students;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = BenchData.csvFile(rows).toFile();
+        students = BenchData.students(0, rows);
+    }
+
+    /** A fresh empty database before every import, so each one inserts every row. */
+    @State(Scope.Thread)
+    public static class EmptyDatabase {
+        ImportService importService;
+
+        @Setup(Level.Invocation)
+        public void reset() throws IOException {
+            StudentRepository repository = BenchData.emptyDatabase("import");
+            importService = new ImportService(repository, new SQLiteImportCheckpointRepository(),
+                    new CsvService(repository, new SQLiteExportWatermarkRepository()),
+                    new SnapshotService(), new ValidationService());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            DatabaseManager.closeConnection();
+        }
+    }
+
+    @Benchmark
+    public long importCsv(EmptyDatabase db) throws IOException {
+        ImportService.ImportSummary summary = db.importService.importFile(csv, null, null);
+        summary.errors.close();
+        return summary.imported;
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        return service.exportStudents(action -> students.forEach(action), "bench_export.csv", false, null);
+    }
+
+    @Benchmark
+    public long exportGzip() throws IOException {
+        return service.exportStudents(action -> students.forEach(action), "bench_export.csv", true, null);
+    }
+}
@@ -0,0 +1,226 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.CsvExportWriter;
+import com.sms.util.AppLogger;
+import com.sms.util.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic student datasets of any size, reproducibly: the same seed and
+ * row count always give the same file. Rows are produced one at a time and streamed,
+ * so tens of millions of rows need no more memory than ten.
+ *
+ * Shape of the data:
+ *   - programme sizes are skewed (Zipf-like): the largest is about 8x the smallest
+ *   - levels thin out towards 700 (drop-outs, fewer postgraduates)
+ *   - GPA is roughly normal around each programme's own mean, clipped to 0.00–4.00
+ *   - about 12% are Inactive, more of them at higher levels
+ *   - date_added follows the level: a level 400 student joined about four years ago
+ *
+ * With --errors RATE, that share of CSV rows is broken in one of the ways real exports
+ * break (blank or numeric names, GPA/level out of range, bad email or phone, a repeated
+ * ID, a short row, a non-numeric field), so an import reports roughly RATE * rows errors.
+ *
+ * Run:
+ *   mvn -Pbench compile exec:exec@generate -Dgen.args="--rows 1000000 --errors 0.01 --out data/students_1m.csv"
+ *   mvn -Pbench compile exec:exec@generate -Dgen.args="--rows 5000000 --db target/load.db"
+ *
+ * Options: --rows N (default 100000), --seed S (default 42), --errors RATE (default 0),
+ * --out FILE (.gz compresses; default data/generated_students.csv) or --db FILE.
+ */
+public final class DataGenerator {
+
+    private static final String[] PROGRAMMES = {
+            "Computer Science", "Business Administration", "Nursing", "Information Technology",
+            "Accounting", "Economics", "Mechanical Engineering", "Public Health",
+            "Civil Engineering", "Law", "Education", "Agriculture",
+            "Mathematics", "Physics", "Music", "Philosophy"
+    };
+    private static final double[] PROGRAMME_GPA = {
+            2.9, 2.8, 3.1, 2.7, 2.8, 2.6, 2.5, 3.0, 2.5, 3.0, 3.1, 2.8, 2.4, 2.4, 3.3, 3.0
+    };
+    private static final int[] LEVELS = {100, 200, 300, 400, 500, 600, 700};
+    private static final double[] LEVEL_WEIGHTS = {30, 26, 22, 18, 2.5, 1, 0.5};
+
+    private static final String[] FIRST_NAMES = {
+            "Kwame", "Ama", "Kofi", "Akosua", "Yaw", "Abena", "Kojo", "Efua", "Kwesi", "Adwoa",
+            "Fiifi", "Esi", "Nana", "Afia", "Kwabena", "Akua", "Yaa", "Ekow", "Aba", "Kobby",
+            "Emmanuel", "Grace", "Samuel", "Mercy", "Daniel", "Gifty", "Joseph", "Patience",
+            "Isaac", "Comfort", "Prince", "Priscilla", "Eric", "Linda", "Michael", "Joyce"
+    };
+    private static final String[] LAST_NAMES = {
+            "Mensah", "Asante", "Owusu", "Boateng", "Osei", "Addo", "Acheampong", "Appiah", "Darko",
+            "Ofori", "Amoah", "Agyeman", "Quaye", "Sarpong", "Tetteh", "Annan", "Badu", "Frimpong",
+            "Nkrumah", "Yeboah", "Ansah", "Danso", "Gyamfi", "Kumi", "Larbi", "Opoku", "Poku",
+            "Sackey", "Takyi", "Wiredu", "Adjei", "Bonsu", "Donkor", "Fosu", "Lamptey", "Oduro"
+    };
+    private static final String[] PHONE_PREFIXES = {"024", "054", "055", "059", "020", "050", "027", "057", "026"};
+    private static final int DB_BATCH = 10_000;
+
+    private final SplittableRandom random;
+    private final double errorRate;
+    private final double[] programmeCdf = cdf(zipfWeights(PROGRAMMES.length));
+    private final double[] levelCdf = cdf(LEVEL_WEIGHTS);
+    private final LocalDate today;
+    private long next;
+    private String lastId = "STU0000001";
+
+    public DataGenerator(long seed, double errorRate) {
+        this(seed, errorRate, LocalDate.of(2026, 9, 1));
+    }
+
+    /** @param today the reference date: dates are reproducible only if this is fixed */
+    public DataGenerator(long seed, double errorRate, LocalDate today) {
+        this.random = new SplittableRandom(seed);
+        this.errorRate = errorRate;
+        this.today = today;
+    }
+
+    // ── Generation ────────────────────────────────────────────────────────────
+
+    /** The next valid student; IDs are sequential (STU0000001, STU0000002, ...). */
+    public Student next() {
+        long n = ++next;
+        int p = pick(programmeCdf);
+        int levelIndex = pick(levelCdf);
+        int level = LEVELS[levelIndex];
+
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        double gpa = Math.max(0.0, Math.min(4.0, PROGRAMME_GPA[p] + random.nextDouble(-1, 1) * 0.45
+                + random.nextDouble(-1, 1) * 0.45 + random.nextDouble(-1, 1) * 0.45));
+        gpa = Math.round(gpa * 100) / 100.0;
+        String phone = PHONE_PREFIXES[random.nextInt(PHONE_PREFIXES.length)]
+                + String.format("%07d", random.nextInt(10_000_000));
+        LocalDate added = today.minusYears(Math.min(levelIndex, 5)).minusDays(random.nextInt(365));
+        boolean inactive = random.nextDouble() < 0.08 + 0.03 * levelIndex;
+
+        lastId = String.format("STU%07d", n);
+        return new Student(lastId, first + " " + last, PROGRAMMES[p], level, gpa,
+                (first + "." + last + n).toLowerCase(Locale.ROOT) + "@stu.edu.gh",
+                phone, added, inactive ? "Inactive" : "Active");
+    }
+
+    /** Skips n students, e.g. to top up a database generated earlier with the same seed. */
+    public void skip(long n) {
+        for (long i = 0; i < n; i++) next();
+    }
+
+    /** Writes rows students (some broken, see errorRate) as CSV; returns the number of broken rows. */
+    public long writeCsv(Path file, long rows) throws IOException {
+        long broken = 0;
+        try (CsvExportWriter writer = new CsvExportWriter(file, file.toString().endsWith(".gz"))) {
+            writer.writeHeader();
+            for (long i = 0; i < rows; i++) {
+                if (errorRate > 0 && random.nextDouble() < errorRate) {
+                    writeBroken(writer);
+                    broken++;
+                } else {
+                    writer.writeRow(next());
+                }
+            }
+            writer.commit();
+        }
+        return broken;
+    }
+
+    /** Inserts rows valid students through the repository, in batches of 10k. */
+    public void writeDatabase(StudentRepository repository, long rows) {
+        List<Student> batch = new ArrayList<>(DB_BATCH);
+        for (long i = 0; i < rows; i++) {
+            batch.add(next());
+            if (batch.size() == DB_BATCH) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    private void writeBroken(CsvExportWriter writer) throws IOException {
+        String previousId = lastId;
+        Student s = next();
+        switch (random.nextInt(9)) {
+            case 0 -> s.setFullName("");
+            case 1 -> s.setFullName(s.getFullName() + " " + random.nextInt(10));
+            case 2 -> s.setGpa(4.0 + random.nextInt(1, 100) / 100.0);
+            case 3 -> s.setLevel(LEVELS[random.nextInt(LEVELS.length)] + 50);
+            case 4 -> s.setEmail(s.getEmail().replace("@", ""));
+            case 5 -> s.setPhoneNumber(s.getPhoneNumber().substring(0, 6));
+            case 6 -> s.setStudentId(previousId);
+            case 7 -> {
+                writer.writeLine(s.getStudentId() + "," + s.getFullName() + "," + s.getProgramme());
+                return;
+            }
+            default -> {
+                writer.writeLine(s.getStudentId() + "," + s.getFullName() + "," + s.getProgramme() + ","
+                        + s.getLevel() + ",n/a," + s.getEmail() + "," + s.getPhoneNumber() + ","
+                        + s.getDateAdded() + "," + s.getStatus());
+                return;
+            }
+        }
+        writer.writeRow(s);
+    }
+
+    // ── Distributions ─────────────────────────────────────────────────────────
+
+    private int pick(double[] cdf) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cdf.length - 1; i++) {
+            if (u < cdf[i]) return i;
+        }
+        return cdf.length - 1;
+    }
+
+    /** Weight of the k-th largest programme is 1 / (k+1)^0.75. */
+    private static double[] zipfWeights(int n) {
+        double[] w = new double[n];
+        for (int k = 0; k < n; k++) w[k] = 1 / Math.pow(k + 1, 0.75);
+        return w;
+    }
+
+    private static double[] cdf(double[] weights) {
+        double total = 0;
+        for (double w : weights) total += w;
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum / total;
+        }
+        return cdf;
+    }
+
+    // ── Command line ──────────────────────────────────────────────────────────
+
+    public static void main(String[] args) throws IOException {
+        Options o = new Options(args);
+        long rows = o.getLong("rows", 100_000);
+        DataGenerator generator = new DataGenerator(o.getLong("seed", 42), o.getDouble("errors", 0));
+        long start = System.nanoTime();
+
+        if (o.has("db")) {
+            System.setProperty(DatabaseManager.DB_PATH_PROPERTY, o.get("db", null));
+            generator.writeDatabase(new SQLiteStudentRepository(), rows);
+            DatabaseManager.closeConnection();
+            System.out.printf("Inserted %,d students into %s in %.1f s%n",
+                    rows, o.get("db", null), (System.nanoTime() - start) / 1e9);
+        } else {
+            Path out = Path.of(o.get("out", "data/generated_students.csv"));
+            long broken = generator.writeCsv(out, rows);
+            System.out.printf("Wrote %,d rows (%,d broken) to %s in %.1f s%n",
+                    rows, broken, out.toAbsolutePath(), (System.nanoTime() - start) / 1e9);
+        }
+        AppLogger.shutdown();
+    }
+}
@@ -0,0 +1,198 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.InstrumentedStudentRepository;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.StudentService;
+import com.sms.service.ValidationService;
+import com.sms.util.AppLogger;
+import com.sms.util.DatabaseManager;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.Metrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load test: N concurrent clients replay a weighted mix of reads, searches,
+ * filters, reports and writes against StudentService on a real database file, then
+ * throughput and latency percentiles are printed per operation. The UI is not involved,
+ * so the numbers are what the service and repository layers can sustain.
+ *
+ * The database is generated with DataGenerator first if it holds fewer than --rows
+ * students. Nothing is measured during the warm-up.
+ *
+ * Run:
+ *   mvn -Pbench compile exec:exec@load -Dload.args="--rows 1000000 --clients 8 --duration 60"
+ *
+ * Options: --db FILE (default target/load.db), --rows N (100000), --clients N (8),
+ * --warmup SECONDS (5), --duration SECONDS (30), --seed S (42),
+ * --mix read=60,search=15,filter=5,report=5,update=12,insert=3, --report FILE (also write the table there).
+ */
+public final class LoadDriver {
+
+    enum Op { READ, SEARCH, FILTER, REPORT, UPDATE, INSERT }
+
+    private static final String DEFAULT_MIX = "read=60,search=15,filter=5,report=5,update=12,insert=3";
+    private static final String[] PROGRAMMES = {"Computer Science", "Nursing", "Accounting", "Law", "Physics"};
+    private static final String[] SEARCHES = {"Mensah", "Asante", "Kwame", "Grace", "STU00012", "Ofori"};
+
+    private final StudentService service;
+    private final long knownRows;
+    private final Op[] opByWeight;
+    private final Map<Op, LatencyHistogram> latency = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> errors = new EnumMap<>(Op.class);
+    private final String runTag = Long.toString(System.currentTimeMillis() % 60_466_176L, 36); // ≤ 5 chars
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    LoadDriver(StudentService service, long knownRows, String mix) {
+        this.service = service;
+        this.knownRows = knownRows;
+        this.opByWeight = parseMix(mix);
+        for (Op op : Op.values()) {
+            latency.put(op, new LatencyHistogram());
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    // ── Workload ──────────────────────────────────────────────────────────────
+
+    private void client(int id, long seed) {
+        SplittableRandom random = new SplittableRandom(seed + id);
+        DataGenerator generator = new DataGenerator(seed + 1000 + id, 0);
+        long inserted = 0;
+        while (!stopped) {
+            Op op = opByWeight[random.nextInt(opByWeight.length)];
+            long start = System.nanoTime();
+            try {
+                switch (op) {
+                    case READ -> service.getStudentById(randomId(random));
+                    case SEARCH -> service.searchStudents(SEARCHES[random.nextInt(SEARCHES.length)]);
+                    case FILTER -> service.filterStudents(PROGRAMMES[random.nextInt(PROGRAMMES.length)],
+                            100 * (1 + random.nextInt(4)), "Active");
+                    case REPORT -> service.getTopPerformers(10, PROGRAMMES[random.nextInt(PROGRAMMES.length)], null);
+                    case UPDATE -> service.getStudentById(randomId(random)).ifPresent(s -> {
+                        s.setGpa(random.nextInt(401) / 100.0);
+                        service.updateStudent(s);
+                    });
+                    case INSERT -> {
+                        Student s = generator.next();
+                        s.setStudentId("LD" + runTag + "C" + id + "N" + inserted++);
+                        service.addStudent(s);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (measuring) errors.get(op).increment();
+                continue;
+            }
+            if (measuring) latency.get(op).recordSince(start);
+        }
+    }
+
+    private String randomId(SplittableRandom random) {
+        return String.format("STU%07d", 1 + random.nextLong(knownRows));
+    }
+
+    /** Runs the clients for warm-up plus duration and returns the report. */
+    String run(int clients, long warmupSeconds, long durationSeconds, long seed) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            pool.execute(() -> client(id, seed));
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        measuring = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        measuring = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        stopped = true;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        return report(clients, elapsed);
+    }
+
+    private String report(int clients, double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "# SMS load test: %d clients, %.1f s measured, %,d students%n",
+                clients, elapsedSeconds, knownRows));
+        sb.append(String.format(Locale.ROOT, "%-8s %10s %10s %10s %10s %10s %10s %8s%n",
+                "op", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors"));
+        long total = 0;
+        for (Op op : Op.values()) {
+            LatencyHistogram.Snapshot s = latency.get(op).snapshot();
+            long failed = errors.get(op).sum();
+            if (s.count == 0 && failed == 0) continue;
+            total += s.count;
+            sb.append(String.format(Locale.ROOT, "%-8s %,10d %10.1f %10.3f %10.3f %10.3f %10.3f %,8d%n",
+                    op.name().toLowerCase(Locale.ROOT), s.count, s.count / elapsedSeconds,
+                    s.percentile(50) / 1e6, s.percentile(95) / 1e6, s.percentile(99) / 1e6,
+                    s.maxNanos / 1e6, failed));
+        }
+        sb.append(String.format(Locale.ROOT, "%-8s %,10d %10.1f%n", "total", total, total / elapsedSeconds));
+        return sb.toString();
+    }
+
+    /** "read=60,search=15,..." to a table with one slot per unit of weight; ops are picked from it uniformly. */
+    static Op[] parseMix(String mix) {
+        Map<Op, Integer> weights = new EnumMap<>(Op.class);
+        int sum = 0;
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad --mix entry: " + part);
+            int w = Integer.parseInt(kv[1].trim());
+            weights.put(Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), w);
+            sum += w;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("--mix weights must add up to more than 0");
+        List<Op> table = new ArrayList<>();
+        for (Map.Entry<Op, Integer> e : weights.entrySet()) {
+            for (int i = 0; i < e.getValue(); i++) table.add(e.getKey());
+        }
+        return table.toArray(new Op[0]);
+    }
+
+    // ── Command line ──────────────────────────────────────────────────────────
+
+    public static void main(String[] args) throws Exception {
+        Options o = new Options(args);
+        long rows = o.getLong("rows", 100_000);
+        long seed = o.getLong("seed", 42);
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, o.get("db", "target/load.db"));
+
+        StudentRepository repository = new InstrumentedStudentRepository(new SQLiteStudentRepository());
+        if (repository.count() < rows) {
+            System.out.printf("Generating %,d students...%n", rows - repository.count());
+            DataGenerator generator = new DataGenerator(seed, 0);
+            generator.skip(repository.count()); // same seed: continue where the last run stopped
+            generator.writeDatabase(repository, rows - repository.count());
+        }
+        long known = Math.min(rows, repository.count());
+
+        LoadDriver driver = new LoadDriver(new StudentService(repository, new ValidationService()),
+                known, o.get("mix", DEFAULT_MIX));
+        Metrics.reset();
+        String report = driver.run((int) o.getLong("clients", 8), o.getLong("warmup", 5),
+                o.getLong("duration", 30), seed);
+        System.out.print(report);
+        if (o.has("report")) {
+            Path file = Path.of(o.get("report", null));
+            Files.writeString(file, report);
+            Metrics.dump(Path.of(file + ".metrics.txt")); // per repository method, see InstrumentedStudentRepository
+        }
+        DatabaseManager.closeConnection();
+        AppLogger.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+package com.sms.bench;
+
+import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+import com.sms.util.LogLevel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row logging overhead during an import, with the CSV category at INFO (records are
+ * queued) or WARN (INFO is off). One invocation logs one row the way an import loop would.
+ *
+ *   eagerConcat   the old style: the message is concatenated before AppLogger sees it
+ *   pattern       {} pattern with two arguments, substituted on the writer thread
+ *   supplier      Supplier<String>, only called when the level is enabled
+ *   event         structured event() record
+ *
+ * With INFO off the last three should cost about as much as the empty baseline. The ring
+ * uses the DROP policy so the enabled runs measure the caller, not the disk.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="LoggingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Dsms.log.console=false"})
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    @Param({"INFO", "WARN"})
+    public LogLevel csvLevel;
+
+    private final String[] ids = new String[1024];
+    private int row;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ids.length; i++) ids[i] = "STU" + (100000 + i);
+        AppLogger.setOverflowPolicy(AppLogger.OverflowPolicy.DROP);
+        AppLogger.setLevel(LogCategory.CSV, csvLevel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        AppLogger.shutdown();
+    }
+
+    private String nextId() {
+        return ids[row++ & (ids.length - 1)];
+    }
+
+    @Benchmark
+    public String baseline() {
+        return nextId();
+    }
+
+    @Benchmark
+    public void eagerConcat() {
+        String id = nextId();
+        AppLogger.info(LogCategory.CSV, "Row " + row + " imported: " + id);
+    }
+
+    @Benchmark
+    public void pattern() {
+        AppLogger.info(LogCategory.CSV, "Row {} imported: {}", row, nextId());
+    }
+
+    @Benchmark
+    public void supplier() {
+        String id = nextId();
+        AppLogger.info(LogCategory.CSV, () -> "Row " + row + " imported: " + id);
+    }
+
+    @Benchmark
+    public void event() {
+        AppLogger.event(LogCategory.CSV, "Row imported", nextId(), -1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sms.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** "--name value" command-line options for the bench tools. */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Options(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected --option, got: " + args[i]);
+            String name = args[i].substring(2);
+            if (i + 1 >= args.length || args[i + 1].startsWith("--")) {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+            values.put(name, args[++i]);
+        }
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name, String fallback) {
+        return values.getOrDefault(name, fallback);
+    }
+
+    long getLong(String name, long fallback) {
+        String v = values.get(name);
+        return v == null ? fallback : Long.parseLong(v.replace("_", ""));
+    }
+
+    double getDouble(String name, double fallback) {
+        String v = values.get(name);
+        return v == null ? fallback : Double.parseDouble(v);
+    }
+}
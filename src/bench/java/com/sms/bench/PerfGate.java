@@ -0,0 +1,247 @@
+package com.sms.bench;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performance regression gate. Runs a fixed, short JMH suite over the repository,
+ * StudentService report, CsvService and validation hot paths (throughput, with the GC
+ * profiler for allocation per operation), compares it with a baseline file kept in the
+ * repository, and exits with status 1 if any benchmark got slower or allocates more than
+ * the tolerance allows. The comparison is written as a table to --report.
+ *
+ * Throughput is noisy on shared machines, so a drop only counts when it is beyond the
+ * tolerance even at the top of this run's 99.9% confidence interval. Allocation per
+ * operation is nearly deterministic and is compared directly.
+ *
+ * Baselines are machine-specific: record one on the machine that runs the gate with
+ * --update true (the perf-gate profile: -Dperf.update=true) and commit the file. Without
+ * --update true a missing baseline file fails the gate, as does a baselined metric that
+ * the run no longer produces.
+ *
+ * Run: mvn -Pbench,perf-gate verify [-Dperf.tolerance=0.10] [-Dperf.allocTolerance=0.10]
+ *
+ * Options: --baseline FILE (default perf/baseline.properties), --tolerance FRACTION
+ * (throughput drop allowed, 0.10), --alloc-tolerance FRACTION (allocation growth allowed,
+ * 0.10), --update true|false, --report FILE, --json FILE (raw JMH results).
+ */
+public final class PerfGate {
+
+    /** The suite: kept small enough to finish in a few minutes, on 10k-row datasets. */
+    static final String[] SUITE = {
+            "RepositoryBenchmark\\.(findById|saveAndDelete|findAll|search|filter)$",
+            "ReportBenchmark\\.(averageGpa|topPerformers|atRisk|gpaDistribution|programmeSummary)$",
+            "CsvServiceBenchmark\\.(importCsv|export)$",
+            "ValidationBenchmark\\.(validate|check)$",
+            "CsvParseBenchmark\\.charBufferParser$"
+    };
+    static final String SUITE_ROWS = "10000";
+
+    /** Allocation differences below this many bytes per operation are never a regression. */
+    private static final double ALLOC_SLACK_BYTES = 64;
+
+    private PerfGate() {}
+
+    // ── Running ───────────────────────────────────────────────────────────────
+
+    /**
+     * Runs the suite; returns "Benchmark.method[param_value,...].ops" / ".alloc" → value
+     * and puts each throughput's confidence half-width into errors under the same key.
+     */
+    static Map<String, Double> runSuite(Path json, Map<String, Double> errors) throws RunnerException, IOException {
+        OptionsBuilder options = new OptionsBuilder();
+        for (String pattern : SUITE) options.include("com\\.sms\\.bench\\." + pattern);
+        options.mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .param("rows", SUITE_ROWS)
+                .warmupIterations(2).warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5).measurementTime(TimeValue.seconds(2))
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true);
+        if (json != null) {
+            Files.createDirectories(json.toAbsolutePath().getParent());
+            options.result(json.toString()).resultFormat(ResultFormatType.JSON);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        Map<String, Double> metrics = new TreeMap<>();
+        for (RunResult r : results) {
+            String name = r.getParams().getBenchmark().replace("com.sms.bench.", "");
+            StringBuilder key = new StringBuilder(name);
+            List<String> params = new ArrayList<>(r.getParams().getParamsKeys());
+            if (!params.isEmpty()) {
+                key.append('[');
+                for (String p : params) key.append(p).append('_').append(r.getParams().getParam(p)).append(',');
+                key.setCharAt(key.length() - 1, ']');
+            }
+            metrics.put(key + ".ops", r.getPrimaryResult().getScore());
+            double error = r.getPrimaryResult().getScoreError();
+            errors.put(key + ".ops", Double.isNaN(error) ? 0 : error);
+            Result<?> alloc = r.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc == null) alloc = r.getSecondaryResults().get("·gc.alloc.rate.norm");
+            if (alloc != null) metrics.put(key + ".alloc", alloc.getScore());
+        }
+        return metrics;
+    }
+
+    // ── Comparing ─────────────────────────────────────────────────────────────
+
+    /** The comparison of one run with the baseline. */
+    static final class Verdict {
+        final String report;
+        final List<String> regressions;
+
+        Verdict(String report, List<String> regressions) {
+            this.report = report;
+            this.regressions = regressions;
+        }
+
+        boolean passed() {
+            return regressions.isEmpty();
+        }
+    }
+
+    /**
+     * Compares every metric present in either run. Throughput (".ops", higher is better)
+     * regresses when it drops by more than tolerance, after giving it the benefit of its
+     * error; allocation (".alloc", bytes per op, lower is better) when it grows by more than
+     * allocTolerance and ALLOC_SLACK_BYTES. A baselined metric missing from the run (a
+     * renamed or failed benchmark) is a regression too; a new one is only reported.
+     */
+    static Verdict compare(Map<String, Double> baseline, Map<String, Double> current, Map<String, Double> errors,
+                           double tolerance, double allocTolerance) {
+        StringBuilder sb = new StringBuilder();
+        List<String> regressions = new ArrayList<>();
+        sb.append(String.format(Locale.ROOT, "# Performance gate: throughput may drop %.0f%%, allocation may grow %.0f%%%n",
+                tolerance * 100, allocTolerance * 100));
+        sb.append(String.format(Locale.ROOT, "%-60s %14s %14s %10s %9s  %s%n",
+                "metric", "baseline", "current", "± error", "change", "status"));
+
+        for (String key : union(baseline, current)) {
+            Double base = baseline.get(key);
+            Double now = current.get(key);
+            boolean alloc = key.endsWith(".alloc");
+            double error = errors.getOrDefault(key, 0.0);
+            String status;
+            String change = "";
+            if (base == null) {
+                status = "NEW";
+            } else if (now == null) {
+                status = "MISSING";
+                regressions.add(key + " missing");
+            } else {
+                change = base == 0
+                        ? (now >= base ? "+" : "") + format(now - base) // no percentage of zero
+                        : String.format(Locale.ROOT, "%+.1f%%", (now - base) / base * 100);
+                boolean worse = alloc
+                        ? now > base * (1 + allocTolerance) && now - base > ALLOC_SLACK_BYTES
+                        : now + error < base * (1 - tolerance);
+                boolean better = alloc ? now < base * (1 - allocTolerance) : now > base * (1 + tolerance);
+                status = worse ? "REGRESSED" : better ? "improved" : "ok";
+                if (worse) regressions.add(key + " " + change);
+            }
+            sb.append(String.format(Locale.ROOT, "%-60s %14s %14s %10s %9s  %s%n",
+                    key + (alloc ? " (B/op)" : " (ops/s)"), format(base), format(now),
+                    alloc || now == null ? "" : format(error), change, status));
+        }
+        sb.append(regressions.isEmpty()
+                ? "PASSED: no regressions.\n"
+                : "FAILED: " + regressions.size() + " regression(s): " + String.join(", ", regressions) + "\n");
+        return new Verdict(sb.toString(), regressions);
+    }
+
+    private static TreeSet<String> union(Map<String, Double> a, Map<String, Double> b) {
+        TreeSet<String> keys = new TreeSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        return keys;
+    }
+
+    private static String format(Double v) {
+        if (v == null) return "-";
+        return String.format(Locale.ROOT, Math.abs(v) >= 100 ? "%,.0f" : "%.2f", v);
+    }
+
+    // ── Baseline file ─────────────────────────────────────────────────────────
+
+    static Map<String, Double> readBaseline(Path file) throws IOException {
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(in);
+        }
+        Map<String, Double> metrics = new TreeMap<>();
+        for (String key : p.stringPropertyNames()) metrics.put(key, Double.parseDouble(p.getProperty(key)));
+        return metrics;
+    }
+
+    /** Written sorted with one metric per line, so baseline changes review as small diffs. */
+    static void writeBaseline(Path file, Map<String, Double> metrics) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Performance gate baseline (PerfGate). Throughput in ops/s (.ops), allocation in B/op (.alloc).\n");
+            out.write("# Re-record on the gate machine: mvn -Pbench,perf-gate verify -Dperf.update=true\n");
+            for (Map.Entry<String, Double> e : new TreeMap<>(metrics).entrySet()) {
+                out.write(e.getKey() + "=" + String.format(Locale.ROOT, "%.2f", e.getValue()) + "\n");
+            }
+        }
+    }
+
+    // ── Command line ──────────────────────────────────────────────────────────
+
+    public static void main(String[] args) throws Exception {
+        Options o = new Options(args);
+        Path baselineFile = Path.of(o.get("baseline", "perf/baseline.properties"));
+        boolean update = Boolean.parseBoolean(o.get("update", "false"));
+        Path json = o.has("json") ? Path.of(o.get("json", null)) : null;
+
+        if (!update && !Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile.toAbsolutePath()
+                    + "; record one on this machine with --update true (-Dperf.update=true) and commit it.");
+            System.exit(1);
+        }
+
+        Map<String, Double> baseline = update ? null : readBaseline(baselineFile);
+        Map<String, Double> errors = new TreeMap<>();
+        Map<String, Double> current = runSuite(json, errors);
+        if (baseline == null) {
+            writeBaseline(baselineFile, current);
+            System.out.println("Baseline written to " + baselineFile.toAbsolutePath() + " (" + current.size() + " metrics).");
+            return;
+        }
+
+        Verdict verdict = compare(baseline, current, errors,
+                o.getDouble("tolerance", 0.10), o.getDouble("alloc-tolerance", 0.10));
+        System.out.print(verdict.report);
+        if (o.has("report")) {
+            Path report = Path.of(o.get("report", null));
+            Path parent = report.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Files.writeString(report, verdict.report);
+        }
+        if (!verdict.passed()) System.exit(1);
+    }
+}
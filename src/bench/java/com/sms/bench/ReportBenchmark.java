@@ -0,0 +1,87 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.service.StudentService;
+import com.sms.service.ValidationService;
+import com.sms.util.DatabaseManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every StudentService dashboard and report method, end to end (SQL, row mapping and
+ * the in-memory aggregation) on a database of 1k, 100k or 1M students.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="ReportBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dsms.log.level=WARN", "-Dsms.log.console=false", "-Dsms.db.slowQueryMs=-1"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private StudentService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new StudentService(BenchData.database(rows), new ValidationService());
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseManager.closeConnection();
+    }
+
+    @Benchmark
+    public long totalCount() {
+        return service.getTotalCount();
+    }
+
+    @Benchmark
+    public long activeCount() {
+        return service.getActiveCount();
+    }
+
+    @Benchmark
+    public long inactiveCount() {
+        return service.getInactiveCount();
+    }
+
+    @Benchmark
+    public double averageGpa() {
+        return service.getAverageGpa();
+    }
+
+    @Benchmark
+    public List<Student> topPerformers() {
+        return service.getTopPerformers(10, null, null);
+    }
+
+    @Benchmark
+    public List<Student> topPerformersFiltered() {
+        return service.getTopPerformers(10, "Computer Science", 300);
+    }
+
+    @Benchmark
+    public List<Student> atRisk() {
+        return service.getAtRiskStudents(2.0);
+    }
+
+    @Benchmark
+    public Map<String, Long> gpaDistribution() {
+        return service.getGpaDistribution();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> programmeSummary() {
+        return service.getProgrammeSummary();
+    }
+}
@@ -0,0 +1,113 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.StudentRepository;
+import com.sms.util.DatabaseManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQLiteStudentRepository against a database file of 1k, 100k or 1M students (see
+ * BenchData): single-row CRUD, which should not depend on the table size, and the
+ * bulk reads, which do. Writes leave the row count unchanged so the seeded database
+ * can be reused.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="RepositoryBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dsms.log.level=WARN", "-Dsms.log.console=false", "-Dsms.db.slowQueryMs=-1"})
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private StudentRepository repository;
+    private Student extra;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = BenchData.database(rows);
+        extra = BenchData.student(rows); // not in the table
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseManager.closeConnection();
+    }
+
+    private String nextId() {
+        next = (next + 7919) % rows; // walk the table instead of hitting one cached page
+        return BenchData.student(next).getStudentId();
+    }
+
+    // ── Single-row CRUD ───────────────────────────────────────────────────────
+
+    @Benchmark
+    public Optional<Student> findById() {
+        return repository.findById(nextId());
+    }
+
+    @Benchmark
+    public boolean existsById() {
+        return repository.existsById(nextId());
+    }
+
+    /** Insert then delete the same student: two transactions, the table keeps its size. */
+    @Benchmark
+    public void saveAndDelete() {
+        repository.save(extra);
+        repository.delete(extra.getStudentId());
+    }
+
+    @Benchmark
+    public void update() {
+        repository.update(BenchData.student(next = (next + 7919) % rows));
+    }
+
+    // ── Bulk reads ────────────────────────────────────────────────────────────
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Student> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void forEachStudent(Blackhole bh) {
+        repository.forEachStudent(bh::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Student> search() {
+        return repository.search("Kwame Asante");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Student> filter() {
+        return repository.filter("Nursing", 300, "Active");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String> findAllProgrammes() {
+        return repository.findAllProgrammes();
+    }
+
+    @Benchmark
+    public long count() {
+        return repository.count();
+    }
+}
@@ -0,0 +1,135 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.service.CsvParser;
+import com.sms.service.CsvService;
+import com.sms.service.SnapshotColumn;
+import com.sms.service.SnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export and import of the same rows as CSV and as a binary snapshot.
+ * File sizes are printed once during setup.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="SnapshotBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private final CsvService csvService = new CsvService();
+    private final SnapshotService snapshotService = new SnapshotService();
+    private List<Student> students;
+    private Path dir;
+    private Path csvFile;
+    private Path snapshotFile;
+    private Path packedFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        students = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            students.add(new Student("STU" + (100000 + i), "Student Number " + i,
+                    i % 3 == 0 ? "Computer Science" : "Information Technology",
+                    100 * (1 + i % 4), (i % 401) / 100.0, "student" + i + "@stu.edu.gh",
+                    "0244" + (100000 + i), LocalDate.of(2020, 1, 1).plusDays(i / 500),
+                    i % 5 == 0 ? "Inactive" : "Active"));
+        }
+        dir = Files.createTempDirectory("snapshot-bench");
+        csvFile = dir.resolve("students.csv");
+        snapshotFile = dir.resolve("students.smsb");
+        packedFile = dir.resolve("students-deflate.smsb");
+
+        try (Writer w = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            w.write("student_id,full_name,programme,level,gpa,email,phone_number,date_added,status\n");
+            for (Student s : students) {
+                w.write(s.getStudentId() + "," + s.getFullName() + "," + s.getProgramme() + "," + s.getLevel() + ","
+                        + s.getGpa() + "," + s.getEmail() + "," + s.getPhoneNumber() + "," + s.getDateAdded() + ","
+                        + s.getStatus() + "\n");
+            }
+        }
+        snapshotService.exportSnapshot(students::forEach, snapshotFile, false, null);
+        snapshotService.exportSnapshot(students::forEach, packedFile, true, null);
+        System.out.printf("%ncsv %,d bytes | snapshot %,d bytes | deflated snapshot %,d bytes%n",
+                Files.size(csvFile), Files.size(snapshotFile), Files.size(packedFile));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        // CsvService writes under ./data; the relative name keeps the file out of the temp dir
+        return csvService.exportStudents(students::forEach, "bench_students.csv", false, null);
+    }
+
+    @Benchmark
+    public long exportSnapshot() throws IOException {
+        return snapshotService.exportSnapshot(students::forEach, dir.resolve("out.smsb"), false, null);
+    }
+
+    @Benchmark
+    public long exportSnapshotDeflate() throws IOException {
+        return snapshotService.exportSnapshot(students::forEach, dir.resolve("out-deflate.smsb"), true, null);
+    }
+
+    @Benchmark
+    public void importCsv(Blackhole bh) throws IOException {
+        try (CsvParser p = new CsvParser(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8))) {
+            p.nextRecord(); // header
+            while (p.nextRecord()) {
+                Student s = new Student();
+                s.setStudentId(p.getString(0));
+                s.setFullName(p.getString(1));
+                s.setProgramme(p.getString(2));
+                s.setLevel(p.getInt(3));
+                s.setGpa(p.getDouble(4));
+                s.setEmail(p.getString(5));
+                s.setPhoneNumber(p.getString(6));
+                s.setDateAdded(p.getDate(7));
+                s.setStatus(p.getString(8));
+                bh.consume(s);
+            }
+        }
+    }
+
+    @Benchmark
+    public long importSnapshot(Blackhole bh) throws IOException {
+        return snapshotService.readSnapshot(snapshotFile.toFile(), EnumSet.allOf(SnapshotColumn.class), bh::consume);
+    }
+
+    @Benchmark
+    public long importSnapshotDeflate(Blackhole bh) throws IOException {
+        return snapshotService.readSnapshot(packedFile.toFile(), EnumSet.allOf(SnapshotColumn.class), bh::consume);
+    }
+
+    /** Only the columns a GPA report needs: the rest are skipped on disk. */
+    @Benchmark
+    public long importSnapshotTwoColumns(Blackhole bh) throws IOException {
+        return snapshotService.readSnapshot(packedFile.toFile(),
+                EnumSet.of(SnapshotColumn.STUDENT_ID, SnapshotColumn.GPA), bh::consume);
+    }
+}
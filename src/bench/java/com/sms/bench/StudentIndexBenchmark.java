@@ -0,0 +1,65 @@
+package com.sms.bench;
+
+import com.sms.domain.Student;
+import com.sms.repository.StudentRepository;
+import com.sms.service.StudentIndex;
+import com.sms.util.DatabaseManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Students screen's in-memory filters (StudentIndex) over 1k, 100k or 1M students,
+ * for comparison with RepositoryBenchmark.filter, which runs the same filter in SQLite.
+ * build is paid once per load of the screen; select and filter on every combo box change.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="StudentIndexBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dsms.log.level=WARN", "-Dsms.log.console=false", "-Dsms.db.slowQueryMs=-1"})
+@State(Scope.Benchmark)
+public class StudentIndexBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Student> students;
+    private StudentIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        StudentRepository repository = BenchData.database(rows);
+        students = repository.findAll();
+        DatabaseManager.closeConnection();
+        index = new StudentIndex(students);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StudentIndex build() {
+        return new StudentIndex(students);
+    }
+
+    /** Bitmap intersection only. */
+    @Benchmark
+    public BitSet select() {
+        return index.select("Nursing", 300, "Active");
+    }
+
+    /** Intersection plus the matching rows, as the table gets them. */
+    @Benchmark
+    public List<Student> filter() {
+        return index.filter("Nursing", 300, "Active");
+    }
+
+    @Benchmark
+    public List<Student> filterOneCriterion() {
+        return index.filter(null, null, "Active");
+    }
+}
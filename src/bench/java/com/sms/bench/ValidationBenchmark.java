@@ -0,0 +1,103 @@
+package com.sms.bench;
+
+import com.sms.domain.BatchValidationResult;
+import com.sms.domain.Student;
+import com.sms.domain.ValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a valid student: the old regex-based rules vs ValidationService.
+ * Run with -prof gc: check() should show gc.alloc.rate.norm ≈ 0 B/op. validateAll() runs
+ * the batch path on 1k, 100k and 1M students.
+ *
+ * Run: mvn -Pbench compile exec:exec -Djmh.args="ValidationBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final Set<Integer> VALID_LEVELS = Set.of(100, 200, 300, 400, 500, 600, 700);
+
+    private final com.sms.service.ValidationService service = new com.sms.service.ValidationService();
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        student = new Student("STU0001", "Kwame Asante", "Computer Science", 300, 3.5,
+                "kwame@stu.edu.gh", "0244123456", LocalDate.of(2025, 9, 1), "Active");
+    }
+
+    /** The rules as ValidationService used to run them: String.matches and an eager result. */
+    @Benchmark
+    public boolean legacyRegex() {
+        Student s = student;
+        ValidationResult r = new ValidationResult();
+        String id = s.getStudentId();
+        if (id == null || id.isBlank()) r.addError("Student ID is required.");
+        else {
+            if (id.length() < 4 || id.length() > 20) r.addError("Student ID must be between 4 and 20 characters.");
+            if (!id.matches("[A-Za-z0-9]+")) r.addError("Student ID must contain only letters and digits.");
+        }
+        String name = s.getFullName();
+        if (name == null || name.isBlank()) r.addError("Full name is required.");
+        else {
+            if (name.length() < 2 || name.length() > 60) r.addError("Full name must be between 2 and 60 characters.");
+            if (name.matches(".*\\d.*")) r.addError("Full name must not contain digits.");
+        }
+        if (s.getProgramme() == null || s.getProgramme().isBlank()) r.addError("Programme is required.");
+        if (!VALID_LEVELS.contains(s.getLevel())) r.addError("Level must be one of: 100, 200, 300, 400, 500, 600, 700.");
+        if (s.getGpa() < 0.0 || s.getGpa() > 4.0) r.addError("GPA must be between 0.0 and 4.0.");
+        String email = s.getEmail();
+        if (email == null || email.isBlank()) r.addError("Email is required.");
+        else if (!email.contains("@") || !email.contains(".")) r.addError("Email must contain '@' and '.'.");
+        String phone = s.getPhoneNumber();
+        if (phone == null || phone.isBlank()) r.addError("Phone number is required.");
+        else {
+            if (!phone.matches("\\d+")) r.addError("Phone number must contain digits only.");
+            if (phone.length() < 10 || phone.length() > 15) r.addError("Phone number must be between 10 and 15 digits.");
+        }
+        return r.isValid();
+    }
+
+    /** Full ValidationResult API (one small object for a valid student). */
+    @Benchmark
+    public boolean validate() {
+        return service.validate(student).isValid();
+    }
+
+    /** Bulk-import path: error bitmask only. */
+    @Benchmark
+    public int check() {
+        return service.check(student);
+    }
+
+    /** A whole import's worth of students for validateAll(). */
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+
+        List<Student> students;
+
+        @Setup
+        public void setUp() {
+            students = BenchData.students(0, rows);
+        }
+    }
+
+    /** Batch validation as CSV import uses it (parallel above 8k rows). */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BatchValidationResult validateAll(Batch batch) {
+        return service.validateAll(batch.students);
+    }
+}
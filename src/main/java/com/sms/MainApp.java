@@ -1,21 +1,35 @@
 package com.sms;
 
+import com.sms.service.ValidationRuleWatcher;
 import com.sms.util.AppLogger;
 import com.sms.util.DatabaseManager;
+import com.sms.util.FlightRecording;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * Entry point for the Student Management System Plus.
  * Launches JavaFX, loads the main window, and handles shutdown cleanly.
  */
 public class MainApp extends Application {
 
+    private ValidationRuleWatcher ruleWatcher;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
         AppLogger.info("Application started.");
+        FlightRecording.startFromSystemProperties();
+
+        try {
+            ruleWatcher = ValidationRuleWatcher.start(Path.of("data", ValidationRuleWatcher.RULES_FILE));
+        } catch (IOException e) {
+            AppLogger.warn("Could not load validation rules, using defaults: " + e.getMessage());
+        }
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/sms/ui/MainView.fxml"));
         Scene scene = new Scene(loader.load(), 1100, 700);
@@ -29,7 +43,16 @@ public class MainApp extends Application {
         // Clean shutdown
         primaryStage.setOnCloseRequest(e -> {
             AppLogger.info("Application closed.");
+            if (ruleWatcher != null) {
+                try {
+                    ruleWatcher.close();
+                } catch (IOException ex) {
+                    AppLogger.warn("Could not stop rule watcher: " + ex.getMessage());
+                }
+            }
             DatabaseManager.closeConnection();
+            FlightRecording.stop();
+            AppLogger.shutdown();
         });
     }
 
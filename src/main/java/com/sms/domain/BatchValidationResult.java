@@ -0,0 +1,87 @@
+package com.sms.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of validating a list of students in one call (ValidationService.validateAll).
+ *
+ * Stores one bit per row for "valid" and one ValidationError mask per row; no message
+ * strings exist until getMessages() is called for a row. In fail-fast mode validation
+ * stops at the first invalid row, and rows after it count as unchecked.
+ */
+public class BatchValidationResult {
+
+    private final int size;
+    private final long[] validBits;
+    private final int[] errorMasks;
+    private final int firstInvalid;     // -1 if every row is valid
+    private final boolean complete;     // false if fail-fast left rows unchecked
+
+    public BatchValidationResult(int size, long[] validBits, int[] errorMasks, int firstInvalid, boolean complete) {
+        this.size = size;
+        this.validBits = validBits;
+        this.errorMasks = errorMasks;
+        this.firstInvalid = firstInvalid;
+        this.complete = complete;
+    }
+
+    public int size()                   { return size; }
+    public boolean allValid()           { return firstInvalid < 0; }
+    public int getFirstInvalid()        { return firstInvalid; }
+    public boolean isComplete()         { return complete; }
+
+    public boolean isChecked(int row) {
+        return complete || row <= firstInvalid;
+    }
+
+    public boolean isValid(int row) {
+        return (validBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** ValidationError bits for the row; 0 if it is valid or was not checked. */
+    public int getErrorMask(int row) {
+        return errorMasks[row];
+    }
+
+    /** Index of the next valid row at or after {@code from}, or -1. Like BitSet.nextSetBit. */
+    public int nextValid(int from) {
+        if (from >= size) return -1;
+        int w = from >>> 6;
+        long word = validBits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                return row < size ? row : -1;
+            }
+            if (++w == validBits.length) return -1;
+            word = validBits[w];
+        }
+    }
+
+    public int getValidCount() {
+        int n = 0;
+        for (long w : validBits) n += Long.bitCount(w);
+        return n;
+    }
+
+    public int getInvalidCount() {
+        int n = 0;
+        for (int m : errorMasks) if (m != 0) n++;
+        return n;
+    }
+
+    /** Messages for one row, built now, in the given locale. */
+    public List<String> getMessages(int row, Locale locale) {
+        List<String> messages = new ArrayList<>();
+        for (int m = errorMasks[row]; m != 0; m &= m - 1) {
+            messages.add(ValidationError.lowest(m).getMessage(locale));
+        }
+        return messages;
+    }
+
+    public List<String> getMessages(int row) {
+        return getMessages(row, Locale.getDefault());
+    }
+}
@@ -0,0 +1,42 @@
+package com.sms.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker for a CSV import, stored after every committed batch.
+ * Lets an interrupted import continue from the last committed row instead of starting over.
+ */
+public class ImportCheckpoint {
+
+    private final String fingerprint;   // identifies the exact file contents
+    private final String filePath;
+    private final long byteOffset;      // where the next unread record starts
+    private final long lineNumber;      // line on which that record starts
+    private final long rowsImported;
+    private final long errorCount;
+    private final LocalDateTime updatedAt;
+
+    public ImportCheckpoint(String fingerprint, String filePath, long byteOffset, long lineNumber,
+                            long rowsImported, long errorCount, LocalDateTime updatedAt) {
+        this.fingerprint = fingerprint;
+        this.filePath = filePath;
+        this.byteOffset = byteOffset;
+        this.lineNumber = lineNumber;
+        this.rowsImported = rowsImported;
+        this.errorCount = errorCount;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getFingerprint()       { return fingerprint; }
+    public String getFilePath()          { return filePath; }
+    public long getByteOffset()          { return byteOffset; }
+    public long getLineNumber()          { return lineNumber; }
+    public long getRowsImported()        { return rowsImported; }
+    public long getErrorCount()          { return errorCount; }
+    public LocalDateTime getUpdatedAt()  { return updatedAt; }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{file='" + filePath + "', line=" + lineNumber + ", rows=" + rowsImported + "}";
+    }
+}
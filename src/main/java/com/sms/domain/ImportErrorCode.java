@@ -0,0 +1,14 @@
+package com.sms.domain;
+
+/**
+ * Why an import row was rejected. Written to the error report so rejected rows can be
+ * grouped and counted instead of read one message at a time.
+ */
+public enum ImportErrorCode {
+    COLUMN_COUNT,    // row has fewer columns than the header requires
+    BAD_NUMBER,      // level or GPA is not a number
+    BAD_DATE,        // date_added is not yyyy-MM-dd
+    INVALID_VALUE,   // field parsed but failed a validation rule
+    DUPLICATE_ID,    // student ID already in the database or earlier in the file
+    UNREADABLE_ROW   // anything else that stopped the row from being read
+}
@@ -0,0 +1,40 @@
+package com.sms.domain;
+
+/**
+ * One entry of the change feed used by delta exports: a student that was added or
+ * updated (with its current data), or the ID of a deleted student (a tombstone).
+ */
+public class StudentChange {
+
+    public enum Type { UPSERT, DELETE }
+
+    private final Type type;
+    private final long sequence;       // change sequence number at which this happened
+    private final String studentId;
+    private final Student student;     // null for deletes
+
+    private StudentChange(Type type, long sequence, String studentId, Student student) {
+        this.type = type;
+        this.sequence = sequence;
+        this.studentId = studentId;
+        this.student = student;
+    }
+
+    public static StudentChange upsert(Student student, long sequence) {
+        return new StudentChange(Type.UPSERT, sequence, student.getStudentId(), student);
+    }
+
+    public static StudentChange delete(String studentId, long sequence) {
+        return new StudentChange(Type.DELETE, sequence, studentId, null);
+    }
+
+    public Type getType()          { return type; }
+    public long getSequence()      { return sequence; }
+    public String getStudentId()   { return studentId; }
+    public Student getStudent()    { return student; }
+
+    @Override
+    public String toString() {
+        return "StudentChange{" + type + " " + studentId + " @" + sequence + "}";
+    }
+}
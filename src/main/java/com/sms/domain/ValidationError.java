@@ -0,0 +1,77 @@
+package com.sms.domain;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * Every rule ValidationService checks, with the field it belongs to and its message.
+ * Each constant owns one bit, so a whole student's result fits in an int mask.
+ * Declaration order is the order messages are reported in.
+ *
+ * Messages are templates; {0} and {1} are filled in from the active ValidationRules,
+ * so they always quote the bounds that were actually checked.
+ */
+public enum ValidationError {
+
+    STUDENT_ID_REQUIRED ("student_id",   "Student ID is required."),
+    STUDENT_ID_LENGTH   ("student_id",   "Student ID must be between {0} and {1} characters."),
+    STUDENT_ID_CHARS    ("student_id",   "Student ID must contain only {0}."),
+    FULL_NAME_REQUIRED  ("full_name",    "Full name is required."),
+    FULL_NAME_LENGTH    ("full_name",    "Full name must be between {0} and {1} characters."),
+    FULL_NAME_DIGITS    ("full_name",    "Full name must not contain {0}."),
+    PROGRAMME_REQUIRED  ("programme",    "Programme is required."),
+    LEVEL_INVALID       ("level",        "Level must be one of: {0}."),
+    GPA_RANGE           ("gpa",          "GPA must be between {0} and {1}."),
+    EMAIL_REQUIRED      ("email",        "Email is required."),
+    EMAIL_FORMAT        ("email",        "Email must contain {0}."),
+    PHONE_REQUIRED      ("phone_number", "Phone number is required."),
+    PHONE_DIGITS        ("phone_number", "Phone number must contain {0} only."),
+    PHONE_LENGTH        ("phone_number", "Phone number must be between {0} and {1} digits.");
+
+    private static final ValidationError[] ALL = values();
+
+    private final String field;
+    private final String template;
+
+    ValidationError(String field, String template) {
+        this.field = field;
+        this.template = template;
+    }
+
+    private static final String BUNDLE = "com.sms.i18n.ValidationMessages";
+
+    public int bit()           { return 1 << ordinal(); }
+    public String getField()   { return field; }
+
+    /** English message, as used in logs and error reports. */
+    public String getMessage() {
+        return format(template);
+    }
+
+    /** Message from the ValidationMessages bundle for the locale, or the English text if missing. */
+    public String getMessage(Locale locale) {
+        try {
+            return format(ResourceBundle.getBundle(BUNDLE, locale).getString(name()));
+        } catch (MissingResourceException e) {
+            return getMessage();
+        }
+    }
+
+    /** Plain {n} substitution; unlike MessageFormat, apostrophes in translations need no escaping. */
+    private String format(String text) {
+        if (text.indexOf('{') < 0) return text;
+        String[] args = ValidationRules.active().messageArgs(this);
+        for (int i = 0; i < args.length; i++) text = text.replace("{" + i + "}", args[i]);
+        return text;
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /** The error for the lowest set bit of the mask. */
+    public static ValidationError lowest(int mask) {
+        return ALL[Integer.numberOfTrailingZeros(mask)];
+    }
+}
@@ -1,30 +1,79 @@
 package com.sms.domain;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Holds the result of a validation check.
  * Contains a list of error messages. If the list is empty, validation passed.
+ * Each message can name the field it is about, for structured error reports.
+ *
+ * Results built from a ValidationError mask keep just the int until the messages are
+ * asked for, and a passing result never allocates its lists.
  */
 public class ValidationResult {
 
-    private final List<String> errors = new ArrayList<>();
+    private int mask;               // rules not yet turned into messages
+    private List<String> errors;    // created on the first error
+    private List<String> fields;
+
+    public ValidationResult() {}
+
+    /** Result for a ValidationService.check() mask; messages are built on first use. */
+    public static ValidationResult fromMask(int mask) {
+        ValidationResult r = new ValidationResult();
+        r.mask = mask;
+        return r;
+    }
 
     public void addError(String message) {
+        addError(null, message);
+    }
+
+    /** @param field CSV column name the message is about (e.g. "gpa"), or null */
+    public void addError(String field, String message) {
+        materialize();
+        if (errors == null) {
+            errors = new ArrayList<>(4);
+            fields = new ArrayList<>(4);
+        }
         errors.add(message);
+        fields.add(field);
+    }
+
+    /** Adds one message per bit set in the ValidationError mask. */
+    public void addErrors(int errorMask) {
+        for (int m = errorMask; m != 0; m &= m - 1) {
+            ValidationError e = ValidationError.lowest(m);
+            addError(e.getField(), e.getMessage());
+        }
     }
 
     public boolean isValid() {
-        return errors.isEmpty();
+        return mask == 0 && (errors == null || errors.isEmpty());
     }
 
     public List<String> getErrors() {
-        return errors;
+        materialize();
+        return errors == null ? Collections.emptyList() : errors;
+    }
+
+    /** Field for each message in getErrors(), same order; null where no field was given. */
+    public List<String> getFields() {
+        materialize();
+        return fields == null ? Collections.emptyList() : fields;
     }
 
     /** Returns all errors joined by newlines, useful for dialogs. */
     public String getErrorMessage() {
-        return String.join("\n", errors);
+        return String.join("\n", getErrors());
+    }
+
+    private void materialize() {
+        if (mask == 0) return;
+        int pending = mask;
+        mask = 0;
+        addErrors(pending);
     }
 }
@@ -0,0 +1,223 @@
+package com.sms.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+/**
+ * The configurable parts of the validation rules: length bounds, allowed characters,
+ * allowed levels, the GPA range and the characters an email must contain.
+ *
+ * Rules are read from a properties file (see validation_rules.properties for every key)
+ * and turned into a fused validator by ValidationService.install(). The rules that are
+ * currently installed also fill in the numbers in ValidationError messages.
+ *
+ * Character sets are written as a comma-separated list of "letters", "digits", "space"
+ * and literal characters, e.g. {@code letters,digits,-_}. All classes are ASCII-only.
+ */
+public final class ValidationRules {
+
+    // What the students table CHECKs allow (DatabaseManager.createSchema). Rules may narrow
+    // these but not widen them, or valid rows would fail on insert.
+    static final int[] SCHEMA_LEVELS = {100, 200, 300, 400, 500, 600, 700};
+    static final double SCHEMA_GPA_MIN = 0.0;
+    static final double SCHEMA_GPA_MAX = 4.0;
+
+    private static volatile ValidationRules active = defaults();
+
+    public final int studentIdMin;
+    public final int studentIdMax;
+    public final String studentIdChars;
+    public final int fullNameMin;
+    public final int fullNameMax;
+    public final String fullNameForbiddenChars;   // empty = anything goes
+    public final boolean programmeRequired;
+    public final int[] levels;                    // sorted, no duplicates
+    public final double gpaMin;
+    public final double gpaMax;
+    public final String emailRequiredChars;
+    public final int phoneMin;
+    public final int phoneMax;
+    public final String phoneChars;
+
+    private ValidationRules(Properties p) {
+        studentIdMin           = intValue(p, "student_id.min_length", 4);
+        studentIdMax           = intValue(p, "student_id.max_length", 20);
+        studentIdChars         = charSet(p, "student_id.chars", "letters,digits");
+        fullNameMin            = intValue(p, "full_name.min_length", 2);
+        fullNameMax            = intValue(p, "full_name.max_length", 60);
+        fullNameForbiddenChars = charSet(p, "full_name.forbidden_chars", "digits");
+        programmeRequired      = boolValue(p, "programme.required", true);
+        levels                 = levels(p, "level.allowed", "100,200,300,400,500,600,700");
+        gpaMin                 = doubleValue(p, "gpa.min", 0.0);
+        gpaMax                 = doubleValue(p, "gpa.max", 4.0);
+        emailRequiredChars     = p.getProperty("email.required_chars", "@.").trim();
+        phoneMin               = intValue(p, "phone_number.min_length", 10);
+        phoneMax               = intValue(p, "phone_number.max_length", 15);
+        phoneChars             = charSet(p, "phone_number.chars", "digits");
+
+        checkRange("student_id length", studentIdMin, studentIdMax);
+        checkRange("full_name length", fullNameMin, fullNameMax);
+        checkRange("phone_number length", phoneMin, phoneMax);
+        if (gpaMin > gpaMax) throw new IllegalArgumentException("gpa.min is greater than gpa.max");
+        if (levels.length == 0) throw new IllegalArgumentException("level.allowed is empty");
+        for (int level : levels) {
+            if (Arrays.binarySearch(SCHEMA_LEVELS, level) < 0) {
+                throw new IllegalArgumentException("level.allowed: the database does not accept level " + level);
+            }
+        }
+        if (gpaMin < SCHEMA_GPA_MIN || gpaMax > SCHEMA_GPA_MAX) {
+            throw new IllegalArgumentException("gpa.min and gpa.max must lie within the database range "
+                    + SCHEMA_GPA_MIN + " to " + SCHEMA_GPA_MAX);
+        }
+    }
+
+    // ── Loading ───────────────────────────────────────────────────────────────
+
+    /** The rules the app shipped with (the assignment brief). */
+    public static ValidationRules defaults() {
+        return new ValidationRules(new Properties());
+    }
+
+    /**
+     * Reads a rule file. Missing keys keep their default value.
+     * @throws IllegalArgumentException if a value is malformed, the bounds contradict each other,
+     *         or a level or GPA bound lies outside what the students table accepts.
+     */
+    public static ValidationRules load(Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties p = new Properties();
+            p.load(in);
+            return new ValidationRules(p);
+        }
+    }
+
+    public static ValidationRules load(InputStream in) throws IOException {
+        Properties p = new Properties();
+        p.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new ValidationRules(p);
+    }
+
+    /** The rules ValidationService is currently checking against. */
+    public static ValidationRules active() {
+        return active;
+    }
+
+    /** Called by ValidationService.install(); use that rather than calling this directly. */
+    public static void activate(ValidationRules rules) {
+        active = rules;
+    }
+
+    // ── Messages ──────────────────────────────────────────────────────────────
+
+    /** Values for the {0}, {1} placeholders of the error's message. */
+    public String[] messageArgs(ValidationError error) {
+        return switch (error) {
+            case STUDENT_ID_LENGTH -> new String[]{ String.valueOf(studentIdMin), String.valueOf(studentIdMax) };
+            case STUDENT_ID_CHARS  -> new String[]{ describe(studentIdChars) };
+            case FULL_NAME_LENGTH  -> new String[]{ String.valueOf(fullNameMin), String.valueOf(fullNameMax) };
+            case FULL_NAME_DIGITS  -> new String[]{ describe(fullNameForbiddenChars) };
+            case LEVEL_INVALID     -> new String[]{ joinLevels() };
+            case GPA_RANGE         -> new String[]{ String.valueOf(gpaMin), String.valueOf(gpaMax) };
+            case EMAIL_FORMAT      -> new String[]{ quoteEach(emailRequiredChars) };
+            case PHONE_DIGITS      -> new String[]{ describe(phoneChars) };
+            case PHONE_LENGTH      -> new String[]{ String.valueOf(phoneMin), String.valueOf(phoneMax) };
+            default                -> new String[0];
+        };
+    }
+
+    /** "letters,digits" -> "letters and digits"; literal characters are quoted. */
+    private static String describe(String charSet) {
+        StringJoiner parts = new StringJoiner(", ");
+        String[] tokens = charSet.split(",");
+        int count = 0;
+        String last = null;
+        for (String token : tokens) {
+            String t = token.trim();
+            if (t.isEmpty()) continue;
+            String text = switch (t) {
+                case "letters", "digits", "space" -> t;
+                default -> quoteEach(t);
+            };
+            if (last != null) parts.add(last);
+            last = text;
+            count++;
+        }
+        if (count <= 1) return last == null ? "" : last;
+        return parts + " and " + last;
+    }
+
+    private static String quoteEach(String chars) {
+        StringJoiner out = new StringJoiner(" and ");
+        chars.chars().forEach(c -> out.add("'" + (char) c + "'"));
+        return out.toString();
+    }
+
+    private String joinLevels() {
+        StringJoiner out = new StringJoiner(", ");
+        for (int level : levels) out.add(String.valueOf(level));
+        return out.toString();
+    }
+
+    // ── Parsing ───────────────────────────────────────────────────────────────
+
+    private static int intValue(Properties p, String key, int fallback) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank()) return fallback;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a whole number, got '" + v.trim() + "'");
+        }
+    }
+
+    private static double doubleValue(Properties p, String key, double fallback) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank()) return fallback;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number, got '" + v.trim() + "'");
+        }
+    }
+
+    private static boolean boolValue(Properties p, String key, boolean fallback) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank()) return fallback;
+        return switch (v.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "yes"  -> true;
+            case "false", "no"  -> false;
+            default -> throw new IllegalArgumentException(key + " must be true or false, got '" + v.trim() + "'");
+        };
+    }
+
+    private static String charSet(Properties p, String key, String fallback) {
+        String v = p.getProperty(key, fallback).trim();
+        for (int i = 0; i < v.length(); i++) {
+            if (v.charAt(i) > 127) throw new IllegalArgumentException(key + " may only list ASCII characters");
+        }
+        return v;
+    }
+
+    private static int[] levels(Properties p, String key, String fallback) {
+        String v = p.getProperty(key, fallback);
+        try {
+            return Arrays.stream(v.split(",")).map(String::trim).filter(t -> !t.isEmpty())
+                    .mapToInt(Integer::parseInt).sorted().distinct().toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a comma-separated list of numbers");
+        }
+    }
+
+    private static void checkRange(String name, int min, int max) {
+        if (min < 0 || min > max) throw new IllegalArgumentException(name + ": min " + min + " / max " + max + " is not a valid range");
+    }
+}
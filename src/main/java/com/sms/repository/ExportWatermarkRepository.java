@@ -0,0 +1,14 @@
+package com.sms.repository;
+
+/**
+ * Remembers, per export target, the last change sequence number already exported,
+ * so the next delta export only has to write what changed after it.
+ */
+public interface ExportWatermarkRepository {
+
+    /** Last exported change sequence for the target, or 0 if it has never been exported. */
+    long findLastSequence(String target);
+
+    /** Insert or replace the watermark for the target. */
+    void save(String target, long sequence);
+}
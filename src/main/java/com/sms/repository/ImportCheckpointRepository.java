@@ -0,0 +1,24 @@
+package com.sms.repository;
+
+import com.sms.domain.ImportCheckpoint;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores the progress of running imports so they can be resumed after a restart.
+ */
+public interface ImportCheckpointRepository {
+
+    /** Insert or replace the checkpoint for its file fingerprint. */
+    void save(ImportCheckpoint checkpoint);
+
+    /** Find the checkpoint for a file fingerprint. */
+    Optional<ImportCheckpoint> findByFingerprint(String fingerprint);
+
+    /** Return all unfinished imports, most recent first. */
+    List<ImportCheckpoint> findAll();
+
+    /** Remove a checkpoint (import finished or abandoned). */
+    void delete(String fingerprint);
+}
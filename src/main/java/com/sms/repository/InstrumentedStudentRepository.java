@@ -0,0 +1,172 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
+import com.sms.util.JfrEvents.RepositoryEvent;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.Metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps another StudentRepository and times every call into a Metrics timer named
+ * "repository.<method>". Calls that throw are also counted in "repository.errors".
+ * Streaming methods (forEach...) are timed until the last row has been handed over,
+ * so their time includes whatever the caller's action does per row.
+ *
+ * Each call is also a Flight Recorder RepositoryEvent, flagged when it ran on the
+ * JavaFX application thread.
+ */
+public class InstrumentedStudentRepository implements StudentRepository {
+
+    private static final String FX_THREAD = "JavaFX Application Thread";
+
+    private final StudentRepository delegate;
+
+    private final LatencyHistogram save              = Metrics.timer("repository.save");
+    private final LatencyHistogram saveAll           = Metrics.timer("repository.saveAll");
+    private final LatencyHistogram update            = Metrics.timer("repository.update");
+    private final LatencyHistogram delete            = Metrics.timer("repository.delete");
+    private final LatencyHistogram findById          = Metrics.timer("repository.findById");
+    private final LatencyHistogram findAll           = Metrics.timer("repository.findAll");
+    private final LatencyHistogram forEachStudent    = Metrics.timer("repository.forEachStudent");
+    private final LatencyHistogram forEachStudentId  = Metrics.timer("repository.forEachStudentId");
+    private final LatencyHistogram search            = Metrics.timer("repository.search");
+    private final LatencyHistogram filter            = Metrics.timer("repository.filter");
+    private final LatencyHistogram findAllProgrammes = Metrics.timer("repository.findAllProgrammes");
+    private final LatencyHistogram existsById        = Metrics.timer("repository.existsById");
+    private final LatencyHistogram findExistingIds   = Metrics.timer("repository.findExistingIds");
+    private final LatencyHistogram count             = Metrics.timer("repository.count");
+    private final LatencyHistogram changeSequence    = Metrics.timer("repository.currentChangeSequence");
+    private final LatencyHistogram forEachChange     = Metrics.timer("repository.forEachChangeSince");
+    private final LongAdder errors                   = Metrics.counter("repository.errors");
+
+    public InstrumentedStudentRepository(StudentRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void save(Student student) {
+        timed(save, "save", () -> delegate.save(student));
+    }
+
+    @Override
+    public void saveAll(List<Student> students) {
+        timed(saveAll, "saveAll", () -> {
+            delegate.saveAll(students);
+            return students; // recorded as the event's row count
+        });
+    }
+
+    @Override
+    public void update(Student student) {
+        timed(update, "update", () -> delegate.update(student));
+    }
+
+    @Override
+    public void delete(String studentId) {
+        timed(delete, "delete", () -> delegate.delete(studentId));
+    }
+
+    @Override
+    public Optional<Student> findById(String studentId) {
+        return timed(findById, "findById", () -> delegate.findById(studentId));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return timed(findAll, "findAll", delegate::findAll);
+    }
+
+    @Override
+    public void forEachStudent(Consumer<Student> action) {
+        timed(forEachStudent, "forEachStudent", () -> delegate.forEachStudent(action));
+    }
+
+    @Override
+    public void forEachStudentId(Consumer<String> action) {
+        timed(forEachStudentId, "forEachStudentId", () -> delegate.forEachStudentId(action));
+    }
+
+    @Override
+    public List<Student> search(String query) {
+        return timed(search, "search", () -> delegate.search(query));
+    }
+
+    @Override
+    public List<Student> filter(String programme, Integer level, String status) {
+        return timed(filter, "filter", () -> delegate.filter(programme, level, status));
+    }
+
+    @Override
+    public List<String> findAllProgrammes() {
+        return timed(findAllProgrammes, "findAllProgrammes", delegate::findAllProgrammes);
+    }
+
+    @Override
+    public boolean existsById(String studentId) {
+        return timed(existsById, "existsById", () -> delegate.existsById(studentId));
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> studentIds) {
+        return timed(findExistingIds, "findExistingIds", () -> delegate.findExistingIds(studentIds));
+    }
+
+    @Override
+    public long count() {
+        return timed(count, "count", delegate::count);
+    }
+
+    @Override
+    public long currentChangeSequence() {
+        return timed(changeSequence, "currentChangeSequence", delegate::currentChangeSequence);
+    }
+
+    @Override
+    public void forEachChangeSince(long afterSeq, long upToSeq, Consumer<StudentChange> action) {
+        timed(forEachChange, "forEachChangeSince", () -> delegate.forEachChangeSince(afterSeq, upToSeq, action));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * Runs the call as one timer sample and one RepositoryEvent, counting it in
+     * "repository.errors" if it throws. A Collection result's size is the event's row count.
+     */
+    private <T> T timed(LatencyHistogram timer, String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        RepositoryEvent event = new RepositoryEvent();
+        event.begin();
+        event.operation = operation;
+        try {
+            T result = call.get();
+            if (result instanceof Collection<?> rows) event.rows = rows.size();
+            return result;
+        } catch (RuntimeException e) {
+            errors.increment();
+            event.failed = true;
+            throw e;
+        } finally {
+            timer.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.fxThread = FX_THREAD.equals(Thread.currentThread().getName());
+                event.commit();
+            }
+        }
+    }
+
+    private void timed(LatencyHistogram timer, String operation, Runnable call) {
+        timed(timer, operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
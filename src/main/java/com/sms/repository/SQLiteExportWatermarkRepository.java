@@ -0,0 +1,44 @@
+package com.sms.repository;
+
+import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+import com.sms.util.DatabaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * SQLite implementation of ExportWatermarkRepository (table export_watermarks).
+ */
+public class SQLiteExportWatermarkRepository implements ExportWatermarkRepository {
+
+    @Override
+    public long findLastSequence(String target) {
+        String sql = "SELECT last_seq FROM export_watermarks WHERE target = ?";
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, target);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) return rs.getLong(1);
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on watermark lookup: {}", e.getMessage());
+            throw new RuntimeException("Could not read export watermark: " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    @Override
+    public void save(String target, long sequence) {
+        String sql = "INSERT OR REPLACE INTO export_watermarks (target, last_seq, exported_at) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, target);
+            ps.setLong(2, sequence);
+            ps.setString(3, LocalDateTime.now().toString());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on watermark save: {}", e.getMessage());
+            throw new RuntimeException("Could not save export watermark: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.sms.repository;
+
+import com.sms.domain.ImportCheckpoint;
+import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+import com.sms.util.DatabaseManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQLite implementation of ImportCheckpointRepository.
+ * save() is meant to run inside the same transaction as the batch it describes.
+ */
+public class SQLiteImportCheckpointRepository implements ImportCheckpointRepository {
+
+    @Override
+    public void save(ImportCheckpoint cp) {
+        String sql = """
+                INSERT OR REPLACE INTO import_checkpoints
+                    (fingerprint, file_path, byte_offset, line_number, rows_imported, error_count, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, cp.getFingerprint());
+            ps.setString(2, cp.getFilePath());
+            ps.setLong(3, cp.getByteOffset());
+            ps.setLong(4, cp.getLineNumber());
+            ps.setLong(5, cp.getRowsImported());
+            ps.setLong(6, cp.getErrorCount());
+            ps.setString(7, cp.getUpdatedAt().toString());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on checkpoint save: {}", e.getMessage());
+            throw new RuntimeException("Could not save import checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<ImportCheckpoint> findByFingerprint(String fingerprint) {
+        String sql = "SELECT * FROM import_checkpoints WHERE fingerprint = ?";
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, fingerprint);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) return Optional.of(mapRow(rs));
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on checkpoint lookup: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<ImportCheckpoint> findAll() {
+        List<ImportCheckpoint> list = new ArrayList<>();
+        String sql = "SELECT * FROM import_checkpoints ORDER BY updated_at DESC";
+        try (Statement stmt = DatabaseManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) list.add(mapRow(rs));
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on checkpoint findAll: {}", e.getMessage());
+        }
+        return list;
+    }
+
+    @Override
+    public void delete(String fingerprint) {
+        String sql = "DELETE FROM import_checkpoints WHERE fingerprint = ?";
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, fingerprint);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on checkpoint delete: {}", e.getMessage());
+            throw new RuntimeException("Could not delete import checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private ImportCheckpoint mapRow(ResultSet rs) throws SQLException {
+        return new ImportCheckpoint(
+                rs.getString("fingerprint"),
+                rs.getString("file_path"),
+                rs.getLong("byte_offset"),
+                rs.getLong("line_number"),
+                rs.getLong("rows_imported"),
+                rs.getLong("error_count"),
+                LocalDateTime.parse(rs.getString("updated_at"))
+        );
+    }
+}
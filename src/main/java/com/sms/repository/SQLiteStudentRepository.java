@@ -1,38 +1,76 @@
 package com.sms.repository;
 
 import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
 import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
 import com.sms.util.DatabaseManager;
 
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * SQLite implementation of StudentRepository.
  * Every query uses prepared statements – no string concatenation with user input.
+ * Writes stamp rows with a change sequence number (and deletes leave tombstones)
+ * so delta exports can find what changed.
  */
 public class SQLiteStudentRepository implements StudentRepository {
 
+    private static final int CURSOR_FETCH_SIZE = 1000;
+    private static final int IN_CLAUSE_CHUNK   = 500; // stays well under SQLite's bound-parameter limit
+
     // ── Save ──────────────────────────────────────────────────────────────────
 
     @Override
     public void save(Student s) {
         String sql = """
                 INSERT INTO students
-                    (student_id, full_name, programme, level, gpa, email, phone_number, date_added, status)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    (student_id, full_name, programme, level, gpa, email, phone_number, date_added, status, modified_seq)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
-            setStudentParams(ps, s);
-            ps.executeUpdate();
-            AppLogger.info("Student added: ID=" + s.getStudentId());
-        } catch (SQLException e) {
-            AppLogger.error("DB error on save: " + e.getMessage());
-            throw new RuntimeException("Could not save student: " + e.getMessage(), e);
-        }
+        DatabaseManager.inTransaction(() -> {
+            long start = System.nanoTime();
+            try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+                setStudentParams(ps, s, nextChangeSequence());
+                ps.executeUpdate();
+                clearTombstones(List.of(s));
+                AppLogger.event(LogCategory.REPOSITORY, "Student added", s.getStudentId(), elapsedMillis(start));
+            } catch (SQLException e) {
+                AppLogger.error(LogCategory.REPOSITORY, "DB error on save: {}", e.getMessage());
+                throw new RuntimeException("Could not save student: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // ── Save All (batch) ──────────────────────────────────────────────────────
+
+    /** The whole batch shares one change sequence number. */
+    @Override
+    public void saveAll(List<Student> students) {
+        if (students.isEmpty()) return;
+        String sql = """
+                INSERT INTO students
+                    (student_id, full_name, programme, level, gpa, email, phone_number, date_added, status, modified_seq)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        DatabaseManager.inTransaction(() -> {
+            try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+                long seq = nextChangeSequence();
+                for (Student s : students) {
+                    setStudentParams(ps, s, seq);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                clearTombstones(students);
+                AppLogger.info(LogCategory.REPOSITORY, "Students added in batch: {}", students.size());
+            } catch (SQLException e) {
+                AppLogger.error(LogCategory.REPOSITORY, "DB error on saveAll: {}", e.getMessage());
+                throw new RuntimeException("Could not save students: " + e.getMessage(), e);
+            }
+        });
     }
 
     // ── Update ────────────────────────────────────────────────────────────────
@@ -41,40 +79,56 @@ public class SQLiteStudentRepository implements StudentRepository {
     public void update(Student s) {
         String sql = """
                 UPDATE students
-                SET full_name=?, programme=?, level=?, gpa=?, email=?, phone_number=?, date_added=?, status=?
+                SET full_name=?, programme=?, level=?, gpa=?, email=?, phone_number=?, date_added=?, status=?,
+                    modified_seq=?
                 WHERE student_id=?
                 """;
-        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
-            ps.setString(1, s.getFullName());
-            ps.setString(2, s.getProgramme());
-            ps.setInt(3, s.getLevel());
-            ps.setDouble(4, s.getGpa());
-            ps.setString(5, s.getEmail());
-            ps.setString(6, s.getPhoneNumber());
-            ps.setString(7, s.getDateAdded().toString());
-            ps.setString(8, s.getStatus());
-            ps.setString(9, s.getStudentId());
-            ps.executeUpdate();
-            AppLogger.info("Student updated: ID=" + s.getStudentId());
-        } catch (SQLException e) {
-            AppLogger.error("DB error on update: " + e.getMessage());
-            throw new RuntimeException("Could not update student: " + e.getMessage(), e);
-        }
+        DatabaseManager.inTransaction(() -> {
+            long start = System.nanoTime();
+            try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+                ps.setString(1, s.getFullName());
+                ps.setString(2, s.getProgramme());
+                ps.setInt(3, s.getLevel());
+                ps.setDouble(4, s.getGpa());
+                ps.setString(5, s.getEmail());
+                ps.setString(6, s.getPhoneNumber());
+                ps.setString(7, s.getDateAdded().toString());
+                ps.setString(8, s.getStatus());
+                ps.setLong(9, nextChangeSequence());
+                ps.setString(10, s.getStudentId());
+                ps.executeUpdate();
+                AppLogger.event(LogCategory.REPOSITORY, "Student updated", s.getStudentId(), elapsedMillis(start));
+            } catch (SQLException e) {
+                AppLogger.error(LogCategory.REPOSITORY, "DB error on update: {}", e.getMessage());
+                throw new RuntimeException("Could not update student: " + e.getMessage(), e);
+            }
+        });
     }
 
     // ── Delete ────────────────────────────────────────────────────────────────
 
+    /** Leaves a tombstone so the next delta export can tell consumers about the delete. */
     @Override
     public void delete(String studentId) {
         String sql = "DELETE FROM students WHERE student_id = ?";
-        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
-            ps.setString(1, studentId);
-            ps.executeUpdate();
-            AppLogger.info("Student deleted: ID=" + studentId);
-        } catch (SQLException e) {
-            AppLogger.error("DB error on delete: " + e.getMessage());
-            throw new RuntimeException("Could not delete student: " + e.getMessage(), e);
-        }
+        String tombstone = "INSERT OR REPLACE INTO student_tombstones (student_id, deleted_seq) VALUES (?, ?)";
+        DatabaseManager.inTransaction(() -> {
+            long start = System.nanoTime();
+            try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+                ps.setString(1, studentId);
+                if (ps.executeUpdate() > 0) {
+                    try (PreparedStatement ts = DatabaseManager.getConnection().prepareStatement(tombstone)) {
+                        ts.setString(1, studentId);
+                        ts.setLong(2, nextChangeSequence());
+                        ts.executeUpdate();
+                    }
+                }
+                AppLogger.event(LogCategory.REPOSITORY, "Student deleted", studentId, elapsedMillis(start));
+            } catch (SQLException e) {
+                AppLogger.error(LogCategory.REPOSITORY, "DB error on delete: {}", e.getMessage());
+                throw new RuntimeException("Could not delete student: " + e.getMessage(), e);
+            }
+        });
     }
 
     // ── Find by ID ────────────────────────────────────────────────────────────
@@ -87,7 +141,7 @@ public class SQLiteStudentRepository implements StudentRepository {
             ResultSet rs = ps.executeQuery();
             if (rs.next()) return Optional.of(mapRow(rs));
         } catch (SQLException e) {
-            AppLogger.error("DB error on findById: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on findById: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -102,11 +156,41 @@ public class SQLiteStudentRepository implements StudentRepository {
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) list.add(mapRow(rs));
         } catch (SQLException e) {
-            AppLogger.error("DB error on findAll: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on findAll: {}", e.getMessage());
         }
         return list;
     }
 
+    // ── For Each (cursor) ─────────────────────────────────────────────────────
+
+    @Override
+    public void forEachStudent(Consumer<Student> action) {
+        String sql = "SELECT * FROM students ORDER BY full_name";
+        try (Statement stmt = DatabaseManager.getConnection().createStatement()) {
+            stmt.setFetchSize(CURSOR_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) action.accept(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on forEachStudent: {}", e.getMessage());
+            throw new RuntimeException("Could not read students: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void forEachStudentId(Consumer<String> action) {
+        String sql = "SELECT student_id FROM students";
+        try (Statement stmt = DatabaseManager.getConnection().createStatement()) {
+            stmt.setFetchSize(CURSOR_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) action.accept(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on forEachStudentId: {}", e.getMessage());
+            throw new RuntimeException("Could not read student IDs: " + e.getMessage(), e);
+        }
+    }
+
     // ── Search ────────────────────────────────────────────────────────────────
 
     @Override
@@ -120,7 +204,7 @@ public class SQLiteStudentRepository implements StudentRepository {
             ResultSet rs = ps.executeQuery();
             while (rs.next()) list.add(mapRow(rs));
         } catch (SQLException e) {
-            AppLogger.error("DB error on search: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on search: {}", e.getMessage());
         }
         return list;
     }
@@ -144,7 +228,7 @@ public class SQLiteStudentRepository implements StudentRepository {
             ResultSet rs = ps.executeQuery();
             while (rs.next()) list.add(mapRow(rs));
         } catch (SQLException e) {
-            AppLogger.error("DB error on filter: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on filter: {}", e.getMessage());
         }
         return list;
     }
@@ -159,7 +243,7 @@ public class SQLiteStudentRepository implements StudentRepository {
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) list.add(rs.getString("programme"));
         } catch (SQLException e) {
-            AppLogger.error("DB error on findAllProgrammes: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on findAllProgrammes: {}", e.getMessage());
         }
         return list;
     }
@@ -173,11 +257,119 @@ public class SQLiteStudentRepository implements StudentRepository {
             ps.setString(1, studentId);
             return ps.executeQuery().next();
         } catch (SQLException e) {
-            AppLogger.error("DB error on existsById: " + e.getMessage());
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on existsById: {}", e.getMessage());
         }
         return false;
     }
 
+    // ── Existing IDs (batched IN probes) ──────────────────────────────────────
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> studentIds) {
+        Set<String> found = new HashSet<>();
+        List<String> ids = new ArrayList<>(studentIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            String sql = "SELECT student_id FROM students WHERE student_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) ps.setString(i + 1, chunk.get(i));
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) found.add(rs.getString(1));
+            } catch (SQLException e) {
+                AppLogger.error(LogCategory.REPOSITORY, "DB error on findExistingIds: {}", e.getMessage());
+                throw new RuntimeException("Could not check student IDs: " + e.getMessage(), e);
+            }
+        }
+        return found;
+    }
+
+    // ── Count ─────────────────────────────────────────────────────────────────
+
+    @Override
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM students";
+        try (Statement stmt = DatabaseManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on count: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    // ── Change feed ───────────────────────────────────────────────────────────
+
+    @Override
+    public long currentChangeSequence() {
+        String sql = "SELECT value FROM change_sequence WHERE id = 1";
+        try (Statement stmt = DatabaseManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on currentChangeSequence: {}", e.getMessage());
+            throw new RuntimeException("Could not read change sequence: " + e.getMessage(), e);
+        }
+    }
+
+    /** Range scans on idx_students_modified_seq and idx_tombstones_deleted_seq. */
+    @Override
+    public void forEachChangeSince(long afterSeq, long upToSeq, Consumer<StudentChange> action) {
+        String sql = """
+                SELECT 'U' AS change, modified_seq AS seq, student_id, full_name, programme, level, gpa,
+                       email, phone_number, date_added, status
+                FROM students WHERE modified_seq > ? AND modified_seq <= ?
+                UNION ALL
+                SELECT 'D', deleted_seq, student_id, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL
+                FROM student_tombstones WHERE deleted_seq > ? AND deleted_seq <= ?
+                ORDER BY seq
+                """;
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql)) {
+            ps.setLong(1, afterSeq);
+            ps.setLong(2, upToSeq);
+            ps.setLong(3, afterSeq);
+            ps.setLong(4, upToSeq);
+            ps.setFetchSize(CURSOR_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long seq = rs.getLong("seq");
+                    action.accept("D".equals(rs.getString("change"))
+                            ? StudentChange.delete(rs.getString("student_id"), seq)
+                            : StudentChange.upsert(mapRow(rs), seq));
+                }
+            }
+        } catch (SQLException e) {
+            AppLogger.error(LogCategory.REPOSITORY, "DB error on forEachChangeSince: {}", e.getMessage());
+            throw new RuntimeException("Could not read changes: " + e.getMessage(), e);
+        }
+    }
+
+    /** Takes the next change sequence number. Call inside a transaction together with the write it stamps. */
+    private long nextChangeSequence() throws SQLException {
+        String sql = "UPDATE change_sequence SET value = value + 1 WHERE id = 1 RETURNING value";
+        try (PreparedStatement ps = DatabaseManager.getConnection().prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) throw new SQLException("change_sequence row is missing");
+            return rs.getLong(1);
+        }
+    }
+
+    /** A re-added ID is no longer deleted. Skipped cheaply when there are no tombstones at all. */
+    private void clearTombstones(List<Student> students) throws SQLException {
+        Connection conn = DatabaseManager.getConnection();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM student_tombstones)")) {
+            if (!rs.next() || rs.getInt(1) == 0) return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM student_tombstones WHERE student_id = ?")) {
+            for (Student s : students) {
+                ps.setString(1, s.getStudentId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
     // ── Helper: map a ResultSet row to a Student ──────────────────────────────
 
     private Student mapRow(ResultSet rs) throws SQLException {
@@ -194,9 +386,13 @@ public class SQLiteStudentRepository implements StudentRepository {
         );
     }
 
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
     // ── Helper: set INSERT parameters ─────────────────────────────────────────
 
-    private void setStudentParams(PreparedStatement ps, Student s) throws SQLException {
+    private void setStudentParams(PreparedStatement ps, Student s, long changeSeq) throws SQLException {
         ps.setString(1, s.getStudentId());
         ps.setString(2, s.getFullName());
         ps.setString(3, s.getProgramme());
@@ -206,5 +402,6 @@ public class SQLiteStudentRepository implements StudentRepository {
         ps.setString(7, s.getPhoneNumber());
         ps.setString(8, s.getDateAdded().toString());
         ps.setString(9, s.getStatus());
+        ps.setLong(10, changeSeq);
     }
 }
@@ -1,9 +1,14 @@
 package com.sms.repository;
 
 import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Defines all database operations for students.
@@ -15,6 +20,14 @@ public interface StudentRepository {
     /** Save a brand new student to the database. */
     void save(Student student);
 
+    /**
+     * Save many new students at once. Call inside DatabaseManager.inTransaction
+     * to make the whole batch atomic.
+     */
+    default void saveAll(List<Student> students) {
+        students.forEach(this::save);
+    }
+
     /** Replace an existing student's data (matched by student ID). */
     void update(Student student);
 
@@ -27,6 +40,19 @@ public interface StudentRepository {
     /** Return every student in the database. */
     List<Student> findAll();
 
+    /**
+     * Stream every student to the action, one row at a time, without building a list.
+     * Implementations backed by a database should iterate a cursor.
+     */
+    default void forEachStudent(Consumer<Student> action) {
+        findAll().forEach(action);
+    }
+
+    /** Stream just the student IDs, without loading whole rows. */
+    default void forEachStudentId(Consumer<String> action) {
+        findAll().forEach(s -> action.accept(s.getStudentId()));
+    }
+
     /** Search by ID or name (case-insensitive partial match). */
     List<Student> search(String query);
 
@@ -38,4 +64,30 @@ public interface StudentRepository {
 
     /** Check whether a student ID already exists. */
     boolean existsById(String studentId);
+
+    /** Return the subset of the given IDs that already exist (batched lookup). */
+    default Set<String> findExistingIds(Collection<String> studentIds) {
+        Set<String> found = new HashSet<>();
+        for (String id : studentIds) {
+            if (existsById(id)) found.add(id);
+        }
+        return found;
+    }
+
+    /** Number of students in the database. */
+    default long count() {
+        return findAll().size();
+    }
+
+    // ── Change tracking (delta export) ────────────────────────────────────────
+
+    /** Newest change sequence number handed out so far (0 if nothing has changed yet). */
+    long currentChangeSequence();
+
+    /**
+     * Stream every change with {@code afterSeq < sequence <= upToSeq}, oldest first:
+     * added/updated students and tombstones of deleted ones. Database implementations
+     * should read this from an index, so the cost follows the number of changes.
+     */
+    void forEachChangeSince(long afterSeq, long upToSeq, Consumer<StudentChange> action);
 }
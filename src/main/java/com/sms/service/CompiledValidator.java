@@ -0,0 +1,184 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.domain.ValidationRules;
+
+import java.util.Arrays;
+
+import static com.sms.domain.ValidationError.*;
+
+/**
+ * A ValidationRules set turned into straight-line checks.
+ *
+ * Everything that can be worked out once is done in the constructor: character sets
+ * become CharClass lambdas, the level list becomes a bitmap over its range (no division,
+ * unlike a step test), and the rest are plain final fields. check() then reads each field
+ * of the student once, in one pass, with no map lookups, boxing or allocation, and the JIT
+ * can inline the whole thing. Instances are immutable; a reload builds a new one.
+ */
+final class CompiledValidator {
+
+    private static final int MAX_LEVEL_SPAN = 1 << 16;
+
+    final ValidationRules rules;
+
+    private final int idMin, idMax;
+    private final CharClass idChars;
+    private final int nameMin, nameMax;
+    private final CharClass nameBadChars;           // null = no forbidden characters
+    private final boolean programmeRequired;
+    private final int levelMin;
+    private final long[] levelBits;                 // bit (level - levelMin); null if the range is huge
+    private final int[] levelList;                  // sorted, used when levelBits is null
+    private final double gpaMin, gpaMax;
+    private final char[] emailChars;
+    private final int phoneMin, phoneMax;
+    private final CharClass phoneChars;
+
+    CompiledValidator(ValidationRules rules) {
+        this.rules = rules;
+        idMin = rules.studentIdMin;
+        idMax = rules.studentIdMax;
+        idChars = CharClass.of(rules.studentIdChars);
+        nameMin = rules.fullNameMin;
+        nameMax = rules.fullNameMax;
+        nameBadChars = rules.fullNameForbiddenChars.isEmpty() ? null : CharClass.of(rules.fullNameForbiddenChars);
+        programmeRequired = rules.programmeRequired;
+        gpaMin = rules.gpaMin;
+        gpaMax = rules.gpaMax;
+        emailChars = rules.emailRequiredChars.toCharArray();
+        phoneMin = rules.phoneMin;
+        phoneMax = rules.phoneMax;
+        phoneChars = CharClass.of(rules.phoneChars);
+
+        int[] levels = rules.levels;
+        levelMin = levels[0];
+        levelList = levels;
+        long span = (long) levels[levels.length - 1] - levelMin;
+        if (span < MAX_LEVEL_SPAN) {
+            levelBits = new long[(int) (span >>> 6) + 1];
+            for (int level : levels) {
+                int d = level - levelMin;
+                levelBits[d >>> 6] |= 1L << d;
+            }
+        } else {
+            levelBits = null;
+        }
+    }
+
+    /** 0 if valid, otherwise one ValidationError bit per failed rule. */
+    int check(Student s) {
+        return checkStudentId(s.getStudentId())
+             | checkFullName(s.getFullName())
+             | checkProgramme(s.getProgramme())
+             | checkLevel(s.getLevel())
+             | checkGpa(s.getGpa())
+             | checkEmail(s.getEmail())
+             | checkPhone(s.getPhoneNumber());
+    }
+
+    // ── Field checks ──────────────────────────────────────────────────────────
+
+    int checkStudentId(String id) {
+        if (id == null || id.isBlank()) return STUDENT_ID_REQUIRED.bit();
+        int errors = 0;
+        if (id.length() < idMin || id.length() > idMax) errors |= STUDENT_ID_LENGTH.bit();
+        if (!allIn(id, idChars)) errors |= STUDENT_ID_CHARS.bit();
+        return errors;
+    }
+
+    int checkFullName(String name) {
+        if (name == null || name.isBlank()) return FULL_NAME_REQUIRED.bit();
+        int errors = 0;
+        if (name.length() < nameMin || name.length() > nameMax) errors |= FULL_NAME_LENGTH.bit();
+        if (nameBadChars != null && anyIn(name, nameBadChars)) errors |= FULL_NAME_DIGITS.bit();
+        return errors;
+    }
+
+    int checkProgramme(String programme) {
+        return programmeRequired && (programme == null || programme.isBlank()) ? PROGRAMME_REQUIRED.bit() : 0;
+    }
+
+    int checkLevel(int level) {
+        boolean ok;
+        if (levelBits != null) {
+            int d = level - levelMin;
+            ok = d >= 0 && (d >>> 6) < levelBits.length && ((levelBits[d >>> 6] >>> d) & 1) != 0;
+        } else {
+            ok = Arrays.binarySearch(levelList, level) >= 0;
+        }
+        return ok ? 0 : LEVEL_INVALID.bit();
+    }
+
+    int checkGpa(double gpa) {
+        return gpa < gpaMin || gpa > gpaMax ? GPA_RANGE.bit() : 0;
+    }
+
+    int checkEmail(String email) {
+        if (email == null || email.isBlank()) return EMAIL_REQUIRED.bit();
+        for (char c : emailChars) {
+            if (email.indexOf(c) < 0) return EMAIL_FORMAT.bit();
+        }
+        return 0;
+    }
+
+    int checkPhone(String phone) {
+        if (phone == null || phone.isBlank()) return PHONE_REQUIRED.bit();
+        int errors = 0;
+        if (!allIn(phone, phoneChars)) errors |= PHONE_DIGITS.bit();
+        if (phone.length() < phoneMin || phone.length() > phoneMax) errors |= PHONE_LENGTH.bit();
+        return errors;
+    }
+
+    // ── Character classes ─────────────────────────────────────────────────────
+
+    private static boolean allIn(String s, CharClass chars) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!chars.contains(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean anyIn(String s, CharClass chars) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chars.contains(s.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * An ASCII character set. The sets the default rules use get hand-written range tests,
+     * which beat a table lookup per character; any other set uses a lookup table.
+     */
+    @FunctionalInterface
+    interface CharClass {
+        boolean contains(char c);
+
+        CharClass DIGITS            = c -> c >= '0' && c <= '9';
+        CharClass LETTERS_OR_DIGITS = c -> (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+
+        /** Spec (see ValidationRules) -> character class. */
+        static CharClass of(String spec) {
+            boolean[] table = new boolean[128];
+            for (String token : spec.split(",")) {
+                String t = token.trim();
+                switch (t) {
+                    case ""        -> { }
+                    case "letters" -> { Arrays.fill(table, 'A', 'Z' + 1, true); Arrays.fill(table, 'a', 'z' + 1, true); }
+                    case "digits"  -> Arrays.fill(table, '0', '9' + 1, true);
+                    case "space"   -> table[' '] = true;
+                    default        -> t.chars().forEach(c -> table[c] = true);
+                }
+            }
+            if (Arrays.equals(table, tableOf(DIGITS))) return DIGITS;
+            if (Arrays.equals(table, tableOf(LETTERS_OR_DIGITS))) return LETTERS_OR_DIGITS;
+            return c -> c < 128 && table[c];
+        }
+
+        private static boolean[] tableOf(CharClass chars) {
+            boolean[] table = new boolean[128];
+            for (char c = 0; c < 128; c++) table[c] = chars.contains(c);
+            return table;
+        }
+    }
+}
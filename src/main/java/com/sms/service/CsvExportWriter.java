@@ -0,0 +1,208 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes student rows to a CSV file through one large reusable ByteBuffer.
+ *
+ * Rows are built in a reused StringBuilder and UTF-8 encoded by hand into the buffer,
+ * which is drained to a FileChannel (optionally through gzip) when it fills up.
+ * Everything goes to a temp file next to the target; commit() renames it into place
+ * atomically, so readers never see a half-written export. Closing without commit()
+ * deletes the temp file (and still releases the gzip Deflater).
+ */
+public class CsvExportWriter implements Closeable {
+
+    public static final String HEADER = "student_id,full_name,programme,level,gpa,email,phone_number,date_added,status";
+    public static final String DELTA_HEADER = "change,change_seq," + HEADER;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel file;
+    private final WritableByteChannel out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder row = new StringBuilder(256);
+    private long rows;
+    private boolean committed;
+    private boolean closed;
+
+    public CsvExportWriter(Path target, boolean gzip) throws IOException {
+        this.target = target;
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        this.temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        this.file = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (gzip) {
+            OutputStream gz = new GZIPOutputStream(Channels.newOutputStream(file), 64 * 1024);
+            this.out = Channels.newChannel(gz);
+        } else {
+            this.out = file;
+        }
+    }
+
+    public void writeHeader() throws IOException {
+        writeLine(HEADER);
+    }
+
+    /** Writes any pre-built line (a newline is appended). */
+    public void writeLine(CharSequence line) throws IOException {
+        encode(line);
+        put((byte) '\n');
+    }
+
+    public void writeRow(Student s) throws IOException {
+        row.setLength(0);
+        writeLine(appendRow(row, s));
+        rows++;
+    }
+
+    /**
+     * Writes one change-feed row for a delta export (see DELTA_HEADER):
+     * "U" plus the full student, or "D" plus only the ID.
+     */
+    public void writeChange(StudentChange c) throws IOException {
+        StringBuilder sb = row;
+        sb.setLength(0);
+        if (c.getType() == StudentChange.Type.DELETE) {
+            sb.append("D,").append(c.getSequence()).append(',');
+            appendEscaped(sb, c.getStudentId()).append(",,,,,,,,");
+        } else {
+            sb.append("U,").append(c.getSequence()).append(',');
+            appendRow(sb, c.getStudent());
+        }
+        writeLine(sb);
+        rows++;
+    }
+
+    /** Number of data rows written so far (header excluded). */
+    public long getRowCount() { return rows; }
+
+    public Path getTarget() { return target; }
+
+    /** Flushes everything and atomically moves the temp file over the target. */
+    public void commit() throws IOException {
+        drain();
+        out.close(); // finishes the gzip trailer when compressing; closes the file channel
+        closed = true;
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+        try {
+            if (!closed) {
+                closed = true;
+                try {
+                    out.close(); // when compressing, ends the Deflater and frees its native memory
+                } finally {
+                    file.close();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ── Formatting ────────────────────────────────────────────────────────────
+
+    private static StringBuilder appendRow(StringBuilder sb, Student s) {
+        appendEscaped(sb, s.getStudentId()).append(',');
+        appendEscaped(sb, s.getFullName()).append(',');
+        appendEscaped(sb, s.getProgramme()).append(',');
+        sb.append(s.getLevel()).append(',');
+        sb.append(s.getGpa()).append(',');
+        appendEscaped(sb, s.getEmail()).append(',');
+        appendEscaped(sb, s.getPhoneNumber()).append(',');
+        appendDate(sb, s.getDateAdded()).append(',');
+        return appendEscaped(sb, s.getStatus());
+    }
+
+    /** Same quoting rule as CsvService.escape: quote when the value has a comma, quote or line break. */
+    static StringBuilder appendEscaped(StringBuilder sb, String value) {
+        if (value == null) return sb;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return sb.append(value);
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    /** ISO yyyy-MM-dd without going through LocalDate.toString(). */
+    private static StringBuilder appendDate(StringBuilder sb, LocalDate d) {
+        if (d == null) return sb;
+        int year = d.getYear();
+        if (year < 1000 || year > 9999) return sb.append(d);
+        sb.append(year).append('-');
+        if (d.getMonthValue() < 10) sb.append('0');
+        sb.append(d.getMonthValue()).append('-');
+        if (d.getDayOfMonth() < 10) sb.append('0');
+        return sb.append(d.getDayOfMonth());
+    }
+
+    // ── UTF-8 encoding into the shared buffer ─────────────────────────────────
+
+    private void encode(CharSequence cs) throws IOException {
+        int len = cs.length();
+        for (int i = 0; i < len; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, cs.charAt(++i));
+                put((byte) (0xF0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                put((byte) '?'); // unpaired surrogate – same replacement the JDK encoder uses
+            } else {
+                put((byte) (0xE0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) drain();
+        buffer.put(b);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+    }
+}
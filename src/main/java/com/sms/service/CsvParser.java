@@ -0,0 +1,369 @@
+package com.sms.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 CSV parser built as a small state machine over a char buffer.
+ *
+ * Handles quoted fields, escaped quotes (""), commas and line breaks inside quotes,
+ * CRLF / LF line endings and a leading UTF-8 byte order mark. Field contents are kept
+ * in one reusable buffer, so numbers and dates are decoded straight from it without
+ * creating a String per field. Unquoted fields are trimmed, matching the old split-based parser.
+ *
+ * Usage: call nextRecord() until it returns false, then read fields by column index.
+ */
+public class CsvParser implements AutoCloseable {
+
+    private static final int  DEFAULT_BUFFER = 64 * 1024;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+
+    // ── Input window ──────────────────────────────────────────────────────────
+    private final char[] in;
+    private int inPos;
+    private int inLen;
+    private boolean eof;
+    private boolean started;
+
+    // ── Current record: unescaped field contents + [start, end) per field ─────
+    private char[] rec = new char[256];
+    private int recLen;
+    private int[] starts = new int[16];
+    private int[] ends   = new int[16];
+    private int fieldCount;
+
+    // ── Line tracking (1-based physical line numbers) ─────────────────────────
+    private long line = 1;
+    private long recordLine;
+
+    // ── UTF-8 byte position: chars consumed + extra bytes of non-ASCII chars ──
+    private long charsBeforeBuffer;
+    private long extraUtf8Bytes;
+    private long startByteOffset;
+
+    public CsvParser(Reader reader) {
+        this(reader, DEFAULT_BUFFER);
+    }
+
+    public CsvParser(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.in = new char[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Positions line and byte counters for a reader that was opened part-way into a file
+     * (see getNextRecordOffset). Must be called before the first nextRecord().
+     */
+    public void resumeAt(long lineNumber, long byteOffset) {
+        if (started) throw new IllegalStateException("resumeAt must be called before reading");
+        started = true; // a byte order mark can only appear at offset 0
+        line = lineNumber;
+        startByteOffset = byteOffset;
+    }
+
+    // ── Record scanning ───────────────────────────────────────────────────────
+
+    /**
+     * Advances to the next record. Returns false at end of input.
+     * @throws IllegalArgumentException if a quoted field is still open at end of input.
+     */
+    public boolean nextRecord() throws IOException {
+        recLen = 0;
+        fieldCount = 0;
+        if (!fill()) return false;
+
+        if (!started) {
+            started = true;
+            if (in[inPos] == BOM) {
+                inPos++;
+                extraUtf8Bytes += 2;
+                if (!fill()) return false;
+            }
+        }
+
+        recordLine = line;
+        int fieldStart = 0;
+        boolean quoted = false;     // field began with a quote
+        boolean inQuotes = false;   // currently between quotes
+        int lastQuoteEnd = -1;      // rec position just after the closing quote
+
+        while (true) {
+            if (inPos >= inLen && !fill()) {
+                if (inQuotes) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                endField(fieldStart, quoted, lastQuoteEnd);
+                return true;
+            }
+            char c = in[inPos++];
+            if (c >= 0x80) extraUtf8Bytes += utf8Extra(c);
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (inPos >= inLen) fill();
+                    if (inPos < inLen && in[inPos] == '"') {
+                        inPos++;
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                        lastQuoteEnd = recLen;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case ',' -> {
+                    endField(fieldStart, quoted, lastQuoteEnd);
+                    fieldStart = recLen;
+                    quoted = false;
+                    lastQuoteEnd = -1;
+                }
+                case '\n' -> {
+                    line++;
+                    endField(fieldStart, quoted, lastQuoteEnd);
+                    return true;
+                }
+                case '\r' -> {
+                    if (inPos >= inLen) fill();
+                    if (inPos < inLen && in[inPos] == '\n') inPos++;
+                    line++;
+                    endField(fieldStart, quoted, lastQuoteEnd);
+                    return true;
+                }
+                case '"' -> {
+                    if (!quoted && isBlank(fieldStart, recLen)) {
+                        // Opening quote: drop any leading whitespace before it
+                        recLen = fieldStart;
+                        quoted = true;
+                        inQuotes = true;
+                    } else {
+                        append(c); // stray quote inside an unquoted field – keep it literally
+                    }
+                }
+                default -> append(c);
+            }
+        }
+    }
+
+    /** Physical line (1-based) on which the current record starts. */
+    public long getLineNumber() { return recordLine; }
+
+    /** Line on which the next record will start. */
+    public long getNextLineNumber() { return line; }
+
+    /**
+     * Byte offset in the underlying UTF-8 file just after the current record, i.e. where
+     * a later run can reopen the file and continue. Exact as long as the file is valid UTF-8.
+     */
+    public long getNextRecordOffset() {
+        return startByteOffset + charsBeforeBuffer + inPos + extraUtf8Bytes;
+    }
+
+    public int getFieldCount() { return fieldCount; }
+
+    /** True when the current record is an empty or whitespace-only line. */
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && starts[0] == ends[0];
+    }
+
+    // ── Field access ──────────────────────────────────────────────────────────
+
+    public String getString(int field) {
+        check(field);
+        return new String(rec, starts[field], ends[field] - starts[field]);
+    }
+
+    /** Compares a field with a string without creating a String for the field. */
+    public boolean fieldEquals(int field, String value) {
+        check(field);
+        int start = starts[field];
+        int len = ends[field] - start;
+        if (len != value.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (rec[start + i] != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Decodes an optionally signed decimal integer directly from the buffer. */
+    public int getInt(int field) {
+        check(field);
+        int pos = starts[field];
+        int end = ends[field];
+        if (pos == end) throw numberError(field);
+
+        boolean negative = false;
+        if (rec[pos] == '-' || rec[pos] == '+') {
+            negative = rec[pos] == '-';
+            if (++pos == end) throw numberError(field);
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int d = rec[pos] - '0';
+            if (d < 0 || d > 9) throw numberError(field);
+            value = value * 10 + d;
+            if (value > Integer.MAX_VALUE + 1L) throw numberError(field);
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw numberError(field);
+        return (int) value;
+    }
+
+    /**
+     * Decodes a plain decimal such as "3.75" directly from the buffer. The fast path is
+     * exact for up to 15 significant digits; anything else (exponents, NaN, very long
+     * fractions) falls back to Double.parseDouble.
+     */
+    public double getDouble(int field) {
+        check(field);
+        int pos = starts[field];
+        int end = ends[field];
+        if (pos == end) throw numberError(field);
+
+        boolean negative = false;
+        if (rec[pos] == '-' || rec[pos] == '+') {
+            negative = rec[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        for (; pos < end; pos++) {
+            char c = rec[pos];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenDot) fractionDigits++;
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return parseDoubleSlow(field);
+            }
+        }
+        if (digits == 0) throw numberError(field);
+        if (digits > 15) return parseDoubleSlow(field);
+
+        // mantissa and 10^k are both exact doubles, so one division rounds correctly
+        double value = fractionDigits == 0 ? mantissa : mantissa / POW10[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /** Decodes an ISO yyyy-MM-dd date directly from the buffer. */
+    public LocalDate getDate(int field) {
+        check(field);
+        int pos = starts[field];
+        if (ends[field] - pos != 10 || rec[pos + 4] != '-' || rec[pos + 7] != '-') {
+            return LocalDate.parse(getString(field)); // let java.time report the problem
+        }
+        int year  = digits(field, pos, 4);
+        int month = digits(field, pos + 5, 2);
+        int day   = digits(field, pos + 8, 2);
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date '" + getString(field) + "': " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static final double[] POW10 = new double[16];
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10.0;
+    }
+
+    /** Ensures at least one unread char is buffered. Returns false at end of input. */
+    private boolean fill() throws IOException {
+        if (inPos < inLen) return true;
+        if (eof) return false;
+        int n;
+        do {
+            n = reader.read(in, 0, in.length);
+        } while (n == 0);
+        charsBeforeBuffer += inLen;
+        if (n < 0) {
+            eof = true;
+            inPos = inLen = 0;
+            return false;
+        }
+        inPos = 0;
+        inLen = n;
+        return true;
+    }
+
+    /** Bytes beyond the first that UTF-8 needs for this char (each half of a surrogate pair counts 1). */
+    private static int utf8Extra(char c) {
+        if (c < 0x800) return 1;
+        return Character.isSurrogate(c) ? 1 : 2;
+    }
+
+    private void append(char c) {
+        if (recLen == rec.length) rec = Arrays.copyOf(rec, rec.length * 2);
+        rec[recLen++] = c;
+    }
+
+    private void endField(int start, boolean quoted, int quoteEnd) {
+        int end = recLen;
+        if (quoted) {
+            // Content is what sat between the quotes; whitespace after the closing quote is ignored
+            end = quoteEnd;
+        } else {
+            while (start < end && rec[start] <= ' ') start++;
+            while (end > start && rec[end - 1] <= ' ') end--;
+        }
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends   = Arrays.copyOf(ends,   fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount]   = end;
+        fieldCount++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (rec[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    private int digits(int field, int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            int d = rec[i] - '0';
+            if (d < 0 || d > 9) throw new IllegalArgumentException("Invalid date '" + getString(field) + "'");
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private double parseDoubleSlow(int field) {
+        return Double.parseDouble(getString(field));
+    }
+
+    private NumberFormatException numberError(int field) {
+        return new NumberFormatException("For input string: \"" + getString(field) + "\"");
+    }
+
+    private void check(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of range (record has " + fieldCount + ")");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sms.service;
+
+import com.sms.domain.ImportErrorCode;
+
+/**
+ * Thrown by CsvService.toStudent when a row cannot be turned into a Student.
+ * Carries the offending column and an error code for the structured error report.
+ */
+class CsvRowException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    final String field;            // CSV column name, or null for the whole row
+    final ImportErrorCode code;
+
+    CsvRowException(String field, ImportErrorCode code, String message, Throwable cause) {
+        super(message, cause);
+        this.field = field;
+        this.code = code;
+    }
+}
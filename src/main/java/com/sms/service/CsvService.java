@@ -1,12 +1,24 @@
 package com.sms.service;
 
+import com.sms.domain.BatchValidationResult;
+import com.sms.domain.ImportErrorCode;
 import com.sms.domain.Student;
-import com.sms.domain.ValidationResult;
+import com.sms.domain.StudentChange;
+import com.sms.repository.ExportWatermarkRepository;
+import com.sms.repository.StudentRepository;
 import com.sms.util.AppLogger;
+import com.sms.util.JfrEvents.CsvStageEvent;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.LogCategory;
+import com.sms.util.Metrics;
 
 import java.io.*;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Handles all CSV import and export operations.
@@ -15,135 +27,394 @@ import java.util.*;
 public class CsvService {
 
     private static final String DATA_DIR = "data";
+    private static final int    COLUMN_COUNT = 9;
+    private static final long   MAPPED_IMPORT_THRESHOLD = 16L * 1024 * 1024;
+    private static final int    PROGRESS_INTERVAL = 10_000;
+    private static final int    VALIDATION_CHUNK = 64 * 1024;
+
+    // Completed operations only; a failed export or import is not timed
+    private static final LatencyHistogram EXPORT_TIME       = Metrics.timer("csv.export");
+    private static final LatencyHistogram BUNDLE_TIME       = Metrics.timer("csv.exportBundle");
+    private static final LatencyHistogram DELTA_TIME        = Metrics.timer("csv.exportDelta");
+    private static final LatencyHistogram IMPORT_TIME       = Metrics.timer("csv.import");
+    private static final LongAdder        EXPORTED_ROWS     = Metrics.counter("csv.export.rows");
+    private static final LongAdder        IMPORTED_ROWS     = Metrics.counter("csv.import.rows");
     private final ValidationService validationService = new ValidationService();
+    private final StudentRepository studentRepository;
+    private final ExportWatermarkRepository watermarkRepository;
+
+    /** File-only service: everything except delta export. */
+    public CsvService() {
+        this(null, null);
+    }
+
+    public CsvService(StudentRepository studentRepository, ExportWatermarkRepository watermarkRepository) {
+        this.studentRepository = studentRepository;
+        this.watermarkRepository = watermarkRepository;
+    }
 
     // ── Export ────────────────────────────────────────────────────────────────
 
     public void exportStudents(List<Student> students, String filename) throws IOException {
-        File file = new File(DATA_DIR + File.separator + filename);
-        new File(DATA_DIR).mkdirs();
+        exportStudents(students::forEach, filename, false, null);
+    }
+
+    /**
+     * Streams students from a source (e.g. a DB cursor) straight to a CSV file in the data folder.
+     * Nothing is materialized: each row is encoded into a reused buffer and written through
+     * a buffered channel. The file only appears once complete (temp file + atomic rename).
+     *
+     * @param source   calls the given consumer once per student
+     * @param gzip     compress the output; ".gz" is appended to the filename if missing
+     * @param progress receives the running row count every PROGRESS_INTERVAL rows and at the end (may be null)
+     * @return number of rows written
+     */
+    public long exportStudents(Consumer<Consumer<Student>> source, String filename,
+                               boolean gzip, LongConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        if (gzip && !filename.endsWith(".gz")) filename += ".gz";
+        Path target = Path.of(DATA_DIR, filename);
+
+        CsvStageEvent stage = CsvStageEvent.start("write", filename);
+        try (CsvExportWriter writer = new CsvExportWriter(target, gzip)) {
+            writer.writeHeader();
+            try {
+                source.accept(s -> {
+                    try {
+                        writer.writeRow(s);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (progress != null && writer.getRowCount() % PROGRESS_INTERVAL == 0) {
+                        progress.accept(writer.getRowCount());
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.commit();
+            if (progress != null) progress.accept(writer.getRowCount());
+
+            stage.finish(writer.getRowCount());
+            EXPORT_TIME.recordSince(start);
+            EXPORTED_ROWS.add(writer.getRowCount());
+            AppLogger.info(LogCategory.CSV, "Export complete: {} ({} records)", target.toAbsolutePath(), writer.getRowCount());
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * Writes all_students.csv, top_performers.csv, at_risk_students.csv and one file per
+     * programme (data/programmes/) from a single pass over the source. See ExportBundle.
+     *
+     * @param topN            size of the top performers list (Active students only)
+     * @param atRiskThreshold students with a GPA below this are at risk
+     * @param progress        receives the number of rows scanned so far (may be null)
+     */
+    public BundleResult exportBundle(Consumer<Consumer<Student>> source, int topN, double atRiskThreshold,
+                                     LongConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        CsvStageEvent stage = CsvStageEvent.start("write", ExportBundle.ALL_FILE);
+        Map<String, Long> files = new ExportBundle(Path.of(DATA_DIR), topN, atRiskThreshold).run(source, progress);
+        long rows = files.getOrDefault(ExportBundle.ALL_FILE, 0L);
+        stage.finish(rows);
+        BUNDLE_TIME.recordSince(start);
+        AppLogger.info(LogCategory.CSV, "Export bundle complete: {} files, {} students scanned once.", files.size(), rows);
+        return new BundleResult(files, rows);
+    }
+
+    // ── Delta export ──────────────────────────────────────────────────────────
 
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-            pw.println("student_id,full_name,programme,level,gpa,email,phone_number,date_added,status");
-            for (Student s : students) {
-                pw.println(toCsvRow(s));
+    /**
+     * Writes only what changed since the last delta export to this target: one "U" row per
+     * added/updated student and one "D" row per deleted ID, in change order, to
+     * data/delta_TARGET_FROM-TO.csv. Changes are read by change sequence through an index,
+     * so the cost follows the number of changes rather than the table size.
+     *
+     * The watermark only moves forward once the file has been committed; a failed export
+     * is simply repeated next time. Changes made while the export runs go to the next one.
+     *
+     * @param target   name of the consumer (e.g. "nightly"); each target has its own watermark
+     * @param progress receives the running row count every PROGRESS_INTERVAL rows and at the end (may be null)
+     */
+    public DeltaResult exportDelta(String target, LongConsumer progress) throws IOException {
+        if (studentRepository == null || watermarkRepository == null) {
+            throw new IllegalStateException("Delta export needs a CsvService created with repositories");
+        }
+        long start = System.nanoTime();
+        long from = watermarkRepository.findLastSequence(target);
+        long upTo = studentRepository.currentChangeSequence();
+        Path file = Path.of(DATA_DIR, "delta_" + target + "_" + from + "-" + upTo + ".csv");
+        long[] counts = new long[2]; // upserts, deletes
+
+        CsvStageEvent stage = CsvStageEvent.start("write", file.getFileName().toString());
+        try (CsvExportWriter writer = new CsvExportWriter(file, false)) {
+            writer.writeLine(CsvExportWriter.DELTA_HEADER);
+            try {
+                studentRepository.forEachChangeSince(from, upTo, c -> {
+                    try {
+                        writer.writeChange(c);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    counts[c.getType() == StudentChange.Type.DELETE ? 1 : 0]++;
+                    if (progress != null && writer.getRowCount() % PROGRESS_INTERVAL == 0) {
+                        progress.accept(writer.getRowCount());
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
+            writer.commit();
         }
-        AppLogger.info("Export complete: " + file.getAbsolutePath() + " (" + students.size() + " records)");
+        stage.finish(counts[0] + counts[1]);
+        watermarkRepository.save(target, upTo);
+        if (progress != null) progress.accept(counts[0] + counts[1]);
+        DELTA_TIME.recordSince(start);
+        EXPORTED_ROWS.add(counts[0] + counts[1]);
+
+        AppLogger.info(LogCategory.CSV, "Delta export complete: {} ({} changed, {} deleted, sequence {} → {})",
+                file.toAbsolutePath(), counts[0], counts[1], from, upTo);
+        return new DeltaResult(file, from, upTo, counts[0], counts[1]);
     }
 
     // ── Import ────────────────────────────────────────────────────────────────
 
     /**
-     * Parses a CSV file and returns an ImportResult with valid students and error lines.
-     * Invalid rows are skipped and logged – the app will never crash on bad data.
+     * Parses a CSV file and returns an ImportResult with valid students and a preview of the errors.
+     *
+     * @deprecated holds every valid row in memory; ImportService streams into the database instead.
      */
+    @Deprecated
     public ImportResult importFromCsv(File file, Set<String> existingIds) throws IOException {
+        try (ImportErrorSink errors = new ImportErrorSink(Path.of(DATA_DIR))) {
+            return importFromCsv(file, existingIds, errors);
+        }
+    }
+
+    /**
+     * Parses a CSV file into valid students; every rejected row is recorded in the error sink.
+     * Invalid rows are skipped and logged – the app will never crash on bad data.
+     */
+    public ImportResult importFromCsv(File file, Set<String> existingIds, ImportErrorSink errors) throws IOException {
+        long start = System.nanoTime();
         List<Student> valid = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-        int lineNumber = 0;
+        ParsedRows parsed = new ParsedRows();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
+        CsvStageEvent stage = CsvStageEvent.start("parse", file.getName());
+        try (CsvParser parser = new CsvParser(openReader(file))) {
             boolean firstLine = true;
 
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
+            while (parser.nextRecord()) {
+                long lineNumber = parser.getLineNumber();
                 if (firstLine) { firstLine = false; continue; } // skip header
-                if (line.isBlank()) continue;
+                if (parser.isBlankRecord()) continue;
 
                 try {
-                    Student s = parseLine(line, lineNumber);
+                    parsed.add(toStudent(parser), lineNumber);
+                } catch (Exception e) {
+                    parsed.addUnreadable(lineNumber, e);
+                }
+                if (parsed.students.size() == VALIDATION_CHUNK) {
+                    stage.finish(parsed.students.size());
+                    acceptParsed(file.getName(), parsed, existingIds, errors, valid);
+                    stage = CsvStageEvent.start("parse", file.getName());
+                }
+            }
+        }
+        stage.finish(parsed.students.size());
+        acceptParsed(file.getName(), parsed, existingIds, errors, valid);
+        errors.flush();
 
-                    // Duplicate check
-                    if (existingIds.contains(s.getStudentId())) {
-                        errors.add("Line " + lineNumber + ": Duplicate ID '" + s.getStudentId() + "' – skipped.");
-                        continue;
-                    }
+        IMPORT_TIME.recordSince(start);
+        IMPORTED_ROWS.add(valid.size());
+        AppLogger.info(LogCategory.CSV, "Import complete: {} imported, {} errors.", valid.size(), errors.getTotal());
+        return new ImportResult(valid, errors.getPreview());
+    }
 
-                    // Validation check
-                    ValidationResult vr = validationService.validate(s);
-                    if (!vr.isValid()) {
-                        errors.add("Line " + lineNumber + ": " + vr.getErrorMessage());
-                        continue;
-                    }
+    /**
+     * Validates the parsed rows in one validateAll() call, then records errors and keeps
+     * the valid, non-duplicate rows, in file order.
+     */
+    private void acceptParsed(String fileName, ParsedRows parsed, Set<String> existingIds,
+                              ImportErrorSink errors, List<Student> valid) {
+        CsvStageEvent stage = CsvStageEvent.start("validate", fileName);
+        BatchValidationResult checked = validationService.validateAll(parsed.students);
+        stage.finish(parsed.students.size());
+        int unreadable = 0;
+        for (int i = 0; i < parsed.students.size(); i++) {
+            long lineNumber = parsed.lines[i];
+            for (; unreadable < parsed.unreadableLines.size() && parsed.unreadableLines.get(unreadable) < lineNumber; unreadable++) {
+                errors.addUnreadable(parsed.unreadableLines.get(unreadable), parsed.failures.get(unreadable));
+            }
 
-                    existingIds.add(s.getStudentId()); // track within-file duplicates
-                    valid.add(s);
+            Student s = parsed.students.get(i);
 
-                } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": Could not parse row – " + e.getMessage());
-                }
+            // Duplicate check
+            if (existingIds.contains(s.getStudentId())) {
+                errors.addDuplicate(lineNumber, s.getStudentId());
+                continue;
             }
+
+            // Validation check
+            if (!checked.isValid(i)) {
+                errors.addValidation(lineNumber, checked.getErrorMask(i));
+                continue;
+            }
+
+            existingIds.add(s.getStudentId()); // track within-file duplicates
+            valid.add(s);
+        }
+        for (; unreadable < parsed.unreadableLines.size(); unreadable++) {
+            errors.addUnreadable(parsed.unreadableLines.get(unreadable), parsed.failures.get(unreadable));
+        }
+        parsed.clear();
+    }
+
+    /** Rows parsed since the last validation pass, plus the lines that could not be parsed. */
+    private static class ParsedRows {
+        final List<Student> students = new ArrayList<>();
+        long[] lines = new long[1024];
+        final List<Long> unreadableLines = new ArrayList<>();
+        final List<Exception> failures = new ArrayList<>();
+
+        void add(Student s, long line) {
+            if (students.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[students.size()] = line;
+            students.add(s);
+        }
+
+        void addUnreadable(long line, Exception e) {
+            unreadableLines.add(line);
+            failures.add(e);
         }
 
-        AppLogger.info("Import complete: " + valid.size() + " imported, " + errors.size() + " errors.");
-        return new ImportResult(valid, errors);
+        void clear() {
+            students.clear();
+            unreadableLines.clear();
+            failures.clear();
+        }
     }
 
     /** Saves the import error list to data/import_errors.csv */
     public void saveImportErrorReport(List<String> errors) throws IOException {
         new File(DATA_DIR).mkdirs();
         File file = new File(DATA_DIR + File.separator + "import_errors.csv");
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
             pw.println("error_description");
             for (String err : errors) {
                 pw.println("\"" + err.replace("\"", "\"\"") + "\"");
             }
         }
-        AppLogger.info("Import error report saved: " + errors.size() + " errors.");
+        AppLogger.info(LogCategory.CSV, "Import error report saved: {} errors.", errors.size());
     }
 
-    // ── Helpers ───────────────────────────────────────────────────────────────
+    /**
+     * Saves a structured error report (line, field, code, message) to data/import_errors.csv.
+     * The sink already holds every error on disk, so this is a file move, not a rewrite.
+     */
+    public void saveImportErrorReport(ImportErrorSink errors) throws IOException {
+        errors.saveTo(Path.of(DATA_DIR, "import_errors.csv"));
+        AppLogger.info(LogCategory.CSV, "Import error report saved: {} errors.", errors.getTotal());
+    }
 
-    private Student parseLine(String line, int lineNum) {
-        String[] parts = line.split(",", -1);
-        if (parts.length < 9) throw new IllegalArgumentException("Expected 9 columns, found " + parts.length);
+    /** Creates an error sink spilling into the data folder. */
+    public ImportErrorSink newErrorSink() throws IOException {
+        return new ImportErrorSink(Path.of(DATA_DIR));
+    }
 
-        Student s = new Student();
-        s.setStudentId(parts[0].trim());
-        s.setFullName(parts[1].trim());
-        s.setProgramme(parts[2].trim());
-        s.setLevel(Integer.parseInt(parts[3].trim()));
-        s.setGpa(Double.parseDouble(parts[4].trim()));
-        s.setEmail(parts[5].trim());
-        s.setPhoneNumber(parts[6].trim());
-        s.setDateAdded(LocalDate.parse(parts[7].trim()));
-        s.setStatus(parts[8].trim());
-        return s;
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * Opens a UTF-8 reader for an import file. Large files are memory-mapped in windows,
+     * which skips the stream/decoder copy chain; small ones use a plain stream reader.
+     */
+    Reader openReader(File file) throws IOException {
+        return openReader(file, 0L);
     }
 
-    private String toCsvRow(Student s) {
-        return String.join(",",
-                s.getStudentId(),
-                escape(s.getFullName()),
-                escape(s.getProgramme()),
-                String.valueOf(s.getLevel()),
-                String.valueOf(s.getGpa()),
-                s.getEmail(),
-                s.getPhoneNumber(),
-                s.getDateAdded().toString(),
-                s.getStatus()
-        );
+    /** Same as openReader(File), starting at a byte offset (used to resume imports). */
+    Reader openReader(File file, long byteOffset) throws IOException {
+        if (file.length() >= MAPPED_IMPORT_THRESHOLD) {
+            return new MappedCsvReader(file.toPath(), byteOffset);
+        }
+        FileInputStream in = new FileInputStream(file);
+        in.getChannel().position(byteOffset);
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
     }
 
-    private String escape(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    /** Maps the parser's current record to a Student. Numbers and the date are decoded in place. */
+    Student toStudent(CsvParser p) {
+        if (p.getFieldCount() < COLUMN_COUNT) {
+            throw new CsvRowException(null, ImportErrorCode.COLUMN_COUNT,
+                    "Expected " + COLUMN_COUNT + " columns, found " + p.getFieldCount(), null);
+        }
+
+        Student s = new Student();
+        s.setStudentId(p.getString(0));
+        s.setFullName(p.getString(1));
+        s.setProgramme(p.getString(2));
+        try {
+            s.setLevel(p.getInt(3));
+        } catch (NumberFormatException e) {
+            throw new CsvRowException("level", ImportErrorCode.BAD_NUMBER, e.getMessage(), e);
+        }
+        try {
+            s.setGpa(p.getDouble(4));
+        } catch (NumberFormatException e) {
+            throw new CsvRowException("gpa", ImportErrorCode.BAD_NUMBER, e.getMessage(), e);
+        }
+        s.setEmail(p.getString(5));
+        s.setPhoneNumber(p.getString(6));
+        try {
+            s.setDateAdded(p.getDate(7));
+        } catch (IllegalArgumentException e) {
+            throw new CsvRowException("date_added", ImportErrorCode.BAD_DATE, e.getMessage(), e);
         }
-        return value;
+        s.setStatus(p.fieldEquals(8, "Active") ? "Active"
+                  : p.fieldEquals(8, "Inactive") ? "Inactive" : p.getString(8));
+        return s;
     }
 
     // ── ImportResult inner class ──────────────────────────────────────────────
 
     public static class ImportResult {
         public final List<Student> validStudents;
-        public final List<String> errors;
+        public final List<String> errors;   // preview, capped at ImportErrorSink.PREVIEW_LIMIT
 
         public ImportResult(List<Student> validStudents, List<String> errors) {
             this.validStudents = validStudents;
             this.errors = errors;
         }
     }
+
+    // ── DeltaResult inner class ───────────────────────────────────────────────
+
+    public static class DeltaResult {
+        public final Path file;
+        public final long fromSequence;   // watermark before the export (exclusive)
+        public final long toSequence;     // new watermark (inclusive)
+        public final long upserts;
+        public final long deletes;
+
+        public DeltaResult(Path file, long fromSequence, long toSequence, long upserts, long deletes) {
+            this.file = file;
+            this.fromSequence = fromSequence;
+            this.toSequence = toSequence;
+            this.upserts = upserts;
+            this.deletes = deletes;
+        }
+    }
+
+    // ── BundleResult inner class ──────────────────────────────────────────────
+
+    public static class BundleResult {
+        public final Map<String, Long> files;   // path relative to the data folder -> rows written
+        public final long students;
+
+        public BundleResult(Map<String, Long> files, long students) {
+            this.files = files;
+            this.students = students;
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.sms.service;
+
+import com.sms.repository.StudentRepository;
+import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+import com.sms.util.BloomFilter;
+
+import java.util.*;
+
+/**
+ * Finds student IDs that already exist, for imports, without holding every ID in memory.
+ *
+ * On creation it streams the ID column (not whole rows) into a Bloom filter. Lookups go
+ * through the filter first; only IDs it cannot rule out are confirmed with batched
+ * "WHERE student_id IN (...)" probes. IDs committed during the import are added to the
+ * filter, and since they are in the database, a later in-file duplicate is caught by
+ * the same probe. Only the uncommitted batch needs an exact set, so memory stays bounded.
+ */
+public class DuplicateChecker {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final StudentRepository repository;
+    private final BloomFilter knownIds;
+
+    /**
+     * @param expectedNewIds rough number of IDs the import may add (sizes the filter)
+     */
+    public DuplicateChecker(StudentRepository repository, long expectedNewIds) {
+        this.repository = repository;
+        long existing = repository.count();
+        this.knownIds = new BloomFilter(existing + Math.max(expectedNewIds, 1), FALSE_POSITIVE_RATE);
+        repository.forEachStudentId(knownIds::add);
+        AppLogger.info(LogCategory.CSV, "Duplicate checker ready: {} existing IDs, filter {} KB",
+                existing, knownIds.sizeInBytes() / 1024);
+    }
+
+    /** Returns the IDs from the batch that are already in the database. */
+    public Set<String> findExisting(Collection<String> ids) {
+        List<String> maybe = new ArrayList<>();
+        for (String id : ids) {
+            if (knownIds.mightContain(id)) maybe.add(id);
+        }
+        if (maybe.isEmpty()) return Collections.emptySet();
+        return repository.findExistingIds(maybe);
+    }
+
+    /** Records IDs that have just been committed. */
+    public void markCommitted(Collection<String> ids) {
+        for (String id : ids) knownIds.add(id);
+    }
+}
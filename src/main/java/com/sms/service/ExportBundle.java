@@ -0,0 +1,324 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes every standard report from a single scan of the student table.
+ *
+ * The scanning thread packs rows into chunks and hands the same chunk to each sink's
+ * bounded queue. Each sink runs on its own thread with its own CsvExportWriter(s), so
+ * filtering, formatting and file I/O for the different files happen in parallel while
+ * the database cursor keeps moving. A slow sink only stalls the scan once its queue is full.
+ *
+ * Files (all under the data folder):
+ *   all_students.csv        every row, in scan order
+ *   top_performers.csv      top N Active students by GPA (bounded heap, N rows of memory)
+ *   at_risk_students.csv    GPA below the threshold, lowest first
+ *   programmes/NAME.csv     one file per programme
+ *
+ * Nothing is renamed into place until every sink has finished, so a run that fails while
+ * scanning or writing leaves the previous files untouched. The files are then renamed one
+ * at a time (each rename is atomic, the set is not): an I/O error in that phase can leave
+ * some new files beside older ones. Files of programmes that no longer exist are deleted
+ * last, once every rename has succeeded.
+ */
+class ExportBundle {
+
+    static final String ALL_FILE      = "all_students.csv";
+    static final String TOP_FILE      = "top_performers.csv";
+    static final String AT_RISK_FILE  = "at_risk_students.csv";
+    static final String PROGRAMME_DIR = "programmes";
+
+    private static final int CHUNK_SIZE  = 1024;
+    private static final int QUEUE_DEPTH = 16;
+    private static final Student[] END = new Student[0];
+
+    private final Path dir;
+    private final int topN;
+    private final double atRiskThreshold;
+
+    ExportBundle(Path dir, int topN, double atRiskThreshold) {
+        this.dir = dir;
+        this.topN = topN;
+        this.atRiskThreshold = atRiskThreshold;
+    }
+
+    /**
+     * Runs the scan and all sinks.
+     *
+     * @param source   calls the given consumer once per student
+     * @param progress receives the number of rows scanned after each chunk (may be null)
+     * @return rows written per file, keyed by path relative to the data folder
+     */
+    Map<String, Long> run(Consumer<Consumer<Student>> source, LongConsumer progress) throws IOException {
+        List<Sink> sinks = List.of(new AllStudentsSink(), new TopPerformersSink(), new AtRiskSink(), new ProgrammeSink());
+        ExecutorService pool = Executors.newFixedThreadPool(sinks.size(), r -> {
+            Thread t = new Thread(r, "export-bundle-sink");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (Sink sink : sinks) running.add(pool.submit(sink));
+
+            scan(source, sinks, progress);
+
+            for (Future<?> f : running) await(f);
+            Map<String, Long> written = new LinkedHashMap<>();
+            for (Sink sink : sinks) sink.commit(written);
+            return written;
+        } finally {
+            stop(pool);
+            for (Sink sink : sinks) sink.closeQuietly();
+        }
+    }
+
+    /**
+     * Interrupts the sinks and waits until their threads have exited, so no sink is still
+     * writing to a CsvExportWriter when it is closed. A sink blocked on its queue leaves at
+     * once; one in the middle of a write finishes that write first.
+     */
+    private static void stop(ExecutorService pool) {
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(10, TimeUnit.SECONDS)) break;
+                AppLogger.warn(LogCategory.CSV, "Still waiting for export sinks to stop");
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void scan(Consumer<Consumer<Student>> source, List<Sink> sinks, LongConsumer progress) throws IOException {
+        Student[][] chunk = {new Student[CHUNK_SIZE]};
+        int[] filled = {0};
+        long[] scanned = {0};
+        try {
+            source.accept(s -> {
+                chunk[0][filled[0]++] = s;
+                if (filled[0] == CHUNK_SIZE) {
+                    publish(sinks, chunk[0]);
+                    chunk[0] = new Student[CHUNK_SIZE];
+                    filled[0] = 0;
+                    scanned[0] += CHUNK_SIZE;
+                    if (progress != null) progress.accept(scanned[0]);
+                }
+            });
+        } catch (SinkFailure e) {
+            throw e.getCause();
+        }
+        if (filled[0] > 0) publish(sinks, Arrays.copyOf(chunk[0], filled[0]));
+        publish(sinks, END);
+        if (progress != null) progress.accept(scanned[0] + filled[0]);
+    }
+
+    /** Hands the chunk to every sink; stops the scan early if one of them has failed. */
+    private static void publish(List<Sink> sinks, Student[] chunk) {
+        for (Sink sink : sinks) {
+            if (sink.failure != null) throw new SinkFailure(sink.failure);
+            try {
+                while (!sink.queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    if (sink.failure != null) throw new SinkFailure(sink.failure);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SinkFailure(new IOException("Export interrupted", e));
+            }
+        }
+    }
+
+    private static void await(Future<?> f) throws IOException {
+        try {
+            f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Export failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static class SinkFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SinkFailure(IOException cause) { super(cause); }
+        @Override public synchronized IOException getCause() { return (IOException) super.getCause(); }
+    }
+
+    // ── Sinks ─────────────────────────────────────────────────────────────────
+
+    /** Consumes chunks on its own thread until END, then finishes its files (uncommitted). */
+    private abstract class Sink implements Callable<Void> {
+        final BlockingQueue<Student[]> queue = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        final Map<String, CsvExportWriter> writers = new LinkedHashMap<>();
+        volatile IOException failure;
+
+        @Override
+        public Void call() throws IOException {
+            try {
+                Student[] chunk;
+                while ((chunk = queue.take()) != END) {
+                    for (Student s : chunk) accept(s);
+                }
+                finish();
+                return null;
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } catch (InterruptedException e) {
+                failure = new IOException("Export interrupted", e);
+                throw failure;
+            } catch (RuntimeException e) {
+                failure = new IOException(e.getMessage(), e);
+                throw failure;
+            }
+        }
+
+        abstract void accept(Student s) throws IOException;
+
+        void finish() throws IOException {}
+
+        CsvExportWriter open(String relativeName) throws IOException {
+            CsvExportWriter w = new CsvExportWriter(dir.resolve(relativeName), false);
+            writers.put(relativeName, w);
+            w.writeHeader();
+            return w;
+        }
+
+        void commit(Map<String, Long> written) throws IOException {
+            for (Map.Entry<String, CsvExportWriter> e : writers.entrySet()) {
+                e.getValue().commit();
+                written.put(e.getKey(), e.getValue().getRowCount());
+            }
+        }
+
+        void closeQuietly() {
+            for (CsvExportWriter w : writers.values()) {
+                try {
+                    w.close();
+                } catch (IOException e) {
+                    AppLogger.warn(LogCategory.CSV, "Could not clean up {}: {}", w.getTarget(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private class AllStudentsSink extends Sink {
+        private CsvExportWriter out;
+
+        @Override
+        void accept(Student s) throws IOException {
+            if (out == null) out = open(ALL_FILE);
+            out.writeRow(s);
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (out == null) open(ALL_FILE);
+        }
+    }
+
+    /** Same result as StudentService.getTopPerformers(n, null, null), with only N rows held. */
+    private class TopPerformersSink extends Sink {
+        // Weakest candidate on top: lowest GPA, and among equal GPAs the one seen last
+        private final PriorityQueue<Ranked> heap = new PriorityQueue<>(
+                Comparator.comparingDouble((Ranked r) -> r.student.getGpa()).thenComparing(r -> -r.order));
+        private long seen;
+
+        @Override
+        void accept(Student s) {
+            long order = seen++;
+            if (!"Active".equals(s.getStatus()) || topN <= 0) return;
+            if (heap.size() < topN) {
+                heap.add(new Ranked(s, order));
+            } else if (s.getGpa() > heap.peek().student.getGpa()) {
+                heap.poll();
+                heap.add(new Ranked(s, order));
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            List<Ranked> top = new ArrayList<>(heap);
+            top.sort(Comparator.comparingDouble((Ranked r) -> -r.student.getGpa()).thenComparingLong(r -> r.order));
+            CsvExportWriter out = open(TOP_FILE);
+            for (Ranked r : top) out.writeRow(r.student);
+        }
+    }
+
+    private record Ranked(Student student, long order) {}
+
+    /** At-risk lists are small, so rows are held and written lowest GPA first, like the Reports screen. */
+    private class AtRiskSink extends Sink {
+        private final List<Student> atRisk = new ArrayList<>();
+
+        @Override
+        void accept(Student s) {
+            if (s.getGpa() < atRiskThreshold) atRisk.add(s);
+        }
+
+        @Override
+        void finish() throws IOException {
+            atRisk.sort(Comparator.comparingDouble(Student::getGpa));
+            CsvExportWriter out = open(AT_RISK_FILE);
+            for (Student s : atRisk) out.writeRow(s);
+        }
+    }
+
+    /** One writer per programme, created the first time the programme is seen. */
+    private class ProgrammeSink extends Sink {
+        private final Map<String, CsvExportWriter> byProgramme = new HashMap<>();
+        private final Set<String> usedNames = new HashSet<>();
+
+        @Override
+        void accept(Student s) throws IOException {
+            CsvExportWriter out = byProgramme.get(s.getProgramme());
+            if (out == null) {
+                out = open(PROGRAMME_DIR + "/" + fileNameFor(s.getProgramme()));
+                byProgramme.put(s.getProgramme(), out);
+            }
+            out.writeRow(s);
+        }
+
+        /** "Computer Science" -> computer_science.csv; programmes that clash get _2, _3, ... */
+        private String fileNameFor(String programme) {
+            String base = programme == null ? "" : programme.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+            base = base.replaceAll("^_+|_+$", "");
+            if (base.isEmpty()) base = "unnamed";
+            String name = base;
+            for (int n = 2; !usedNames.add(name); n++) name = base + "_" + n;
+            return name + ".csv";
+        }
+
+        /** Also removes files of programmes that no longer have any students. */
+        @Override
+        void commit(Map<String, Long> written) throws IOException {
+            super.commit(written);
+            Path folder = dir.resolve(PROGRAMME_DIR);
+            if (!Files.isDirectory(folder)) return;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*.csv")) {
+                for (Path f : files) {
+                    if (!usedNames.contains(f.getFileName().toString().replaceFirst("\\.csv$", ""))) {
+                        Files.delete(f);
+                    }
+                }
+            }
+        }
+    }
+}
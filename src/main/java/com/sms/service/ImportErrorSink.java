@@ -0,0 +1,148 @@
+package com.sms.service;
+
+import com.sms.domain.ImportErrorCode;
+import com.sms.domain.ValidationError;
+import com.sms.domain.ValidationResult;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Collects import errors without holding them all in memory.
+ *
+ * Each error is appended as a structured CSV record (line, field, code, message) to a
+ * spill file in the data folder as soon as it happens. Only the first PREVIEW_LIMIT
+ * messages are kept for the UI, plus a counter per ImportErrorCode. Saving the error
+ * report just moves the spill file into place, however many errors there were.
+ */
+public class ImportErrorSink implements Closeable {
+
+    public static final String REPORT_HEADER = "line,field,code,message";
+    public static final int PREVIEW_LIMIT = 500;
+
+    private final Path spill;
+    private final BufferedWriter out;
+    private final StringBuilder row = new StringBuilder(128);
+    private final List<String> preview = new ArrayList<>();
+    private final long[] counts = new long[ImportErrorCode.values().length];
+    private long total;
+    private Path savedTo;
+    private boolean closed;
+
+    public ImportErrorSink(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        this.spill = Files.createTempFile(dir, "import_errors", ".spill");
+        this.spill.toFile().deleteOnExit();
+        this.out = Files.newBufferedWriter(spill, StandardCharsets.UTF_8);
+        out.write(REPORT_HEADER);
+        out.newLine();
+    }
+
+    /**
+     * Records one error.
+     *
+     * @param field CSV column name the error is about, or null if it concerns the whole row
+     */
+    public synchronized void add(long line, String field, ImportErrorCode code, String message) {
+        total++;
+        counts[code.ordinal()]++;
+        if (preview.size() < PREVIEW_LIMIT) preview.add("Line " + line + ": " + message);
+
+        row.setLength(0);
+        row.append(line).append(',');
+        CsvExportWriter.appendEscaped(row, field).append(',');
+        row.append(code.name()).append(',');
+        CsvExportWriter.appendEscaped(row, message);
+        try {
+            out.append(row);
+            out.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write import error report", e);
+        }
+    }
+
+    /** One record per failed rule (ValidationError bit), each naming its field. */
+    void addValidation(long line, int errorMask) {
+        for (int m = errorMask; m != 0; m &= m - 1) {
+            ValidationError e = ValidationError.lowest(m);
+            add(line, e.getField(), ImportErrorCode.INVALID_VALUE, e.getMessage());
+        }
+    }
+
+    /** One record per message in the result, each naming its field. */
+    void addValidation(long line, ValidationResult result) {
+        List<String> messages = result.getErrors();
+        List<String> fields = result.getFields();
+        for (int i = 0; i < messages.size(); i++) {
+            add(line, fields.get(i), ImportErrorCode.INVALID_VALUE, messages.get(i));
+        }
+    }
+
+    /** A row that could not be read into a Student (see CsvService.toStudent). */
+    void addUnreadable(long line, Exception e) {
+        if (e instanceof CsvRowException row) {
+            add(line, row.field, row.code, "Could not parse row – " + e.getMessage());
+        } else {
+            add(line, null, ImportErrorCode.UNREADABLE_ROW, "Could not parse row – " + e.getMessage());
+        }
+    }
+
+    void addDuplicate(long line, String studentId) {
+        add(line, "student_id", ImportErrorCode.DUPLICATE_ID, "Duplicate ID '" + studentId + "' – skipped.");
+    }
+
+    /** Pushes buffered records to the spill file (call when the import ends). */
+    public synchronized void flush() throws IOException {
+        if (!closed) out.flush();
+    }
+
+    /** Total number of errors recorded. */
+    public synchronized long getTotal() { return total; }
+
+    /** The first PREVIEW_LIMIT messages, formatted "Line N: message". */
+    public synchronized List<String> getPreview() { return List.copyOf(preview); }
+
+    public synchronized long getCount(ImportErrorCode code) { return counts[code.ordinal()]; }
+
+    /** Non-zero counters, in ImportErrorCode order. */
+    public synchronized Map<ImportErrorCode, Long> getCounts() {
+        Map<ImportErrorCode, Long> map = new EnumMap<>(ImportErrorCode.class);
+        for (ImportErrorCode c : ImportErrorCode.values()) {
+            if (counts[c.ordinal()] > 0) map.put(c, counts[c.ordinal()]);
+        }
+        return map;
+    }
+
+    /**
+     * Moves the spill file to the target (a rename, no copying). Saving again to the same
+     * target is a no-op; saving elsewhere afterwards copies the saved report.
+     */
+    public synchronized void saveTo(Path target) throws IOException {
+        if (savedTo != null) {
+            if (!savedTo.equals(target)) Files.copy(savedTo, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        closeWriter();
+        try {
+            Files.move(spill, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(spill, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        savedTo = target;
+    }
+
+    /** Finishes writing; the spill file is deleted unless it was saved. */
+    @Override
+    public synchronized void close() throws IOException {
+        closeWriter();
+        if (savedTo == null) Files.deleteIfExists(spill);
+    }
+
+    private void closeWriter() throws IOException {
+        if (closed) return;
+        closed = true;
+        out.close();
+    }
+}
@@ -0,0 +1,436 @@
+package com.sms.service;
+
+import com.sms.domain.BatchValidationResult;
+import com.sms.domain.ImportCheckpoint;
+import com.sms.domain.Student;
+import com.sms.repository.ImportCheckpointRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.AppLogger;
+import com.sms.util.JfrEvents.CsvStageEvent;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.LogCategory;
+import com.sms.util.DatabaseManager;
+import com.sms.util.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Imports a CSV file (or a binary snapshot) straight into the database in batches,
+ * one transaction per batch.
+ *
+ * Each batch transaction also stores an ImportCheckpoint (file fingerprint, byte offset
+ * and line of the next unread record). If the app closes mid-import, the next run can
+ * reopen the file at that offset and carry on, without rereading or revalidating the
+ * rows already committed.
+ *
+ * Records are parsed in blocks of BLOCK_BATCHES whole batches and each block is checked in
+ * one ValidationService.validateAll() call, which is large enough to run in parallel.
+ *
+ * Duplicate IDs are found by a DuplicateChecker rather than by loading every existing
+ * student, so memory use does not grow with the size of the table.
+ */
+public class ImportService {
+
+    public static final int BATCH_SIZE = 1000;
+    // Whole batches parsed per validateAll() call; enough rows for it to run in parallel.
+    static final int BLOCK_BATCHES = (ValidationService.PARALLEL_THRESHOLD + BATCH_SIZE - 1) / BATCH_SIZE;
+    private static final int TYPICAL_ROW_BYTES = 80; // used to size the duplicate filter from the file size
+    private static final int FINGERPRINT_SAMPLE = 64 * 1024;
+
+    private static final LatencyHistogram FILE_TIME     = Metrics.timer("import.file");
+    private static final LatencyHistogram SNAPSHOT_TIME = Metrics.timer("import.snapshot");
+    private static final LongAdder        IMPORTED_ROWS = Metrics.counter("import.rows");
+    private static final LongAdder        ERROR_ROWS    = Metrics.counter("import.errors");
+
+    private final StudentRepository studentRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final CsvService csvService;
+    private final SnapshotService snapshotService;
+    private final ValidationService validationService;
+
+    public ImportService(StudentRepository studentRepository, ImportCheckpointRepository checkpointRepository,
+                         CsvService csvService, SnapshotService snapshotService, ValidationService validationService) {
+        this.studentRepository = studentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.csvService = csvService;
+        this.snapshotService = snapshotService;
+        this.validationService = validationService;
+    }
+
+    // ── Import ────────────────────────────────────────────────────────────────
+
+    /**
+     * Imports the file, or continues it from a checkpoint.
+     *
+     * @param resumeFrom checkpoint to continue from, or null to start at the top
+     * @param progress   receives the number of rows imported so far after each batch (may be null)
+     * @throws IllegalStateException if the file changed since the checkpoint was written
+     */
+    public ImportSummary importFile(File file, ImportCheckpoint resumeFrom, LongConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        String fingerprint = fingerprint(file);
+        if (resumeFrom != null && !resumeFrom.getFingerprint().equals(fingerprint)) {
+            throw new IllegalStateException("The file has changed since the import was interrupted and cannot be resumed.");
+        }
+
+        DuplicateChecker duplicates = new DuplicateChecker(studentRepository, file.length() / TYPICAL_ROW_BYTES);
+        long offset     = resumeFrom != null ? resumeFrom.getByteOffset() : 0L;
+        long imported   = resumeFrom != null ? resumeFrom.getRowsImported() : 0L;
+        long errorCount = resumeFrom != null ? resumeFrom.getErrorCount() : 0L;
+        ImportErrorSink errors = csvService.newErrorSink();
+        Batch batch = new Batch();
+        Block block = new Block();
+
+        if (resumeFrom != null) {
+            AppLogger.info(LogCategory.CSV, "Resuming import of {} at line {}", file.getName(), resumeFrom.getLineNumber());
+        }
+
+        try (CsvParser parser = new CsvParser(csvService.openReader(file, offset))) {
+            if (resumeFrom != null) {
+                parser.resumeAt(resumeFrom.getLineNumber(), offset);
+            } else {
+                parser.nextRecord(); // skip header
+            }
+
+            boolean more = true;
+            while (more) {
+                CsvStageEvent parse = CsvStageEvent.start("parse", file.getName());
+                more = parseBlock(parser, block);
+                parse.finish(block.students.size());
+                CsvStageEvent validate = CsvStageEvent.start("validate", file.getName());
+                BatchValidationResult checked = validationService.validateAll(block.students);
+                validate.finish(block.students.size());
+
+                // Queue the rows in file order, committing each whole batch with its checkpoint
+                int cut = 0;
+                for (int i = 0; i <= block.students.size(); i++) {
+                    long nextLine = i < block.students.size() ? block.lines[i] : Long.MAX_VALUE;
+                    for (; cut < block.cuts && block.cutRows[cut] == i; cut++) {
+                        errorCount += block.reportUnreadable(block.cutLines[cut], errors);
+                        errorCount += batch.dropExisting(duplicates, errors);
+                        imported += batch.students.size();
+                        ImportCheckpoint cp = new ImportCheckpoint(fingerprint, file.getAbsolutePath(),
+                                block.cutOffsets[cut], block.cutLines[cut],
+                                imported, errorCount, LocalDateTime.now());
+                        commitBatch(file.getName(), batch, cp, duplicates);
+                        if (progress != null) progress.accept(imported);
+                    }
+                    errorCount += block.reportUnreadable(nextLine, errors);
+                    if (i < block.students.size()
+                            && !queue(block.students.get(i), checked.getErrorMask(i), block.lines[i], batch, errors)) {
+                        errorCount++;
+                    }
+                }
+                block.clear();
+            }
+
+            // Last partial batch and removal of the checkpoint commit together
+            errorCount += batch.dropExisting(duplicates, errors);
+            imported += batch.students.size();
+            CsvStageEvent write = CsvStageEvent.start("write", file.getName());
+            DatabaseManager.inTransaction(() -> {
+                studentRepository.saveAll(batch.students);
+                checkpointRepository.delete(fingerprint);
+            });
+            write.finish(batch.students.size());
+            errors.flush();
+        } catch (IOException | RuntimeException e) {
+            errors.close();
+            throw e;
+        }
+        if (progress != null) progress.accept(imported);
+
+        FILE_TIME.recordSince(start);
+        IMPORTED_ROWS.add(imported - (resumeFrom != null ? resumeFrom.getRowsImported() : 0));
+        ERROR_ROWS.add(errorCount - (resumeFrom != null ? resumeFrom.getErrorCount() : 0));
+        AppLogger.info(LogCategory.CSV, "Import complete: {} imported, {} errors.", imported, errorCount);
+        return new ImportSummary(imported, errorCount, errors, resumeFrom != null);
+    }
+
+    /**
+     * Imports a binary snapshot (.smsb). Rows go through the same validation, duplicate
+     * checks and batched commits as a CSV import (each block is validated in one
+     * validateAll() call); error lines use the record number.
+     * Snapshots are quick to re-run, so no checkpoint is kept.
+     */
+    public ImportSummary importSnapshot(File file, LongConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        DuplicateChecker duplicates = new DuplicateChecker(studentRepository, file.length() / TYPICAL_ROW_BYTES);
+        long imported = 0;
+        long errorCount = 0;
+        long record = 0;
+        ImportErrorSink errors = csvService.newErrorSink();
+        Batch batch = new Batch();
+
+        try (SnapshotReader reader = snapshotService.openSnapshot(file, EnumSet.allOf(SnapshotColumn.class))) {
+            Student[] block;
+            CsvStageEvent parse = CsvStageEvent.start("parse", file.getName());
+            while ((block = reader.readBlock()) != null) {
+                parse.finish(block.length);
+                CsvStageEvent validate = CsvStageEvent.start("validate", file.getName());
+                BatchValidationResult checked = validationService.validateAll(Arrays.asList(block));
+                validate.finish(block.length);
+                for (int i = 0; i < block.length; i++) {
+                    if (!queue(block[i], checked.getErrorMask(i), ++record, batch, errors)) {
+                        errorCount++;
+                    }
+                    if (record % BATCH_SIZE == 0) {
+                        errorCount += batch.dropExisting(duplicates, errors);
+                        imported += batch.students.size();
+                        CsvStageEvent write = CsvStageEvent.start("write", file.getName());
+                        DatabaseManager.inTransaction(() -> studentRepository.saveAll(batch.students));
+                        write.finish(batch.students.size());
+                        duplicates.markCommitted(batch.ids);
+                        batch.clear();
+                        if (progress != null) progress.accept(imported);
+                    }
+                }
+                parse = CsvStageEvent.start("parse", file.getName());
+            }
+
+            errorCount += batch.dropExisting(duplicates, errors);
+            imported += batch.students.size();
+            DatabaseManager.inTransaction(() -> studentRepository.saveAll(batch.students));
+            errors.flush();
+        } catch (IOException | RuntimeException e) {
+            errors.close();
+            throw e;
+        }
+        if (progress != null) progress.accept(imported);
+
+        SNAPSHOT_TIME.recordSince(start);
+        IMPORTED_ROWS.add(imported);
+        ERROR_ROWS.add(errorCount);
+        AppLogger.info(LogCategory.CSV, "Snapshot import complete: {} imported, {} errors.", imported, errorCount);
+        return new ImportSummary(imported, errorCount, errors, false);
+    }
+
+    private void commitBatch(String fileName, Batch batch, ImportCheckpoint checkpoint, DuplicateChecker duplicates) {
+        CsvStageEvent stage = CsvStageEvent.start("write", fileName);
+        DatabaseManager.inTransaction(() -> {
+            studentRepository.saveAll(batch.students);
+            checkpointRepository.save(checkpoint);
+        });
+        stage.finish(batch.students.size());
+        duplicates.markCommitted(batch.ids);
+        batch.clear();
+    }
+
+    /**
+     * Parses up to BLOCK_BATCHES batches of records into the block, noting where each
+     * batch ends so it can be committed with its checkpoint. Returns false at end of file.
+     */
+    private boolean parseBlock(CsvParser parser, Block block) throws IOException {
+        int records = 0;
+        while (parser.nextRecord()) {
+            if (!parser.isBlankRecord()) {
+                long lineNumber = parser.getLineNumber();
+                try {
+                    block.add(csvService.toStudent(parser), lineNumber);
+                } catch (Exception e) {
+                    block.addUnreadable(lineNumber, e);
+                }
+            }
+            if (++records % BATCH_SIZE == 0) {
+                block.cut(parser.getNextRecordOffset(), parser.getNextLineNumber());
+                if (block.cuts == BLOCK_BATCHES) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues a checked row; {@code invalid} is its ValidationError mask. Duplicates within
+     * the batch are caught here; duplicates of committed rows are caught when the batch is
+     * flushed. Returns false if the row was rejected (its errors are in the sink).
+     */
+    private boolean queue(Student s, int invalid, long lineNumber, Batch batch, ImportErrorSink errors) {
+        if (invalid != 0) {
+            errors.addValidation(lineNumber, invalid);
+            return false;
+        }
+        if (!batch.add(s, lineNumber)) {
+            errors.addDuplicate(lineNumber, s.getStudentId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records parsed for one validateAll() call: the rows with their line numbers, the lines
+     * that could not be parsed, and where each whole batch ends (rows before it, plus the
+     * offset and line of the record after it).
+     */
+    private static class Block {
+        final List<Student> students = new ArrayList<>(BLOCK_BATCHES * BATCH_SIZE);
+        long[] lines = new long[BLOCK_BATCHES * BATCH_SIZE];
+        final List<Long> unreadableLines = new ArrayList<>();
+        final List<Exception> failures = new ArrayList<>();
+        int reported;
+        final int[] cutRows = new int[BLOCK_BATCHES];
+        final long[] cutOffsets = new long[BLOCK_BATCHES];
+        final long[] cutLines = new long[BLOCK_BATCHES];
+        int cuts;
+
+        void add(Student s, long line) {
+            if (students.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[students.size()] = line;
+            students.add(s);
+        }
+
+        void addUnreadable(long line, Exception e) {
+            unreadableLines.add(line);
+            failures.add(e);
+        }
+
+        void cut(long nextOffset, long nextLine) {
+            cutRows[cuts] = students.size();
+            cutOffsets[cuts] = nextOffset;
+            cutLines[cuts++] = nextLine;
+        }
+
+        /** Records the unreadable lines before {@code line}; returns how many. */
+        int reportUnreadable(long line, ImportErrorSink errors) {
+            int from = reported;
+            for (; reported < unreadableLines.size() && unreadableLines.get(reported) < line; reported++) {
+                errors.addUnreadable(unreadableLines.get(reported), failures.get(reported));
+            }
+            return reported - from;
+        }
+
+        void clear() {
+            students.clear();
+            unreadableLines.clear();
+            failures.clear();
+            reported = 0;
+            cuts = 0;
+        }
+    }
+
+    /** Rows waiting for the next commit, with their line numbers for error messages. */
+    private static class Batch {
+        final List<Student> students = new ArrayList<>(BATCH_SIZE);
+        final Set<String> ids = new HashSet<>(BATCH_SIZE * 2);
+        long[] lines = new long[BATCH_SIZE];
+
+        /** Queues the row; false if its ID is already in this batch. */
+        boolean add(Student s, long line) {
+            if (!ids.add(s.getStudentId())) return false;
+            if (students.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[students.size()] = line;
+            students.add(s);
+            return true;
+        }
+
+        /** Removes rows whose ID is already in the database; returns how many were dropped. */
+        int dropExisting(DuplicateChecker duplicates, ImportErrorSink errors) {
+            Set<String> existing = duplicates.findExisting(ids);
+            if (existing.isEmpty()) return 0;
+
+            int kept = 0;
+            for (int i = 0; i < students.size(); i++) {
+                Student s = students.get(i);
+                if (existing.contains(s.getStudentId())) {
+                    errors.addDuplicate(lines[i], s.getStudentId());
+                    ids.remove(s.getStudentId());
+                } else {
+                    lines[kept] = lines[i];
+                    students.set(kept++, s);
+                }
+            }
+            int dropped = students.size() - kept;
+            students.subList(kept, students.size()).clear();
+            return dropped;
+        }
+
+        void clear() {
+            students.clear();
+            ids.clear();
+        }
+    }
+
+    // ── Checkpoints ───────────────────────────────────────────────────────────
+
+    /**
+     * Returns interrupted imports that can still be resumed. Checkpoints whose file
+     * is gone or has changed are removed, since they can never be resumed.
+     */
+    public List<ImportCheckpoint> findResumableImports() {
+        List<ImportCheckpoint> resumable = new ArrayList<>();
+        for (ImportCheckpoint cp : checkpointRepository.findAll()) {
+            File file = new File(cp.getFilePath());
+            try {
+                if (file.isFile() && fingerprint(file).equals(cp.getFingerprint())) {
+                    resumable.add(cp);
+                    continue;
+                }
+            } catch (IOException e) {
+                AppLogger.warn(LogCategory.CSV, "Could not read {}: {}", cp.getFilePath(), e.getMessage());
+            }
+            AppLogger.info(LogCategory.CSV, "Dropping stale import checkpoint for {}", cp.getFilePath());
+            checkpointRepository.delete(cp.getFingerprint());
+        }
+        return resumable;
+    }
+
+    /** Checkpoint for this exact file, if an earlier import of it was interrupted. */
+    public Optional<ImportCheckpoint> findCheckpoint(File file) throws IOException {
+        return checkpointRepository.findByFingerprint(fingerprint(file));
+    }
+
+    public void discardCheckpoint(ImportCheckpoint checkpoint) {
+        checkpointRepository.delete(checkpoint.getFingerprint());
+        AppLogger.info(LogCategory.CSV, "Import checkpoint discarded for {}", checkpoint.getFilePath());
+    }
+
+    /**
+     * Identifies file contents cheaply: SHA-256 over the length plus the first and last
+     * 64 KB. Hashing a multi-GB file in full would cost as much as importing it.
+     */
+    String fingerprint(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long length = raf.length();
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(length).array());
+
+            byte[] sample = new byte[(int) Math.min(FINGERPRINT_SAMPLE, length)];
+            raf.readFully(sample);
+            digest.update(sample);
+            if (length > FINGERPRINT_SAMPLE) {
+                raf.seek(Math.max(FINGERPRINT_SAMPLE, length - FINGERPRINT_SAMPLE));
+                sample = new byte[(int) (length - raf.getFilePointer())];
+                raf.readFully(sample);
+                digest.update(sample);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ── ImportSummary inner class ─────────────────────────────────────────────
+
+    /** The caller owns errors and should close it once the report is no longer needed. */
+    public static class ImportSummary {
+        public final long imported;
+        public final long errorCount;         // rows skipped, including earlier runs of a resumed import
+        public final ImportErrorSink errors;  // errors from this run only
+        public final boolean resumed;
+
+        public ImportSummary(long imported, long errorCount, ImportErrorSink errors, boolean resumed) {
+            this.imported = imported;
+            this.errorCount = errorCount;
+            this.errors = errors;
+            this.resumed = resumed;
+        }
+    }
+}
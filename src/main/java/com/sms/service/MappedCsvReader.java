@@ -0,0 +1,138 @@
+package com.sms.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader that maps a file through FileChannel.map in sliding windows and decodes
+ * UTF-8 straight into the caller's char buffer (normally CsvParser's input buffer),
+ * replacing the FileReader / BufferedReader copy chain and its platform-default charset.
+ *
+ * Only one window is mapped at a time, so files larger than 2 GB work even though a
+ * single mapping is limited to Integer.MAX_VALUE bytes. A multi-byte character split
+ * across two windows stays in the decode buffer until the rest of it arrives.
+ */
+public class MappedCsvReader extends Reader {
+
+    static final long DEFAULT_WINDOW = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // The mapped window is bulk-copied into a small heap buffer before decoding: the JDK's
+    // UTF-8 decoder only takes its fast array path for heap buffers, not direct ones.
+    private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024).flip();
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+    private int pendingChar = -1; // low surrogate left over when read() was asked for a single char
+
+    public MappedCsvReader(Path path) throws IOException {
+        this(path, 0L, DEFAULT_WINDOW);
+    }
+
+    /** Starts decoding at the given byte offset, which must be on a character boundary. */
+    public MappedCsvReader(Path path, long startOffset) throws IOException {
+        this(path, startOffset, DEFAULT_WINDOW);
+    }
+
+    MappedCsvReader(Path path, long startOffset, long windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = Math.min(windowSize, Integer.MAX_VALUE);
+        map(Math.min(startOffset, size));
+    }
+
+    /** File position of the next byte the decoder will consume. */
+    public long position() {
+        return windowStart + window.position() - bytes.remaining();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (pendingChar >= 0) {
+            cbuf[off] = (char) pendingChar;
+            pendingChar = -1;
+            return 1;
+        }
+        if (len == 1) return readSingle(cbuf, off);
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (true) {
+            if (flushed) return -1;
+
+            boolean endOfInput = !window.hasRemaining() && windowStart + window.limit() >= size;
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            if (result.isError()) result.throwException();
+
+            if (endOfInput && result.isUnderflow()) {
+                decoder.flush(out);
+                flushed = true;
+            }
+            int produced = out.position() - off;
+            if (produced > 0) return produced;
+            if (flushed) return -1;
+
+            refill();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    /**
+     * Moves the next slice of the mapped window into the heap buffer, sliding the window
+     * when it runs out. Undecoded tail bytes (a split character) are kept at the front.
+     */
+    private void refill() throws IOException {
+        bytes.compact();
+        while (bytes.hasRemaining()) {
+            if (!window.hasRemaining()) {
+                long next = windowStart + window.limit();
+                if (next >= size) break;
+                map(next);
+            }
+            int n = Math.min(bytes.remaining(), window.remaining());
+            bytes.put(bytes.position(), window, window.position(), n);
+            bytes.position(bytes.position() + n);
+            window.position(window.position() + n);
+        }
+        bytes.flip();
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+    }
+
+    /** A supplementary character needs two chars, so decode into a small scratch buffer. */
+    private int readSingle(char[] cbuf, int off) throws IOException {
+        char[] pair = new char[2];
+        int n = read(pair, 0, 2);
+        if (n <= 0) return n;
+        cbuf[off] = pair[0];
+        if (n == 2) pendingChar = pair[1];
+        return 1;
+    }
+}
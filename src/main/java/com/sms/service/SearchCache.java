@@ -0,0 +1,145 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.util.Metrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Remembers the results of the last few searches so that search-as-you-type does not
+ * query the database on every keystroke. A search that extends a remembered one
+ * ("Kwa" then "Kwam") can only match a subset of its results, so they are narrowed in
+ * memory instead; an exact repeat (after a backspace) is answered from the cache.
+ *
+ * Matching mirrors SQLiteStudentRepository.search: the query is a case-insensitive
+ * substring of the student ID or the full name, where SQLite folds ASCII letters only.
+ * Queries containing LIKE wildcards (% and _) or non-ASCII characters always go to the
+ * database. Results are forgotten after MAX_AGE, and clear() must be called whenever
+ * the caller knows the data has changed. An empty answer from the database is not kept:
+ * the repository also returns an empty list when the query failed, and an empty base
+ * would answer every longer query with nothing.
+ *
+ * Thread-safe; the narrowing runs on the calling thread.
+ */
+public class SearchCache {
+
+    private static final int CAPACITY = 8;
+    private static final long MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final LongAdder HITS = Metrics.counter("search.cache.hit");
+    private static final LongAdder NARROWED = Metrics.counter("search.cache.narrowed");
+    private static final LongAdder MISSES = Metrics.counter("search.cache.miss");
+
+    private final Function<String, List<Student>> search;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    private long generation; // bumped by clear(): results of a search that raced with it are not kept
+
+    private record Entry(List<Student> results, long createdNanos) {}
+
+    /** @param search the database search, e.g. StudentService::searchStudents */
+    public SearchCache(Function<String, List<Student>> search) {
+        this.search = search;
+    }
+
+    /** The students matching the query, from the cache where possible. A blank query is passed through. */
+    public List<Student> search(String query) {
+        String q = query == null ? "" : query.trim();
+        if (q.isEmpty() || !narrowable(q)) {
+            MISSES.increment();
+            return search.apply(q);
+        }
+        String key = asciiLower(q);
+        long gen;
+        Map.Entry<String, Entry> base;
+        synchronized (this) {
+            gen = generation;
+            base = lookup(key);
+        }
+        if (base != null && base.getKey().equals(key)) {
+            HITS.increment();
+            return new ArrayList<>(base.getValue().results());
+        }
+        List<Student> results;
+        if (base == null) {
+            MISSES.increment();
+            results = search.apply(q);
+        } else {
+            NARROWED.increment();
+            results = new ArrayList<>();
+            for (Student s : base.getValue().results()) {
+                if (matches(s, key)) results.add(s);
+            }
+        }
+        if (base == null && results.isEmpty()) return results; // maybe a swallowed SQLException: ask again next time
+        synchronized (this) {
+            if (gen == generation) entries.put(key, new Entry(List.copyOf(results), System.nanoTime()));
+        }
+        return new ArrayList<>(results);
+    }
+
+    /** Forgets every remembered search, e.g. after a student was added, edited or deleted. */
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+    }
+
+    // ── Lookup ────────────────────────────────────────────────────────────────
+
+    /** The remembered search with the longest key that the query starts with, or null. */
+    private synchronized Map.Entry<String, Entry> lookup(String key) {
+        long now = System.nanoTime();
+        Map.Entry<String, Entry> best = null;
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Entry> e = it.next();
+            if (now - e.getValue().createdNanos() > MAX_AGE_NANOS) {
+                it.remove();
+            } else if (key.startsWith(e.getKey()) && (best == null || e.getKey().length() > best.getKey().length())) {
+                best = Map.entry(e.getKey(), e.getValue());
+            }
+        }
+        if (best != null) entries.get(best.getKey()); // touch, for the LRU order
+        return best;
+    }
+
+    // ── Matching ──────────────────────────────────────────────────────────────
+
+    static boolean narrowable(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c > 0x7F || c == '%' || c == '_') return false;
+        }
+        return true;
+    }
+
+    static boolean matches(Student s, String lowerQuery) {
+        return contains(s.getStudentId(), lowerQuery) || contains(s.getFullName(), lowerQuery);
+    }
+
+    private static boolean contains(String field, String lowerQuery) {
+        return field != null && asciiLower(field).contains(lowerQuery);
+    }
+
+    /** Lower-cases A-Z only, like SQLite's LOWER() and LIKE. */
+    static String asciiLower(String s) {
+        char[] chars = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) chars = s.toCharArray();
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return chars == null ? s : new String(chars);
+    }
+}
@@ -0,0 +1,245 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes and decodes one column of a snapshot block (see SnapshotColumn.Encoding).
+ * Framing, checksums and compression are handled by SnapshotWriter / SnapshotReader.
+ */
+final class SnapshotCodec {
+
+    private SnapshotCodec() {}
+
+    // ── Encoding ──────────────────────────────────────────────────────────────
+
+    static void encode(SnapshotColumn column, Student[] rows, int count, Sink out) {
+        switch (column.encoding) {
+            case STRING -> {
+                for (int i = 0; i < count; i++) out.writeString(stringValue(column, rows[i]));
+            }
+            case DICTIONARY -> {
+                Map<String, Integer> codes = new HashMap<>();
+                List<String> dictionary = new ArrayList<>();
+                int[] rowCodes = new int[count];
+                for (int i = 0; i < count; i++) {
+                    String v = stringValue(column, rows[i]);
+                    Integer code = codes.get(v);
+                    if (code == null) {
+                        code = dictionary.size();
+                        codes.put(v, code);
+                        dictionary.add(v);
+                    }
+                    rowCodes[i] = code;
+                }
+                out.writeVarLong(dictionary.size());
+                for (String v : dictionary) out.writeString(v);
+                for (int i = 0; i < count; i++) out.writeVarLong(rowCodes[i]);
+            }
+            case VARINT -> {
+                for (int i = 0; i < count; i++) out.writeZigZag(rows[i].getLevel());
+            }
+            case SCALED_DECIMAL -> {
+                boolean exact = true;
+                for (int i = 0; i < count && exact; i++) {
+                    double g = rows[i].getGpa();
+                    exact = Math.abs(g) < 1e12 && Math.round(g * 100) / 100.0 == g;
+                }
+                out.writeByte(exact ? 0 : 1);
+                for (int i = 0; i < count; i++) {
+                    if (exact) out.writeZigZag(Math.round(rows[i].getGpa() * 100));
+                    else out.writeLong(Double.doubleToRawLongBits(rows[i].getGpa()));
+                }
+            }
+            case DELTA_EPOCH_DAY -> {
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    LocalDate d = rows[i].getDateAdded();
+                    if (d == null) {
+                        out.writeVarLong(0);
+                        continue;
+                    }
+                    long day = d.toEpochDay();
+                    out.writeVarLong(zigZag(day - previous) + 1);
+                    previous = day;
+                }
+            }
+        }
+    }
+
+    private static String stringValue(SnapshotColumn column, Student s) {
+        return switch (column) {
+            case STUDENT_ID   -> s.getStudentId();
+            case FULL_NAME    -> s.getFullName();
+            case PROGRAMME    -> s.getProgramme();
+            case EMAIL        -> s.getEmail();
+            case PHONE_NUMBER -> s.getPhoneNumber();
+            case STATUS       -> s.getStatus();
+            default -> throw new IllegalArgumentException(column + " is not a string column");
+        };
+    }
+
+    // ── Decoding ──────────────────────────────────────────────────────────────
+
+    static void decode(SnapshotColumn column, Source in, Student[] rows, int count) throws IOException {
+        switch (column.encoding) {
+            case STRING -> {
+                for (int i = 0; i < count; i++) setString(column, rows[i], in.readString());
+            }
+            case DICTIONARY -> {
+                int size = (int) in.readVarLong();
+                String[] dictionary = new String[size];
+                for (int i = 0; i < size; i++) dictionary[i] = in.readString();
+                for (int i = 0; i < count; i++) {
+                    long code = in.readVarLong();
+                    if (code >= size) throw new IOException("Corrupt snapshot: dictionary code " + code + " out of range");
+                    setString(column, rows[i], dictionary[(int) code]);
+                }
+            }
+            case VARINT -> {
+                for (int i = 0; i < count; i++) rows[i].setLevel((int) in.readZigZag());
+            }
+            case SCALED_DECIMAL -> {
+                boolean exact = in.readByte() == 0;
+                for (int i = 0; i < count; i++) {
+                    rows[i].setGpa(exact ? in.readZigZag() / 100.0 : Double.longBitsToDouble(in.readLong()));
+                }
+            }
+            case DELTA_EPOCH_DAY -> {
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    long v = in.readVarLong();
+                    if (v == 0) {
+                        rows[i].setDateAdded(null);
+                        continue;
+                    }
+                    previous += unZigZag(v - 1);
+                    rows[i].setDateAdded(LocalDate.ofEpochDay(previous));
+                }
+            }
+        }
+    }
+
+    private static void setString(SnapshotColumn column, Student s, String v) {
+        switch (column) {
+            case STUDENT_ID   -> s.setStudentId(v);
+            case FULL_NAME    -> s.setFullName(v);
+            case PROGRAMME    -> s.setProgramme(v);
+            case EMAIL        -> s.setEmail(v);
+            case PHONE_NUMBER -> s.setPhoneNumber(v);
+            case STATUS       -> s.setStatus(v);
+            default -> throw new IllegalArgumentException(column + " is not a string column");
+        }
+    }
+
+    static long zigZag(long v)   { return (v << 1) ^ (v >> 63); }
+    static long unZigZag(long v) { return (v >>> 1) ^ -(v & 1); }
+
+    // ── Byte buffers ──────────────────────────────────────────────────────────
+
+    /** Growable byte buffer with varint helpers; reused from block to block. */
+    static final class Sink {
+        byte[] buf = new byte[64 * 1024];
+        int len;
+
+        void reset() { len = 0; }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[len++] = (byte) b;
+        }
+
+        void writeBytes(byte[] b, int off, int n) {
+            ensure(n);
+            System.arraycopy(b, off, buf, len, n);
+            len += n;
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[len++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[len++] = (byte) v;
+        }
+
+        void writeZigZag(long v) { writeVarLong(zigZag(v)); }
+
+        void writeLong(long v) {
+            ensure(8);
+            for (int i = 7; i >= 0; i--) buf[len++] = (byte) (v >>> (i * 8));
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        void ensure(int extra) {
+            if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+        }
+    }
+
+    /** Bounds-checked reader over a decoded column payload. */
+    static final class Source {
+        private final byte[] buf;
+        private int pos;
+        private final int end;
+
+        Source(byte[] buf, int len) {
+            this.buf = buf;
+            this.end = len;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= end) throw truncated();
+            return buf[pos++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Corrupt snapshot: varint too long");
+        }
+
+        long readZigZag() throws IOException { return unZigZag(readVarLong()); }
+
+        long readLong() throws IOException {
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | readByte();
+            return v;
+        }
+
+        String readString() throws IOException {
+            long n = readVarLong();
+            if (n == 0) return null;
+            int length = (int) (n - 1);
+            if (length < 0 || pos + length > end) throw truncated();
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        private IOException truncated() {
+            return new IOException("Corrupt snapshot: column data ends early");
+        }
+    }
+}
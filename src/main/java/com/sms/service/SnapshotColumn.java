@@ -0,0 +1,42 @@
+package com.sms.service;
+
+/**
+ * Columns of the binary snapshot format, with their on-disk IDs and encodings.
+ * IDs are part of the file format: never renumber them, only append new ones.
+ */
+public enum SnapshotColumn {
+
+    STUDENT_ID  (1, Encoding.STRING),
+    FULL_NAME   (2, Encoding.STRING),
+    PROGRAMME   (3, Encoding.DICTIONARY),
+    LEVEL       (4, Encoding.VARINT),
+    GPA         (5, Encoding.SCALED_DECIMAL),
+    EMAIL       (6, Encoding.STRING),
+    PHONE_NUMBER(7, Encoding.STRING),
+    DATE_ADDED  (8, Encoding.DELTA_EPOCH_DAY),
+    STATUS      (9, Encoding.DICTIONARY);
+
+    /** How a column block's values are laid out. */
+    public enum Encoding {
+        STRING,           // per value: varint (UTF-8 length + 1, 0 = null), bytes
+        DICTIONARY,       // block dictionary of distinct strings, then one varint code per row
+        VARINT,           // zigzag varint per row
+        SCALED_DECIMAL,   // mode byte; 0 = zigzag varint of value*100, 1 = raw 8-byte doubles
+        DELTA_EPOCH_DAY   // per row: zigzag varint of (epoch-day delta from previous date) + 1, 0 = null
+    }
+
+    final int id;
+    final Encoding encoding;
+
+    SnapshotColumn(int id, Encoding encoding) {
+        this.id = id;
+        this.encoding = encoding;
+    }
+
+    static SnapshotColumn byId(int id) {
+        for (SnapshotColumn c : values()) {
+            if (c.id == id) return c;
+        }
+        return null; // written by a newer version – the reader skips it
+    }
+}
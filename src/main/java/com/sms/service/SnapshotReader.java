@@ -0,0 +1,140 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streams blocks out of a binary snapshot written by SnapshotWriter.
+ *
+ * Columns that were not requested are skipped on disk without being checksummed,
+ * inflated or decoded; their Student fields stay null / 0. Every column that is read
+ * is verified against its CRC32, and unknown column IDs from newer writers are skipped.
+ */
+public class SnapshotReader implements Closeable {
+
+    private static final int MAX_COLUMN_BYTES = 1 << 30;
+
+    private final DataInputStream in;
+    private final Set<SnapshotColumn> wanted;
+    private final boolean compressed;
+    private final Inflater inflater;
+    private final CRC32 crc = new CRC32();
+    private byte[] stored = new byte[64 * 1024];
+    private byte[] raw = new byte[64 * 1024];
+    private long rowsRead;
+    private int blockNumber;
+
+    public SnapshotReader(InputStream input) throws IOException {
+        this(input, EnumSet.allOf(SnapshotColumn.class));
+    }
+
+    public SnapshotReader(InputStream input, Set<SnapshotColumn> columns) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input, 1024 * 1024));
+        this.wanted = columns.isEmpty() ? EnumSet.noneOf(SnapshotColumn.class) : EnumSet.copyOf(columns);
+
+        byte[] magic = new byte[4];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, SnapshotWriter.MAGIC)) {
+            throw new IOException("Not a student snapshot file");
+        }
+        int version = in.readUnsignedShort();
+        if (version > SnapshotWriter.VERSION) {
+            throw new IOException("Snapshot version " + version + " is newer than this app supports ("
+                    + SnapshotWriter.VERSION + ")");
+        }
+        int flags = in.readUnsignedByte();
+        this.compressed = (flags & SnapshotWriter.FLAG_DEFLATE) != 0;
+        this.inflater = compressed ? new Inflater() : null;
+        int columnCount = in.readUnsignedByte();
+        in.skipNBytes(columnCount * 2L); // column table: id + encoding, informational only
+    }
+
+    /** Reads the next block. Returns null once the footer has been reached. */
+    public Student[] readBlock() throws IOException {
+        int marker = in.readUnsignedByte();
+        if (marker == SnapshotWriter.END_MARKER) {
+            long total = in.readLong();
+            if (total != rowsRead) {
+                throw new IOException("Corrupt snapshot: footer says " + total + " rows, read " + rowsRead);
+            }
+            return null;
+        }
+        if (marker != SnapshotWriter.BLOCK_MARKER) {
+            throw new IOException("Corrupt snapshot: bad block marker after block " + blockNumber);
+        }
+        blockNumber++;
+
+        int count = in.readInt();
+        if (count < 0 || count > SnapshotWriter.BLOCK_ROWS) {
+            throw new IOException("Corrupt snapshot: block " + blockNumber + " has " + count + " rows");
+        }
+        Student[] rows = new Student[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Student(null, null, null, 0, 0.0, null, null, null, null);
+        }
+
+        int columns = in.readUnsignedByte();
+        for (int c = 0; c < columns; c++) {
+            SnapshotColumn column = SnapshotColumn.byId(in.readUnsignedByte());
+            int storedLength = in.readInt();
+            int rawLength = in.readInt();
+            int checksum = in.readInt();
+            if (storedLength < 0 || storedLength > MAX_COLUMN_BYTES || rawLength < 0 || rawLength > MAX_COLUMN_BYTES) {
+                throw new IOException("Corrupt snapshot: bad column length in block " + blockNumber);
+            }
+
+            if (column == null || !wanted.contains(column)) {
+                in.skipNBytes(storedLength);
+                continue;
+            }
+
+            if (stored.length < storedLength) stored = new byte[storedLength];
+            in.readFully(stored, 0, storedLength);
+            crc.reset();
+            crc.update(stored, 0, storedLength);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot: checksum mismatch in block " + blockNumber + ", column " + column);
+            }
+
+            byte[] payload = stored;
+            if (compressed) {
+                payload = inflate(storedLength, rawLength, column);
+            }
+            SnapshotCodec.decode(column, new SnapshotCodec.Source(payload, rawLength), rows, count);
+        }
+
+        rowsRead += count;
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inflater != null) inflater.end();
+        in.close();
+    }
+
+    private byte[] inflate(int storedLength, int rawLength, SnapshotColumn column) throws IOException {
+        if (raw.length < rawLength) raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int got = inflater.inflate(raw, n, rawLength - n);
+                if (got == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += got;
+            }
+            if (n != rawLength) throw new IOException("Corrupt snapshot: column " + column + " inflated to " + n + " bytes");
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,143 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the columnar binary snapshot format (.smsb).
+ *
+ * Layout (big-endian):
+ *   header : "SMSB", u16 version, u8 flags (bit 0 = deflate), u8 column count,
+ *            then per column u8 id + u8 encoding
+ *   block  : u8 'B', i32 row count, u8 column count, then per column
+ *            u8 id, i32 stored length, i32 raw length, i32 CRC32 of stored bytes, stored bytes
+ *   footer : u8 'E', i64 total rows
+ *
+ * Rows are buffered one block (64k rows) at a time, so export streams in constant memory.
+ * Like CsvExportWriter it writes to a temp file and renames it into place on commit().
+ */
+public class SnapshotWriter implements Closeable {
+
+    static final byte[] MAGIC = {'S', 'M', 'S', 'B'};
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATE = 1;
+    static final int BLOCK_ROWS = 64 * 1024;
+    static final int BLOCK_MARKER = 'B';
+    static final int END_MARKER = 'E';
+
+    private static final SnapshotColumn[] COLUMNS = SnapshotColumn.values();
+
+    private final Path target;
+    private final Path temp;
+    private final DataOutputStream out;
+    private final boolean compress;
+    private final Deflater deflater;
+    private final SnapshotCodec.Sink column = new SnapshotCodec.Sink();
+    private final SnapshotCodec.Sink packed = new SnapshotCodec.Sink();
+    private final CRC32 crc = new CRC32();
+    private final Student[] rows = new Student[BLOCK_ROWS];
+    private int count;
+    private long total;
+    private boolean committed;
+
+    public SnapshotWriter(Path target, boolean compress) throws IOException {
+        this.target = target;
+        this.compress = compress;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        this.temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1024 * 1024));
+        writeHeader();
+    }
+
+    public void write(Student s) throws IOException {
+        rows[count++] = s;
+        if (count == BLOCK_ROWS) flushBlock();
+    }
+
+    public long getRowCount() { return total + count; }
+
+    /** Writes the last block and footer, then atomically moves the file into place. */
+    public void commit() throws IOException {
+        if (count > 0) flushBlock();
+        out.writeByte(END_MARKER);
+        out.writeLong(total);
+        out.close();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+        if (deflater != null) deflater.end();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+        try {
+            out.close();
+        } finally {
+            if (deflater != null) deflater.end();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void writeHeader() throws IOException {
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(compress ? FLAG_DEFLATE : 0);
+        out.writeByte(COLUMNS.length);
+        for (SnapshotColumn c : COLUMNS) {
+            out.writeByte(c.id);
+            out.writeByte(c.encoding.ordinal());
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        out.writeByte(BLOCK_MARKER);
+        out.writeInt(count);
+        out.writeByte(COLUMNS.length);
+
+        for (SnapshotColumn c : COLUMNS) {
+            column.reset();
+            SnapshotCodec.encode(c, rows, count, column);
+
+            SnapshotCodec.Sink stored = column;
+            if (compress) {
+                deflate(column, packed);
+                stored = packed;
+            }
+            crc.reset();
+            crc.update(stored.buf, 0, stored.len);
+
+            out.writeByte(c.id);
+            out.writeInt(stored.len);
+            out.writeInt(column.len);
+            out.writeInt((int) crc.getValue());
+            out.write(stored.buf, 0, stored.len);
+        }
+
+        total += count;
+        java.util.Arrays.fill(rows, 0, count, null);
+        count = 0;
+    }
+
+    private void deflate(SnapshotCodec.Sink in, SnapshotCodec.Sink out) {
+        deflater.reset();
+        deflater.setInput(in.buf, 0, in.len);
+        deflater.finish();
+        out.reset();
+        while (!deflater.finished()) {
+            out.ensure(64 * 1024);
+            out.len += deflater.deflate(out.buf, out.len, out.buf.length - out.len);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable in-memory copy of the student list with a bitmap index per programme,
+ * level and status, so the Students screen can apply its filters without going back to
+ * the database. Row i of every bitmap is students.get(i); a filter combination is the
+ * intersection of at most three bitmaps, starting from the smallest, and the matching
+ * rows come out in the original (name) order.
+ *
+ * Matching mirrors SQLiteStudentRepository.filter: exact, case-sensitive equality, and
+ * a null or empty value means "any".
+ */
+public final class StudentIndex {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final Student[] rows;
+    private final Map<String, BitSet> byProgramme = new HashMap<>();
+    private final Map<Integer, BitSet> byLevel = new HashMap<>();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+
+    public StudentIndex(List<Student> students) {
+        rows = students.toArray(new Student[0]);
+        for (int i = 0; i < rows.length; i++) {
+            Student s = rows[i];
+            if (s.getProgramme() != null) byProgramme.computeIfAbsent(s.getProgramme(), k -> new BitSet(rows.length)).set(i);
+            byLevel.computeIfAbsent(s.getLevel(), k -> new BitSet(rows.length)).set(i);
+            if (s.getStatus() != null) byStatus.computeIfAbsent(s.getStatus(), k -> new BitSet(rows.length)).set(i);
+        }
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /** All students, in the order given to the constructor. */
+    public List<Student> all() {
+        return Collections.unmodifiableList(Arrays.asList(rows));
+    }
+
+    /** The rows matching every given criterion (null or empty = any). */
+    public BitSet select(String programme, Integer level, String status) {
+        List<BitSet> criteria = new ArrayList<>(3);
+        if (programme != null && !programme.isEmpty()) criteria.add(byProgramme.getOrDefault(programme, NONE));
+        if (level != null)                             criteria.add(byLevel.getOrDefault(level, NONE));
+        if (status != null && !status.isEmpty())       criteria.add(byStatus.getOrDefault(status, NONE));
+
+        if (criteria.isEmpty()) {
+            BitSet all = new BitSet(rows.length);
+            all.set(0, rows.length);
+            return all;
+        }
+        criteria.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        BitSet result = (BitSet) criteria.get(0).clone();
+        for (int i = 1; i < criteria.size() && !result.isEmpty(); i++) result.and(criteria.get(i));
+        return result;
+    }
+
+    /** Same as StudentService.filterStudents, from memory. */
+    public List<Student> filter(String programme, Integer level, String status) {
+        BitSet matches = select(programme, level, status);
+        List<Student> list = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) list.add(rows[i]);
+        return list;
+    }
+}
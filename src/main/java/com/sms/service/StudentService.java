@@ -1,11 +1,13 @@
 package com.sms.service;
 
+import com.sms.domain.BatchValidationResult;
 import com.sms.domain.Student;
 import com.sms.domain.ValidationResult;
 import com.sms.repository.StudentRepository;
 import com.sms.util.AppLogger;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +40,35 @@ public class StudentService {
         repository.save(student);
     }
 
+    /**
+     * Validates and saves several new students in one transaction; nothing is saved
+     * unless every row is valid and no ID is taken.
+     * @throws IllegalArgumentException naming the first bad row (1-based).
+     */
+    public void addStudents(List<Student> students) {
+        BatchValidationResult result = validationService.validateAll(students, ValidationService.Mode.FAIL_FAST);
+        if (!result.allValid()) {
+            int row = result.getFirstInvalid();
+            throw new IllegalArgumentException("Row " + (row + 1) + ": " + String.join("\n", result.getMessages(row)));
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < students.size(); i++) {
+            if (!ids.add(students.get(i).getStudentId())) {
+                throw new IllegalArgumentException("Row " + (i + 1) + ": Student ID '"
+                        + students.get(i).getStudentId() + "' appears more than once.");
+            }
+        }
+        Set<String> existing = repository.findExistingIds(ids);
+        for (int i = 0; i < students.size() && !existing.isEmpty(); i++) {
+            if (existing.contains(students.get(i).getStudentId())) {
+                throw new IllegalArgumentException("Row " + (i + 1) + ": Student ID '"
+                        + students.get(i).getStudentId() + "' already exists.");
+            }
+        }
+        repository.saveAll(students);
+    }
+
     // ── Update ────────────────────────────────────────────────────────────────
 
     public void updateStudent(Student student) {
@@ -65,6 +96,11 @@ public class StudentService {
         return repository.findAll();
     }
 
+    /** Streams all students (name order) to the action without loading them into a list. */
+    public void forEachStudent(Consumer<Student> action) {
+        repository.forEachStudent(action);
+    }
+
     public Optional<Student> getStudentById(String id) {
         return repository.findById(id);
     }
@@ -85,7 +121,7 @@ public class StudentService {
     // ── Dashboard Stats ───────────────────────────────────────────────────────
 
     public long getTotalCount() {
-        return repository.findAll().size();
+        return repository.count();
     }
 
     public long getActiveCount() {
@@ -0,0 +1,114 @@
+package com.sms.service;
+
+import com.sms.domain.ValidationRules;
+import com.sms.util.AppLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the validation rule file and reloads it whenever it changes on disk.
+ *
+ * If the file does not exist it is created from the bundled defaults, so there is
+ * always something to edit. A file that fails to parse is logged and ignored; the
+ * rules already installed stay in force until a good version is saved.
+ */
+public class ValidationRuleWatcher implements Closeable {
+
+    public static final String RULES_FILE = "validation_rules.properties";
+    private static final String TEMPLATE = "/com/sms/config/" + RULES_FILE;
+    // Editors often save in several steps (truncate, write, rename); wait for them to settle
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path file;
+    private final WatchService watcher;
+    private final Thread thread;
+    private FileTime lastLoaded;
+
+    private ValidationRuleWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.watcher = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "validation-rule-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /** Installs the rules from {@code file} (creating it if missing) and starts watching it. */
+    public static ValidationRuleWatcher start(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        if (Files.notExists(file)) writeTemplate(file);
+
+        ValidationRuleWatcher w = new ValidationRuleWatcher(file);
+        w.reload();
+        w.thread.start();
+        return w;
+    }
+
+    /**
+     * Reads and installs the rule file. Returns false (and keeps the current rules)
+     * if it is missing or invalid.
+     */
+    public synchronized boolean reload() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            ValidationService.install(ValidationRules.load(file));
+            lastLoaded = modified;
+            AppLogger.info("Validation rules loaded from " + file);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            AppLogger.warn("Validation rules in " + file + " not applied: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watcher.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean ours = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    ours |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (!ours) continue;
+
+                // Swallow the rest of the burst, then load once
+                WatchKey more;
+                while ((more = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                if (changedSinceLoad()) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closing
+        }
+    }
+
+    private synchronized boolean changedSinceLoad() {
+        try {
+            return !Files.getLastModifiedTime(file).equals(lastLoaded);
+        } catch (IOException e) {
+            return false; // deleted or being replaced; the next event will tell
+        }
+    }
+
+    private static void writeTemplate(Path file) throws IOException {
+        try (InputStream in = ValidationRuleWatcher.class.getResourceAsStream(TEMPLATE)) {
+            if (in == null) throw new IOException("Missing bundled resource " + TEMPLATE);
+            Files.copy(in, file);
+        }
+        AppLogger.info("Default validation rules written to " + file.toAbsolutePath());
+    }
+}
@@ -1,102 +1,192 @@
 package com.sms.service;
 
+import com.sms.domain.BatchValidationResult;
 import com.sms.domain.Student;
 import com.sms.domain.ValidationResult;
+import com.sms.domain.ValidationRules;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Contains all field validation rules as defined in the assignment brief.
  * Called by StudentService before any save or update.
+ *
+ * Rules are plain character scans (no regex) that report failures as ValidationError
+ * bits. check() returns just the mask, so validating a good row allocates nothing;
+ * messages are only built when a ValidationResult is asked for them.
+ *
+ * The bounds come from a ValidationRules set (data/validation_rules.properties, see
+ * ValidationRuleWatcher) compiled into a CompiledValidator. The compiled rules are
+ * shared by every instance and swapped atomically by install(), so a reload never
+ * leaves a row half-checked against old rules and half against new ones.
  */
 public class ValidationService {
 
-    private static final Set<Integer> VALID_LEVELS = Set.of(100, 200, 300, 400, 500, 600, 700);
+    /** How validateAll() treats the rows after the first invalid one. */
+    public enum Mode {
+        /** Check every row and report every error. */
+        COLLECT_ALL,
+        /** Stop at the first invalid row (all-or-nothing saves). */
+        FAIL_FAST
+    }
+
+    private static volatile CompiledValidator active = new CompiledValidator(ValidationRules.defaults());
+
+    // Below this many rows fork/join costs more than it saves.
+    static final int PARALLEL_THRESHOLD = 8192;
+    // Multiple of 64, so parallel tasks never write to the same bitmap word.
+    static final int CHUNK_ROWS = 2048;
 
     /**
      * Validates all fields of the student object.
      * Returns a ValidationResult; check isValid() before proceeding.
      */
     public ValidationResult validate(Student student) {
-        ValidationResult result = new ValidationResult();
+        return ValidationResult.fromMask(check(student));
+    }
 
-        validateStudentId(student.getStudentId(), result);
-        validateFullName(student.getFullName(), result);
-        validateProgramme(student.getProgramme(), result);
-        validateLevel(student.getLevel(), result);
-        validateGpa(student.getGpa(), result);
-        validateEmail(student.getEmail(), result);
-        validatePhone(student.getPhoneNumber(), result);
+    /**
+     * Allocation-free validation for bulk paths: 0 means valid, otherwise one
+     * ValidationError bit per failed rule.
+     */
+    public int check(Student student) {
+        return active.check(student);
+    }
+
+    // ── Rules ─────────────────────────────────────────────────────────────────
 
-        return result;
+    /** Compiles the rules and makes them the ones every ValidationService checks against. */
+    public static void install(ValidationRules rules) {
+        CompiledValidator compiled = new CompiledValidator(rules);
+        ValidationRules.activate(rules);
+        active = compiled;
     }
 
-    // ── Individual field validators ───────────────────────────────────────────
+    public static ValidationRules getRules() {
+        return active.rules;
+    }
 
-    public void validateStudentId(String id, ValidationResult result) {
-        if (id == null || id.isBlank()) {
-            result.addError("Student ID is required.");
-            return;
-        }
-        if (id.length() < 4 || id.length() > 20) {
-            result.addError("Student ID must be between 4 and 20 characters.");
+    // ── Batches ───────────────────────────────────────────────────────────────
+
+    public BatchValidationResult validateAll(List<Student> students) {
+        return validateAll(students, Mode.COLLECT_ALL);
+    }
+
+    /**
+     * Validates a list of students, splitting large lists across the common ForkJoinPool.
+     * The result holds a valid-row bitmap and one error mask per row; messages are only
+     * built when asked for. In FAIL_FAST mode, rows after the first invalid one are unchecked.
+     */
+    public BatchValidationResult validateAll(List<Student> students, Mode mode) {
+        List<Student> rows = students instanceof RandomAccess ? students : new ArrayList<>(students);
+        int n = rows.size();
+        Batch batch = new Batch(rows, mode == Mode.FAIL_FAST);
+        if (n < PARALLEL_THRESHOLD) {
+            batch.check(0, n);
+        } else {
+            ForkJoinPool.commonPool().invoke(batch.new Task(0, n));
         }
-        if (!id.matches("[A-Za-z0-9]+")) {
-            result.addError("Student ID must contain only letters and digits.");
+
+        int first = batch.firstInvalid.get();
+        if (first == Integer.MAX_VALUE) {
+            return new BatchValidationResult(n, batch.validBits, batch.masks, -1, true);
         }
+        if (batch.failFast) batch.forgetAfter(first);
+        return new BatchValidationResult(n, batch.validBits, batch.masks, first, !batch.failFast || first == n - 1);
     }
 
-    public void validateFullName(String name, ValidationResult result) {
-        if (name == null || name.isBlank()) {
-            result.addError("Full name is required.");
-            return;
+    /** Shared state of one validateAll() call; each task writes only its own rows. */
+    private final class Batch {
+        final List<Student> rows;
+        final boolean failFast;
+        final long[] validBits;
+        final int[] masks;
+        final AtomicInteger firstInvalid = new AtomicInteger(Integer.MAX_VALUE);
+        final CompiledValidator validator = active;   // one rule set for the whole batch
+
+        Batch(List<Student> rows, boolean failFast) {
+            this.rows = rows;
+            this.failFast = failFast;
+            this.validBits = new long[(rows.size() + 63) >>> 6];
+            this.masks = new int[rows.size()];
         }
-        if (name.length() < 2 || name.length() > 60) {
-            result.addError("Full name must be between 2 and 60 characters.");
+
+        void check(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (failFast && i > firstInvalid.get()) return;
+                int mask = validator.check(rows.get(i));
+                if (mask == 0) {
+                    validBits[i >>> 6] |= 1L << i;
+                } else {
+                    masks[i] = mask;
+                    firstInvalid.accumulateAndGet(i, Math::min);
+                }
+            }
         }
-        if (name.matches(".*\\d.*")) {
-            result.addError("Full name must not contain digits.");
+
+        /** Fail-fast tasks may have got past the first invalid row before seeing it; drop that work. */
+        void forgetAfter(int row) {
+            for (int i = row + 1; i < masks.length; i++) masks[i] = 0;
+            int word = row >>> 6;
+            validBits[word] &= -1L >>> (63 - (row & 63));
+            for (int w = word + 1; w < validBits.length; w++) validBits[w] = 0;
+        }
+
+        final class Task extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from, to;
+
+            Task(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (failFast && from > firstInvalid.get()) return;
+                if (to - from <= CHUNK_ROWS) {
+                    check(from, to);
+                    return;
+                }
+                int mid = (from + (to - from) / 2) & ~63;
+                invokeAll(new Task(from, mid), new Task(mid, to));
+            }
         }
     }
 
+    // ── Individual field validators ───────────────────────────────────────────
+
+    public void validateStudentId(String id, ValidationResult result) {
+        result.addErrors(active.checkStudentId(id));
+    }
+
+    public void validateFullName(String name, ValidationResult result) {
+        result.addErrors(active.checkFullName(name));
+    }
+
     public void validateProgramme(String programme, ValidationResult result) {
-        if (programme == null || programme.isBlank()) {
-            result.addError("Programme is required.");
-        }
+        result.addErrors(active.checkProgramme(programme));
     }
 
     public void validateLevel(int level, ValidationResult result) {
-        if (!VALID_LEVELS.contains(level)) {
-            result.addError("Level must be one of: 100, 200, 300, 400, 500, 600, 700.");
-        }
+        result.addErrors(active.checkLevel(level));
     }
 
     public void validateGpa(double gpa, ValidationResult result) {
-        if (gpa < 0.0 || gpa > 4.0) {
-            result.addError("GPA must be between 0.0 and 4.0.");
-        }
+        result.addErrors(active.checkGpa(gpa));
     }
 
     public void validateEmail(String email, ValidationResult result) {
-        if (email == null || email.isBlank()) {
-            result.addError("Email is required.");
-            return;
-        }
-        if (!email.contains("@") || !email.contains(".")) {
-            result.addError("Email must contain '@' and '.'.");
-        }
+        result.addErrors(active.checkEmail(email));
     }
 
     public void validatePhone(String phone, ValidationResult result) {
-        if (phone == null || phone.isBlank()) {
-            result.addError("Phone number is required.");
-            return;
-        }
-        if (!phone.matches("\\d+")) {
-            result.addError("Phone number must contain digits only.");
-        }
-        if (phone.length() < 10 || phone.length() > 15) {
-            result.addError("Phone number must be between 10 and 15 digits.");
-        }
+        result.addErrors(active.checkPhone(phone));
     }
 }
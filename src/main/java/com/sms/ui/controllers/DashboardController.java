@@ -1,25 +1,18 @@
 package com.sms.ui.controllers;
 
-import java.io.IOException;
-import java.net.URL;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.Callable;
 
 import com.sms.service.StudentService;
 import com.sms.util.ServiceLocator;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
-import javafx.scene.layout.StackPane;
 
 /**
  * Populates the dashboard stat cards and handles quick-action navigation buttons.
+ * The stats are queried in the background each time the dashboard is shown (see ViewManager).
  */
-public class DashboardController {
-
-    private static final Logger LOGGER = Logger.getLogger(DashboardController.class.getName());
+public class DashboardController implements DataView<DashboardController.Stats> {
 
     @FXML private Label lblTotal;
     @FXML private Label lblActive;
@@ -28,22 +21,25 @@ public class DashboardController {
 
     private final StudentService studentService = ServiceLocator.getStudentService();
 
+    record Stats(long total, long active, long inactive, double averageGpa) {}
+
     @FXML
     public void initialize() {
-        refreshStats();
+        // Stats are filled in by showData() once ViewManager has queried them
+    }
+
+    @Override
+    public Callable<Stats> dataQuery() {
+        return () -> new Stats(studentService.getTotalCount(), studentService.getActiveCount(),
+                studentService.getInactiveCount(), studentService.getAverageGpa());
     }
 
-    private void refreshStats() {
-        try {
-            lblTotal.setText(String.valueOf(studentService.getTotalCount()));
-            lblActive.setText(String.valueOf(studentService.getActiveCount()));
-            lblInactive.setText(String.valueOf(studentService.getInactiveCount()));
-            lblAvgGpa.setText(String.format("%.2f", studentService.getAverageGpa()));
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to refresh dashboard statistics", e);
-            // Optional: set fallback text, e.g.
-            // lblTotal.setText("—"); lblActive.setText("—"); etc.
-        }
+    @Override
+    public void showData(Stats stats) {
+        lblTotal.setText(String.valueOf(stats.total()));
+        lblActive.setText(String.valueOf(stats.active()));
+        lblInactive.setText(String.valueOf(stats.inactive()));
+        lblAvgGpa.setText(String.format("%.2f", stats.averageGpa()));
     }
 
     // ────────────────────────────────────────────────
@@ -71,45 +67,11 @@ public class DashboardController {
     }
 
     // ────────────────────────────────────────────────
-    // Navigation logic – finds the main content area and swaps view
+    // Navigation logic – hands over to the main window's ViewManager
     // ────────────────────────────────────────────────
 
     private void navigateTo(String fxmlFileName) {
-        try {
-            // Lookup the content StackPane from the current scene
-            // (assumes it has fx:id="contentArea" in the main FXML)
-            StackPane contentArea = (StackPane) lblTotal.getScene().lookup("#contentArea");
-
-            if (contentArea == null) {
-                LOGGER.severe("Cannot find #contentArea StackPane in the scene");
-                return;
-            }
-
-            URL fxmlUrl = getClass().getResource("/com/sms/ui/" + fxmlFileName);
-            if (fxmlUrl == null) {
-                LOGGER.severe("FXML file not found: " + fxmlFileName);
-                return;
-            }
-
-            FXMLLoader loader = new FXMLLoader(fxmlUrl);
-            Node newContent = loader.load();
-
-            // Safest way to replace content (avoids setAll ambiguity)
-            contentArea.getChildren().clear();
-            contentArea.getChildren().add(newContent);
-
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load view: " + fxmlFileName, e);
-            // Optional: show error message in UI, e.g. temporary label in dashboard
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Unexpected error during navigation", e);
-        }
-    }
-
-    /**
-     * Public method to trigger stats refresh from outside (e.g. after student CRUD operations).
-     */
-    public void refresh() {
-        refreshStats();
+        ViewManager views = ViewManager.of(lblTotal);
+        if (views != null) views.show(fxmlFileName);
     }
-}
\ No newline at end of file
+}
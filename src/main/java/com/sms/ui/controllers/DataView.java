@@ -0,0 +1,23 @@
+package com.sms.ui.controllers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A screen whose data is reloaded every time it is shown (see ViewManager). The query
+ * runs on a background thread while the screen shows a loading indicator, so the FX
+ * thread never waits on the database.
+ *
+ * @param <T> whatever the query returns, handed back to showData()
+ */
+public interface DataView<T> {
+
+    /**
+     * Called on the FX thread each time the view is shown. Reads any UI state the query
+     * needs (filters, thresholds) and returns the query itself, which then runs off the
+     * FX thread and must not touch any node.
+     */
+    Callable<T> dataQuery();
+
+    /** Called on the FX thread with the query's result. */
+    void showData(T data);
+}
@@ -0,0 +1,138 @@
+package com.sms.ui.controllers;
+
+import com.sms.util.AppLogger;
+import com.sms.util.FlightRecording;
+import com.sms.util.LogCategory;
+import com.sms.util.Metrics;
+import com.sms.util.SlowQueryLog;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+
+/**
+ * Controls the Diagnostics screen: a table of every metric (see Metrics) with latency
+ * percentiles and throughput, and the SQL statements that took the most time (see
+ * SlowQueryLog), refreshed every two seconds while the screen is shown. When the app
+ * runs with -Dsms.jfr=true it can also dump the flight recording (see FlightRecording).
+ */
+public class DiagnosticsController {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int TOP_STATEMENTS = 20;
+
+    @FXML private TableView<Metrics.Row> tblMetrics;
+    @FXML private TableColumn<Metrics.Row, String> colName, colKind, colCount, colRate, colP50, colP99, colMax;
+    @FXML private TableView<SlowQueryLog.Offender> tblQueries;
+    @FXML private TableColumn<SlowQueryLog.Offender, String> qColStatement, qColCalls, qColSlow, qColTotal, qColMax, qColPlan;
+    @FXML private CheckBox chkAutoRefresh;
+    @FXML private Label    lblStatus, lblQueries;
+
+    private final Timeline autoRefresh = new Timeline(new KeyFrame(Duration.seconds(2), e -> refresh()));
+
+    @FXML
+    public void initialize() {
+        colName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().name));
+        colKind.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().kind));
+        colCount.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().count)));
+        colRate.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().kind.equals("gauge") ? "" : String.format(Locale.ROOT, "%.2f", c.getValue().perSecond)));
+        colP50.setCellValueFactory(c -> new SimpleStringProperty(latency(c.getValue(), c.getValue().p50Millis)));
+        colP99.setCellValueFactory(c -> new SimpleStringProperty(latency(c.getValue(), c.getValue().p99Millis)));
+        colMax.setCellValueFactory(c -> new SimpleStringProperty(latency(c.getValue(), c.getValue().maxMillis)));
+
+        qColStatement.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().statement));
+        qColCalls.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().calls)));
+        qColSlow.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().slowCalls)));
+        qColTotal.setCellValueFactory(c -> new SimpleStringProperty(String.format(Locale.ROOT, "%.1f", c.getValue().totalMillis)));
+        qColMax.setCellValueFactory(c -> new SimpleStringProperty(String.format(Locale.ROOT, "%.1f", c.getValue().maxMillis)));
+        qColPlan.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().plan == null ? "" : c.getValue().plan));
+        long slowMillis = SlowQueryLog.getThresholdMillis();
+        lblQueries.setText(slowMillis < 0
+                ? "Top SQL statements by total time (off: start with -Dsms.db.slowQueryMs=200 to record them)"
+                : "Top SQL statements by total time (slow = over " + slowMillis + " ms, -Dsms.db.slowQueryMs)");
+
+        autoRefresh.setCycleCount(Animation.INDEFINITE);
+        // The view is parsed off the FX thread and kept between visits (see ViewManager):
+        // poll only while it is in the main window.
+        tblMetrics.sceneProperty().addListener((obs, old, scene) -> {
+            if (scene == null) {
+                autoRefresh.stop();
+            } else {
+                refresh();
+                toggleAutoRefresh();
+            }
+        });
+    }
+
+    @FXML
+    public void refresh() {
+        tblMetrics.setItems(FXCollections.observableArrayList(Metrics.snapshot()));
+        tblQueries.setItems(FXCollections.observableArrayList(SlowQueryLog.topOffenders(TOP_STATEMENTS)));
+    }
+
+    @FXML
+    public void toggleAutoRefresh() {
+        if (chkAutoRefresh.isSelected()) autoRefresh.play();
+        else autoRefresh.stop();
+    }
+
+    @FXML
+    public void resetMetrics() {
+        Metrics.reset();
+        SlowQueryLog.reset();
+        refresh();
+        showStatus("Metrics reset.", true);
+    }
+
+    @FXML
+    public void saveSnapshot() {
+        try {
+            Path file = Metrics.dump(Path.of("data", "metrics-" + LocalDateTime.now().format(FILE_STAMP) + ".txt"));
+            Files.writeString(file, "\n" + SlowQueryLog.report(TOP_STATEMENTS), StandardCharsets.UTF_8, APPEND);
+            showStatus("✅ Snapshot saved to " + file.toAbsolutePath(), true);
+            AppLogger.info(LogCategory.UI, "Metrics snapshot saved: {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            showStatus("❌ Could not save snapshot: " + e.getMessage(), false);
+            AppLogger.error(LogCategory.UI, "Metrics snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    @FXML
+    public void dumpRecording() {
+        if (!FlightRecording.isRunning()) {
+            showStatus("No flight recording is running. Start the app with -Dsms.jfr=true.", false);
+            return;
+        }
+        try {
+            Path file = FlightRecording.dump();
+            showStatus("✅ Flight recording saved to " + file.toAbsolutePath() + " (open it in JDK Mission Control)", true);
+        } catch (IOException e) {
+            showStatus("❌ Could not dump flight recording: " + e.getMessage(), false);
+            AppLogger.error(LogCategory.UI, "Flight recording dump failed: {}", e.getMessage());
+        }
+    }
+
+    private static String latency(Metrics.Row row, double millis) {
+        return row.kind.equals("timer") ? String.format(Locale.ROOT, "%.3f", millis) : "";
+    }
+
+    private void showStatus(String msg, boolean ok) {
+        lblStatus.setText(msg);
+        lblStatus.setStyle(ok ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
+    }
+}
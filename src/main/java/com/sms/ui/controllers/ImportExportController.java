@@ -1,9 +1,15 @@
 package com.sms.ui.controllers;
 
+import com.sms.domain.ImportCheckpoint;
 import com.sms.domain.Student;
 import com.sms.service.CsvService;
+import com.sms.service.ImportErrorSink;
+import com.sms.service.ImportService;
+import com.sms.service.SnapshotService;
 import com.sms.service.StudentService;
 import com.sms.util.AppLogger;
+import com.sms.util.JfrEvents.FxBlockingEvent;
+import com.sms.util.LogCategory;
 import com.sms.util.ServiceLocator;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
@@ -13,14 +19,12 @@ import javafx.stage.FileChooser;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Controls the Import / Export screen.
- * Import runs on a background thread so the UI does not freeze.
+ * Import runs on a background thread so the UI does not freeze, and can be resumed
+ * if the app closed part-way through.
  */
 public class ImportExportController {
 
@@ -30,19 +34,26 @@ public class ImportExportController {
     @FXML private Label    lblImportErrors;
     @FXML private TextArea txtImportLog;
     @FXML private Label    lblExportStatus;
+    @FXML private CheckBox chkGzip;
 
     private final StudentService studentService = ServiceLocator.getStudentService();
     private final CsvService     csvService     = ServiceLocator.getCsvService();
+    private final ImportService  importService  = ServiceLocator.getImportService();
+    private final SnapshotService snapshotService = ServiceLocator.getSnapshotService();
+    private static final String SYNC_TARGET = "sync";
+
     private File selectedImportFile;
-    private List<String> lastImportErrors;
+    private ImportErrorSink lastImportErrors;
 
     // ── Import ────────────────────────────────────────────────────────────────
 
     @FXML
     public void chooseImportFile() {
         FileChooser fc = new FileChooser();
-        fc.setTitle("Select CSV File");
-        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        fc.setTitle("Select CSV File or Snapshot");
+        fc.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new FileChooser.ExtensionFilter("Student Snapshots", "*" + SnapshotService.EXTENSION));
         File file = fc.showOpenDialog(lblImportFile.getScene().getWindow());
         if (file != null) {
             selectedImportFile = file;
@@ -56,57 +67,95 @@ public class ImportExportController {
             showAlert(Alert.AlertType.WARNING, "No File", "Please choose a CSV file first.");
             return;
         }
+        if (isSnapshot(selectedImportFile)) {
+            startImport(selectedImportFile, null);
+            return;
+        }
+
+        // An earlier import of this very file was interrupted: offer to carry on from it
+        ImportCheckpoint checkpoint = null;
+        try {
+            checkpoint = importService.findCheckpoint(selectedImportFile).orElse(null);
+        } catch (IOException e) {
+            AppLogger.warn(LogCategory.UI, "Could not check for an import checkpoint: {}", e.getMessage());
+        }
+        if (checkpoint != null) {
+            Alert ask = new Alert(Alert.AlertType.CONFIRMATION,
+                    "An earlier import of this file stopped after " + checkpoint.getRowsImported()
+                            + " row(s). Resume from line " + checkpoint.getLineNumber() + "?\n\n"
+                            + "Choose No to start again from the top.",
+                    ButtonType.YES, ButtonType.NO);
+            ask.setTitle("Resume Import");
+            if (ask.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) {
+                importService.discardCheckpoint(checkpoint);
+                checkpoint = null;
+            }
+        }
+        startImport(selectedImportFile, checkpoint);
+    }
 
-        txtImportLog.setText("Importing, please wait…");
+    /** Continues an interrupted import (offered by MainController at startup). */
+    public void resumeImport(ImportCheckpoint checkpoint) {
+        selectedImportFile = new File(checkpoint.getFilePath());
+        lblImportFile.setText(selectedImportFile.getName());
+        startImport(selectedImportFile, checkpoint);
+    }
+
+    private void startImport(File file, ImportCheckpoint checkpoint) {
+        txtImportLog.setText(checkpoint == null ? "Importing, please wait…"
+                : "Resuming from line " + checkpoint.getLineNumber() + ", please wait…");
         importResultBox.setVisible(false);
         importResultBox.setManaged(false);
+        discardLastErrors();
 
-        // Run on background thread to keep UI responsive
-        Task<CsvService.ImportResult> task = new Task<>() {
+        // Run on background thread to keep UI responsive; rows are committed in batches
+        Task<ImportService.ImportSummary> task = new Task<>() {
             @Override
-            protected CsvService.ImportResult call() throws Exception {
-                Set<String> existingIds = studentService.getAllStudents()
-                        .stream().map(Student::getStudentId).collect(Collectors.toSet());
-                return csvService.importFromCsv(selectedImportFile, existingIds);
+            protected ImportService.ImportSummary call() throws Exception {
+                if (isSnapshot(file)) {
+                    return importService.importSnapshot(file, rows -> updateMessage("Importing… " + rows + " row(s) saved."));
+                }
+                return importService.importFile(file, checkpoint,
+                        rows -> updateMessage("Importing… " + rows + " row(s) saved."));
             }
         };
 
+        task.messageProperty().addListener((obs, old, msg) -> txtImportLog.setText(msg));
+
         task.setOnSucceeded(e -> {
-            CsvService.ImportResult result = task.getValue();
+            ImportService.ImportSummary result = task.getValue();
             lastImportErrors = result.errors;
 
-            // Save valid records
-            int saved = 0;
+            // Only a capped preview goes into the TextArea; the full list stays in the spill file
             StringBuilder log = new StringBuilder();
-            for (Student s : result.validStudents) {
-                try {
-                    studentService.addStudent(s);
-                    saved++;
-                } catch (Exception ex) {
-                    log.append("Could not save ").append(s.getStudentId()).append(": ").append(ex.getMessage()).append("\n");
-                }
-            }
-
-            for (String err : result.errors) log.append(err).append("\n");
+            if (result.resumed) log.append("Resumed an interrupted import.\n");
+            result.errors.getCounts().forEach((code, n) -> log.append(code).append(": ").append(n).append("\n"));
+            if (!result.errors.getCounts().isEmpty()) log.append("\n");
+            for (String err : result.errors.getPreview()) log.append(err).append("\n");
+            long hidden = result.errors.getTotal() - result.errors.getPreview().size();
+            if (hidden > 0) log.append("… and ").append(hidden).append(" more – save the error report to see them all.\n");
 
-            lblImportSuccess.setText("✅ " + saved + " student(s) imported successfully.");
-            lblImportErrors.setText("⚠️ " + result.errors.size() + " row(s) skipped with errors.");
+            lblImportSuccess.setText("✅ " + result.imported + " student(s) imported successfully.");
+            lblImportErrors.setText("⚠️ " + result.errorCount + " row(s) skipped with errors.");
             txtImportLog.setText(log.toString().isEmpty() ? "No errors." : log.toString());
             importResultBox.setVisible(true);
             importResultBox.setManaged(true);
         });
 
         task.setOnFailed(e -> {
-            txtImportLog.setText("Import failed: " + task.getException().getMessage());
-            AppLogger.error("Import failed: " + task.getException().getMessage());
+            txtImportLog.setText("Import failed: " + task.getException().getMessage()
+                    + "\nRows committed so far are kept; run the import again to resume.");
+            AppLogger.error(LogCategory.UI, "Import failed: {}", task.getException().getMessage());
         });
 
-        new Thread(task).start();
+        Thread worker = new Thread(task, "csv-import");
+        worker.setDaemon(true);
+        worker.start();
     }
 
     @FXML
     public void saveErrorReport() {
-        if (lastImportErrors == null || lastImportErrors.isEmpty()) {
+        if (lastImportErrors == null || lastImportErrors.getTotal() == 0) {
             showAlert(Alert.AlertType.INFORMATION, "No Errors", "There are no import errors to save.");
             return;
         }
@@ -118,23 +167,155 @@ public class ImportExportController {
         }
     }
 
+    private void discardLastErrors() {
+        if (lastImportErrors == null) return;
+        try {
+            lastImportErrors.close();
+        } catch (IOException e) {
+            AppLogger.warn(LogCategory.UI, "Could not remove the previous error spill file: {}", e.getMessage());
+        }
+        lastImportErrors = null;
+    }
+
     // ── Export ────────────────────────────────────────────────────────────────
 
+    /**
+     * Streams the whole table to all_students.csv on a background thread.
+     * Rows come straight off a DB cursor, so memory stays flat however big the table is.
+     */
     @FXML
     public void exportAll() {
-        try {
-            List<Student> all = studentService.getAllStudents();
-            csvService.exportStudents(all, "all_students.csv");
-            lblExportStatus.setText("✅ Exported all_students.csv to the data folder (" + all.size() + " records).");
-        } catch (IOException e) {
-            lblExportStatus.setText("❌ Export failed: " + e.getMessage());
-        }
+        boolean gzip = chkGzip.isSelected();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return csvService.exportStudents(studentService::forEachStudent, "all_students.csv", gzip,
+                        rows -> updateMessage("Exporting… " + rows + " record(s) written."));
+            }
+        };
+
+        lblExportStatus.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(e -> {
+            lblExportStatus.textProperty().unbind();
+            String name = gzip ? "all_students.csv.gz" : "all_students.csv";
+            lblExportStatus.setText("✅ Exported " + name + " to the data folder (" + task.getValue() + " records).");
+        });
+        task.setOnFailed(e -> {
+            lblExportStatus.textProperty().unbind();
+            lblExportStatus.setText("❌ Export failed: " + task.getException().getMessage());
+            AppLogger.error(LogCategory.UI, "Export failed: {}", task.getException().getMessage());
+        });
+
+        Thread worker = new Thread(task, "csv-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Writes every standard report (all students, top performers, at-risk and one file per
+     * programme) from one pass over the table, with the files written in parallel.
+     */
+    @FXML
+    public void exportBundle() {
+        double threshold = ServiceLocator.getAtRiskThreshold();
+        Task<CsvService.BundleResult> task = new Task<>() {
+            @Override
+            protected CsvService.BundleResult call() throws Exception {
+                return csvService.exportBundle(studentService::forEachStudent, 10, threshold,
+                        rows -> updateMessage("Exporting reports… " + rows + " record(s) scanned."));
+            }
+        };
+
+        lblExportStatus.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(e -> {
+            lblExportStatus.textProperty().unbind();
+            CsvService.BundleResult r = task.getValue();
+            lblExportStatus.setText("✅ Exported " + r.files.size() + " report files to the data folder ("
+                    + r.students + " students).");
+        });
+        task.setOnFailed(e -> {
+            lblExportStatus.textProperty().unbind();
+            lblExportStatus.setText("❌ Export failed: " + task.getException().getMessage());
+            AppLogger.error(LogCategory.UI, "Bundle export failed: {}", task.getException().getMessage());
+        });
+
+        Thread worker = new Thread(task, "bundle-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Streams the whole table to all_students.smsb, the fast format for moving data between instances. */
+    @FXML
+    public void exportSnapshot() {
+        boolean compress = chkGzip.isSelected();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return snapshotService.exportSnapshot(studentService::forEachStudent, "all_students", compress,
+                        rows -> updateMessage("Exporting snapshot… " + rows + " record(s) written."));
+            }
+        };
+
+        lblExportStatus.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(e -> {
+            lblExportStatus.textProperty().unbind();
+            lblExportStatus.setText("✅ Exported all_students" + SnapshotService.EXTENSION
+                    + " to the data folder (" + task.getValue() + " records).");
+        });
+        task.setOnFailed(e -> {
+            lblExportStatus.textProperty().unbind();
+            lblExportStatus.setText("❌ Snapshot export failed: " + task.getException().getMessage());
+            AppLogger.error(LogCategory.UI, "Snapshot export failed: {}", task.getException().getMessage());
+        });
+
+        Thread worker = new Thread(task, "snapshot-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Writes only the rows added, changed or deleted since the last sync export.
+     * Each run moves the "sync" watermark forward, so running it nightly yields one small file per night.
+     */
+    @FXML
+    public void exportChanges() {
+        Task<CsvService.DeltaResult> task = new Task<>() {
+            @Override
+            protected CsvService.DeltaResult call() throws Exception {
+                return csvService.exportDelta(SYNC_TARGET,
+                        rows -> updateMessage("Exporting changes… " + rows + " record(s) written."));
+            }
+        };
+
+        lblExportStatus.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(e -> {
+            lblExportStatus.textProperty().unbind();
+            CsvService.DeltaResult r = task.getValue();
+            lblExportStatus.setText("✅ Exported " + r.file.getFileName() + " (" + r.upserts + " changed, "
+                    + r.deletes + " deleted since the last sync).");
+        });
+        task.setOnFailed(e -> {
+            lblExportStatus.textProperty().unbind();
+            lblExportStatus.setText("❌ Delta export failed: " + task.getException().getMessage());
+            AppLogger.error(LogCategory.UI, "Delta export failed: {}", task.getException().getMessage());
+        });
+
+        Thread worker = new Thread(task, "delta-export");
+        worker.setDaemon(true);
+        worker.start();
     }
 
     @FXML
     public void exportTopPerformers() {
         try {
-            List<Student> top = studentService.getTopPerformers(10, null, null);
+            List<Student> top;
+            FxBlockingEvent blocking = new FxBlockingEvent("ImportExport.topPerformers");
+            blocking.begin();
+            try {
+                top = studentService.getTopPerformers(10, null, null);
+            } finally {
+                blocking.commit();
+            }
             csvService.exportStudents(top, "top_performers.csv");
             lblExportStatus.setText("✅ Exported top_performers.csv (" + top.size() + " records).");
         } catch (IOException e) {
@@ -145,7 +326,14 @@ public class ImportExportController {
     @FXML
     public void exportAtRisk() {
         try {
-            List<Student> risk = studentService.getAtRiskStudents(ServiceLocator.getAtRiskThreshold());
+            List<Student> risk;
+            FxBlockingEvent blocking = new FxBlockingEvent("ImportExport.atRisk");
+            blocking.begin();
+            try {
+                risk = studentService.getAtRiskStudents(ServiceLocator.getAtRiskThreshold());
+            } finally {
+                blocking.commit();
+            }
             csvService.exportStudents(risk, "at_risk_students.csv");
             lblExportStatus.setText("✅ Exported at_risk_students.csv (" + risk.size() + " records).");
         } catch (IOException e) {
@@ -155,6 +343,10 @@ public class ImportExportController {
 
     // ── Helper ────────────────────────────────────────────────────────────────
 
+    private static boolean isSnapshot(File file) {
+        return file.getName().toLowerCase().endsWith(SnapshotService.EXTENSION);
+    }
+
     private void showAlert(Alert.AlertType type, String title, String msg) {
         Alert a = new Alert(type, msg, ButtonType.OK);
         a.setTitle(title);
@@ -1,28 +1,57 @@
 package com.sms.ui.controllers;
 
-import java.io.IOException;
-import java.net.URL;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.io.File;
 
+import com.sms.domain.ImportCheckpoint;
+import com.sms.service.ImportService;
+import com.sms.util.ServiceLocator;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 import javafx.scene.layout.StackPane;
 
 /**
- * Controls the main window. Swaps the center content when navigation buttons are clicked.
+ * Controls the main window. Swaps the center content when navigation buttons are clicked;
+ * the screens are parsed in the background at start-up and reused (see ViewManager).
  */
 public class MainController {
 
-    private static final Logger LOGGER = Logger.getLogger(MainController.class.getName());
+    private static final String[] PRELOADED = {
+            "StudentsView.fxml", "ReportsView.fxml", "ImportExportView.fxml", "SettingsView.fxml", "DiagnosticsView.fxml"
+    };
 
     @FXML
     private StackPane contentArea;
 
+    private ViewManager views;
+
     @FXML
     public void initialize() {
+        views = new ViewManager(contentArea);
         showDashboard(); // default screen on startup
+        views.preload(PRELOADED);
+        Platform.runLater(this::offerImportResume);
+    }
+
+    /**
+     * If the app was closed during an import, offer to continue it from its last checkpoint.
+     */
+    private void offerImportResume() {
+        ImportService importService = ServiceLocator.getImportService();
+        for (ImportCheckpoint cp : importService.findResumableImports()) {
+            Alert ask = new Alert(Alert.AlertType.CONFIRMATION,
+                    "The import of '" + new File(cp.getFilePath()).getName() + "' was interrupted after "
+                            + cp.getRowsImported() + " row(s).\nResume it from line " + cp.getLineNumber() + "?",
+                    ButtonType.YES, ButtonType.NO);
+            ask.setTitle("Resume Import");
+            if (ask.showAndWait().orElse(ButtonType.NO) == ButtonType.YES) {
+                views.<ImportExportController>show("ImportExportView.fxml", c -> c.resumeImport(cp));
+                return; // one import at a time
+            }
+            importService.discardCheckpoint(cp);
+        }
     }
 
     // ────────────────────────────────────────────────
@@ -31,53 +60,31 @@ public class MainController {
 
     @FXML
     private void showDashboard() {
-        loadView("DashboardView.fxml");
+        views.show("DashboardView.fxml");
     }
 
     @FXML
     private void showStudents() {
-        loadView("StudentsView.fxml");
+        views.show("StudentsView.fxml");
     }
 
     @FXML
     private void showReports() {
-        loadView("ReportsView.fxml");
+        views.show("ReportsView.fxml");
     }
 
     @FXML
     private void showImportExport() {
-        loadView("ImportExportView.fxml");
+        views.show("ImportExportView.fxml");
     }
 
     @FXML
     private void showSettings() {
-        loadView("SettingsView.fxml");
+        views.show("SettingsView.fxml");
     }
 
-    // ────────────────────────────────────────────────
-    // Core view loading logic
-    // ────────────────────────────────────────────────
-
-    private void loadView(String fxmlFileName) {
-        try {
-            URL fxmlUrl = getClass().getResource("/com/sms/ui/" + fxmlFileName);
-            if (fxmlUrl == null) {
-                LOGGER.severe(() -> "FXML file not found: " + fxmlFileName);
-                // Optional: show error message in UI here
-                return;
-            }
-
-            FXMLLoader loader = new FXMLLoader(fxmlUrl);
-            Node rootNode = loader.load();
-
-            // Safest and clearest way — avoids any setAll() ambiguity
-            contentArea.getChildren().clear();
-            contentArea.getChildren().add(rootNode);
-
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load view: " + fxmlFileName, e);
-            // Optional: show user-friendly error dialog here
-            // e.g. showErrorDialog("Cannot load page", e.getMessage());
-        }
+    @FXML
+    private void showDiagnostics() {
+        views.show("DiagnosticsView.fxml");
     }
-}
\ No newline at end of file
+}
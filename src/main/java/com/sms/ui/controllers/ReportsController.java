@@ -4,20 +4,43 @@ import com.sms.domain.Student;
 import com.sms.service.CsvService;
 import com.sms.service.StudentService;
 import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
+import com.sms.util.Metrics;
 import com.sms.util.ServiceLocator;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 
 /**
- * Controls the Reports screen. Populates all four report tables.
+ * Controls the Reports screen. Each time the screen is shown the four reports run
+ * concurrently, one virtual thread each, and every table fills in as soon as its own
+ * report is ready; the refresh buttons and filters re-run a single report.
+ *
+ * Runs are coalesced per report: re-running a report while it is still running queues
+ * a single follow-up run, which replaces any run already queued and starts as soon as the
+ * current one ends, whose now outdated result is dropped. Work waiting for a report's rows
+ * (the at-risk export) is kept until a run's result is actually shown. Nothing is
+ * cancelled, because the database calls share one connection on which a JDBC call cannot
+ * be interrupted safely; this way each report occupies it with at most one run at a time.
  */
-public class ReportsController {
+public class ReportsController implements DataView<List<String>> {
+
+    private static final ExecutorService REPORTS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-", 0).factory());
 
     // ── Top Performers ────────────────────────────────────────────────────────
     @FXML private TableView<Student> tblTop;
@@ -40,15 +63,37 @@ public class ReportsController {
 
     private final StudentService studentService = ServiceLocator.getStudentService();
     private final CsvService     csvService     = ServiceLocator.getCsvService();
+    private double lastRiskThreshold = Double.NaN;
+    private double settingsThreshold = Double.NaN; // the Settings value txtThreshold was last set from
+    private final Map<String, FutureTask<?>> running = new HashMap<>(); // run in flight per report; FX thread only
+    private final Map<String, Runnable> queued = new HashMap<>();       // follow-up run per report; FX thread only
+    private final Map<String, List<Runnable>> waiting = new HashMap<>(); // run once a report's rows are shown; FX thread only
 
     @FXML
     public void initialize() {
         setupColumns();
-        // Populate filter dropdowns
-        topProgramme.setItems(FXCollections.observableArrayList(studentService.getAllProgrammes()));
         topLevel.setItems(FXCollections.observableArrayList(100, 200, 300, 400, 500, 600, 700));
-        txtThreshold.setText(String.valueOf(ServiceLocator.getAtRiskThreshold()));
+    }
 
+    /** Loads the programme filter; the reports themselves start in showData(). */
+    @Override
+    public Callable<List<String>> dataQuery() {
+        // The view is kept between visits: pick up a threshold changed in Settings meanwhile.
+        double configured = ServiceLocator.getAtRiskThreshold();
+        if (configured != settingsThreshold) {
+            settingsThreshold = configured;
+            txtThreshold.setText(String.valueOf(configured));
+        }
+        return studentService::getAllProgrammes;
+    }
+
+    @Override
+    public void showData(List<String> programmes) {
+        if (!topProgramme.getItems().equals(programmes)) {
+            String prog = topProgramme.getValue();
+            topProgramme.setItems(FXCollections.observableArrayList(programmes));
+            topProgramme.setValue(prog); // without firing refreshTopPerformers if it is unchanged
+        }
         refreshTopPerformers();
         refreshAtRisk();
         refreshDistribution();
@@ -86,38 +131,100 @@ public class ReportsController {
     public void refreshTopPerformers() {
         String prog = topProgramme.getValue();
         Integer lvl = topLevel.getValue();
-        List<Student> top = studentService.getTopPerformers(10, prog, lvl);
-        tblTop.setItems(FXCollections.observableArrayList(top));
+        runReport("topPerformers", tblTop, () -> studentService.getTopPerformers(10, prog, lvl),
+                top -> tblTop.setItems(FXCollections.observableArrayList(top)));
     }
 
     @FXML
     public void refreshAtRisk() {
+        refreshAtRisk(null);
+    }
+
+    /**
+     * @param then runs once rows are in the table again (may be null); a later refresh
+     *             that replaces this run still runs it, with the later rows
+     */
+    private void refreshAtRisk(Runnable then) {
         double threshold = parseThreshold();
-        List<Student> risk = studentService.getAtRiskStudents(threshold);
-        tblRisk.setItems(FXCollections.observableArrayList(risk));
+        if (then != null) waiting.computeIfAbsent("atRisk", k -> new ArrayList<>()).add(then);
+        runReport("atRisk", tblRisk, () -> studentService.getAtRiskStudents(threshold), risk -> {
+            tblRisk.setItems(FXCollections.observableArrayList(risk));
+            lastRiskThreshold = threshold;
+        });
     }
 
     @FXML
     public void refreshDistribution() {
-        Map<String, Long> dist = studentService.getGpaDistribution();
-        tblDist.setItems(FXCollections.observableArrayList(dist.entrySet()));
+        runReport("distribution", tblDist, studentService::getGpaDistribution,
+                dist -> tblDist.setItems(FXCollections.observableArrayList(dist.entrySet())));
     }
 
     @FXML
     public void refreshProgrammeSummary() {
-        List<Map<String, Object>> summary = studentService.getProgrammeSummary();
-        tblProg.setItems(FXCollections.observableArrayList(summary));
+        runReport("programmeSummary", tblProg, studentService::getProgrammeSummary,
+                summary -> tblProg.setItems(FXCollections.observableArrayList(summary)));
+    }
+
+    /**
+     * Empties the table, which then shows "Loading…", and runs the report on its own
+     * virtual thread; show gets the result on the FX thread. If the report is already
+     * running, this run is queued behind it instead (see the class comment).
+     */
+    private <T> void runReport(String name, TableView<?> table, Callable<T> report, Consumer<T> show) {
+        table.getItems().clear();
+        table.setPlaceholder(new Label("Loading…"));
+        if (running.containsKey(name)) {
+            queued.put(name, () -> start(name, table, report, show));
+        } else {
+            start(name, table, report, show);
+        }
+    }
+
+    private <T> void start(String name, TableView<?> table, Callable<T> report, Consumer<T> show) {
+        long start = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(report) {
+            @Override
+            protected void done() {
+                Metrics.timer("ui.report." + name).recordSince(start);
+                Platform.runLater(() -> finish(name, this, table, show));
+            }
+        };
+        running.put(name, task);
+        REPORTS.execute(task);
+    }
+
+    private <T> void finish(String name, FutureTask<T> task, TableView<?> table, Consumer<T> show) {
+        running.remove(name);
+        Runnable next = queued.remove(name);
+        if (next != null) {
+            next.run(); // this result is outdated
+            return;
+        }
+        table.setPlaceholder(null); // back to the default "No content in table"
+        List<Runnable> then = waiting.remove(name); // dropped if the report failed
+        try {
+            show.accept(task.get());
+            if (then != null) then.forEach(Runnable::run);
+        } catch (ExecutionException e) {
+            table.setPlaceholder(new Label("⚠️ Report failed: " + e.getCause().getMessage()));
+            AppLogger.error(LogCategory.UI, "Report {} failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // not reached: the task is done
+        }
     }
 
     // ── Export methods ────────────────────────────────────────────────────────
 
+    // Both exports write the rows already shown in the table instead of querying again.
+
     @FXML
     public void exportTopPerformers() {
+        if (running.containsKey("topPerformers")) {
+            showInfo("Top performers are still loading; export them once the table is filled.");
+            return;
+        }
         try {
-            String prog = topProgramme.getValue();
-            Integer lvl = topLevel.getValue();
-            List<Student> top = studentService.getTopPerformers(10, prog, lvl);
-            csvService.exportStudents(top, "top_performers.csv");
+            csvService.exportStudents(tblTop.getItems(), "top_performers.csv");
             showInfo("Exported top_performers.csv to the data folder.");
         } catch (IOException e) {
             showError("Export failed: " + e.getMessage());
@@ -126,9 +233,17 @@ public class ReportsController {
 
     @FXML
     public void exportAtRisk() {
+        // Threshold edited since the last refresh, or a refresh still running: export its rows
+        if (parseThreshold() != lastRiskThreshold || running.containsKey("atRisk")) {
+            refreshAtRisk(this::writeAtRisk);
+        } else {
+            writeAtRisk();
+        }
+    }
+
+    private void writeAtRisk() {
         try {
-            List<Student> risk = studentService.getAtRiskStudents(parseThreshold());
-            csvService.exportStudents(risk, "at_risk_students.csv");
+            csvService.exportStudents(tblRisk.getItems(), "at_risk_students.csv");
             showInfo("Exported at_risk_students.csv to the data folder.");
         } catch (IOException e) {
             showError("Export failed: " + e.getMessage());
@@ -147,11 +262,11 @@ public class ReportsController {
 
     private void showInfo(String msg) {
         new Alert(Alert.AlertType.INFORMATION, msg, ButtonType.OK).showAndWait();
-        AppLogger.info(msg);
+        AppLogger.info(LogCategory.UI, msg);
     }
 
     private void showError(String msg) {
         new Alert(Alert.AlertType.ERROR, msg, ButtonType.OK).showAndWait();
-        AppLogger.error(msg);
+        AppLogger.error(LogCategory.UI, msg);
     }
 }
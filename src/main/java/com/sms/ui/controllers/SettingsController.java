@@ -1,6 +1,7 @@
 package com.sms.ui.controllers;
 
 import com.sms.util.AppLogger;
+import com.sms.util.LogCategory;
 import com.sms.util.ServiceLocator;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -31,7 +32,7 @@ public class SettingsController {
             ServiceLocator.setAtRiskThreshold(value);
             lblSettingsMsg.setText("✅ Threshold updated to " + value);
             lblSettingsMsg.setStyle("-fx-text-fill: green;");
-            AppLogger.info("At-risk threshold changed to: " + value);
+            AppLogger.info(LogCategory.UI, "At-risk threshold changed to: {}", value);
         } catch (NumberFormatException e) {
             lblSettingsMsg.setText("⚠️ Please enter a valid number.");
             lblSettingsMsg.setStyle("-fx-text-fill: red;");
@@ -4,15 +4,28 @@ import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.sms.domain.Student;
+import com.sms.service.SearchCache;
+import com.sms.service.StudentIndex;
 import com.sms.service.StudentService;
+import com.sms.util.JfrEvents.FxBlockingEvent;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.Metrics;
 import com.sms.util.ServiceLocator;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
@@ -22,14 +35,33 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 /**
  * Controls the Students screen. Handles displaying, adding, editing,
- * deleting, searching, and filtering students.
+ * deleting, searching, and filtering students. Each time the screen is shown the
+ * table is reloaded in the background with the search or filter still applied.
+ *
+ * Search runs as you type: once typing pauses for SEARCH_DEBOUNCE (or on Enter) the
+ * query runs on a background thread, through a SearchCache so that a longer query
+ * narrows the previous results in memory. A newer query cancels one still waiting to
+ * run, and the results of a superseded query are never shown.
+ *
+ * The filters never query the database: every load also builds a StudentIndex over all
+ * students, and the filter combo boxes select from it in memory. The table shows a
+ * SortedList over the current rows, so a column sort survives filter and search changes.
  */
-public class StudentsController {
+public class StudentsController implements DataView<StudentsController.Shown> {
 
     private static final Logger LOGGER = Logger.getLogger(StudentsController.class.getName());
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+    private static final LatencyHistogram SEARCH_TIME = Metrics.timer("ui.search");
+    private static final LatencyHistogram FILTER_TIME = Metrics.timer("ui.filter");
+    private static final ExecutorService SEARCHES = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "student-search");
+        t.setDaemon(true);
+        return t;
+    });
 
     // ── Table ─────────────────────────────────────────────────────────────────
     @FXML private TableView<Student> tblStudents;
@@ -52,13 +84,65 @@ public class StudentsController {
     @FXML private Label lblStatus;
 
     private final StudentService studentService = ServiceLocator.getStudentService();
+    private final ObservableList<Student> rows = FXCollections.observableArrayList();
+    private StudentIndex index; // all students as of the last load; null until the first one
+    private final SearchCache searchCache = new SearchCache(studentService::searchStudents);
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private Future<?> pendingSearch;
+    private long searchGeneration; // incremented whenever the table is given other contents
+    private String note;           // result of the last save or delete, shown with the next load
     private boolean editMode = false;
 
+    record Shown(StudentIndex index, List<Student> students, List<String> programmes, String status) {}
+
     @FXML
     public void initialize() {
         setupColumns();
         setupFilterOptions();
-        refreshTable();
+        SortedList<Student> sorted = new SortedList<>(rows);
+        sorted.comparatorProperty().bind(tblStudents.comparatorProperty());
+        tblStudents.setItems(sorted);
+        searchDebounce.setOnFinished(e -> onSearch());
+        txtSearch.textProperty().addListener((obs, old, text) -> searchDebounce.playFromStart());
+    }
+
+    /** Re-runs whatever the table showed: the search, the filter, or all students. */
+    @Override
+    public Callable<Shown> dataQuery() {
+        String query     = txtSearch.getText() == null ? "" : txtSearch.getText().trim();
+        String programme = cbProgramme.getValue();
+        Integer level    = cbLevel.getValue();
+        String status    = cbStatus.getValue();
+        supersedeSearch();
+        searchCache.clear(); // students may have been edited or imported elsewhere
+        return () -> {
+            List<String> programmes = studentService.getAllProgrammes();
+            StudentIndex all = new StudentIndex(studentService.getAllStudents());
+            if (!query.isEmpty()) {
+                List<Student> results = searchCache.search(query);
+                return new Shown(all, results, programmes, results.size() + " result(s) for '" + query + "'.");
+            }
+            if (programme != null || level != null || status != null) {
+                List<Student> results = all.filter(programme, level, status);
+                return new Shown(all, results, programmes, "Filter applied: " + results.size() + " student(s).");
+            }
+            return new Shown(all, all.all(), programmes, "Showing " + all.size() + " student(s).");
+        };
+    }
+
+    @Override
+    public void showData(Shown shown) {
+        if (!cbProgramme.getItems().equals(shown.programmes())) {
+            String programme = cbProgramme.getValue();
+            cbProgramme.setItems(FXCollections.observableArrayList(shown.programmes()));
+            cbProgramme.setValue(programme); // without firing onFilter if it is unchanged
+        }
+        index = shown.index();
+        rows.setAll(shown.students());
+        lblStatus.setText(note == null ? shown.status() : note + " " + shown.status());
+        note = null;
+        boolean filtered = cbProgramme.getValue() != null || cbLevel.getValue() != null || cbStatus.getValue() != null;
+        if (filtered && txtSearch.getText().isBlank()) onFilter(); // cheap, and covers a filter picked while loading
     }
 
     private void setupColumns() {
@@ -92,42 +176,59 @@ public class StudentsController {
         fldLevel.setItems(FXCollections.observableArrayList(100, 200, 300, 400, 500, 600, 700));
         fldStatus.setItems(FXCollections.observableArrayList("Active", "Inactive"));
         fldStatus.setValue("Active");
-
-        refreshProgrammeFilter();
-    }
-
-    private void refreshProgrammeFilter() {
-        try {
-            List<String> programmes = studentService.getAllProgrammes();
-            cbProgramme.setItems(FXCollections.observableArrayList(programmes));
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to load programmes for filter", e);
-            cbProgramme.setItems(FXCollections.emptyObservableList());
-        }
     }
 
     // ── Table & Data Refresh ──────────────────────────────────────────────────
 
+    /**
+     * Reloads the students and the programme filter in the background, keeping the search
+     * or filter (see dataQuery()).
+     */
     @FXML
     public void refreshTable() {
-        try {
-            List<Student> students = studentService.getAllStudents();
-            tblStudents.setItems(FXCollections.observableArrayList(students));
-            lblStatus.setText("Showing " + students.size() + " student(s).");
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to refresh student table", e);
-            lblStatus.setText("Error loading students.");
-        }
+        ViewManager views = ViewManager.of(tblStudents);
+        if (views != null) views.reload(this);
     }
 
     // ── Search & Filter ───────────────────────────────────────────────────────
 
+    /** Runs the search now: after the debounce delay, or on Enter. */
     @FXML
     public void onSearch() {
+        supersedeSearch();
+        long generation = searchGeneration;
         String query = txtSearch.getText().trim();
-        List<Student> results = studentService.searchStudents(query);
-        tblStudents.setItems(FXCollections.observableArrayList(results));
-        lblStatus.setText(results.size() + " result(s) for '" + query + "'.");
+        lblStatus.setText("Searching…");
+        pendingSearch = SEARCHES.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                List<Student> results = searchCache.search(query);
+                SEARCH_TIME.recordSince(start);
+                Platform.runLater(() -> {
+                    if (generation != searchGeneration) return; // superseded while running
+                    rows.setAll(results);
+                    lblStatus.setText(query.isEmpty()
+                            ? "Showing " + results.size() + " student(s)."
+                            : results.size() + " result(s) for '" + query + "'.");
+                });
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Search failed: " + query, e);
+                Platform.runLater(() -> {
+                    if (generation == searchGeneration) lblStatus.setText("Search failed.");
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the search in progress: a pending debounce, a query still queued (cancelled)
+     * and one already running (its results are ignored). A JDBC call cannot be
+     * interrupted safely on the shared connection, so a running query is left to finish.
+     */
+    private void supersedeSearch() {
+        searchDebounce.stop();
+        if (pendingSearch != null) pendingSearch.cancel(false);
+        searchGeneration++;
     }
 
     @FXML
@@ -136,8 +237,12 @@ public class StudentsController {
         Integer level    = cbLevel.getValue();
         String status    = cbStatus.getValue();
 
-        List<Student> results = studentService.filterStudents(programme, level, status);
-        tblStudents.setItems(FXCollections.observableArrayList(results));
+        supersedeSearch();
+        if (index == null) return; // not loaded yet: showData() applies the filter
+        long start = System.nanoTime();
+        List<Student> results = index.filter(programme, level, status);
+        rows.setAll(results);
+        FILTER_TIME.recordSince(start);
         lblStatus.setText("Filter applied: " + results.size() + " student(s).");
     }
 
@@ -147,7 +252,7 @@ public class StudentsController {
         cbProgramme.setValue(null);
         cbLevel.setValue(null);
         cbStatus.setValue(null);
-        refreshTable();
+        refreshTable(); // dataQuery() also cancels the search that clearing txtSearch just scheduled
     }
 
     // ── Form: Add / Edit ──────────────────────────────────────────────────────
@@ -199,17 +304,22 @@ public class StudentsController {
         try {
             Student s = buildStudentFromForm();
 
-            if (editMode) {
-                studentService.updateStudent(s);
-                lblStatus.setText("Student updated: " + s.getStudentId());
-            } else {
-                studentService.addStudent(s);
-                lblStatus.setText("Student added: " + s.getStudentId());
+            FxBlockingEvent blocking = new FxBlockingEvent("Students.save");
+            blocking.begin();
+            try {
+                if (editMode) {
+                    studentService.updateStudent(s);
+                } else {
+                    studentService.addStudent(s);
+                }
+            } finally {
+                blocking.commit();
             }
+            note = (editMode ? "Student updated: " : "Student added: ") + s.getStudentId() + ".";
+            lblStatus.setText(note);
 
             hideForm();
             refreshTable();
-            refreshProgrammeFilter();
 
         } catch (IllegalArgumentException e) {
             lblFormError.setText(e.getMessage());
@@ -279,10 +389,16 @@ public class StudentsController {
 
         if (result.isPresent() && result.get() == ButtonType.YES) {
             try {
-                studentService.deleteStudent(selected.getStudentId());
+                FxBlockingEvent blocking = new FxBlockingEvent("Students.delete");
+                blocking.begin();
+                try {
+                    studentService.deleteStudent(selected.getStudentId());
+                } finally {
+                    blocking.commit();
+                }
+                note = "Deleted: " + selected.getStudentId() + ".";
+                lblStatus.setText(note);
                 refreshTable();
-                refreshProgrammeFilter();
-                lblStatus.setText("Deleted: " + selected.getStudentId());
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Error deleting student", e);
                 showAlert(Alert.AlertType.ERROR, "Delete Failed", "Could not delete student.");
@@ -0,0 +1,184 @@
+package com.sms.ui.controllers;
+
+import com.sms.util.AppLogger;
+import com.sms.util.JfrEvents;
+import com.sms.util.LatencyHistogram;
+import com.sms.util.LogCategory;
+import com.sms.util.Metrics;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Shows the screens in the main window's content area. Each FXML file is parsed once,
+ * on a background thread (at start-up for the preloaded ones), and the view and its
+ * controller are kept and reused on every later visit. Until a view is parsed the
+ * content area shows a loading indicator.
+ *
+ * Controllers that implement DataView get their data reloaded each time they are shown:
+ * the cached view appears at once with its previous data under a small indicator, and
+ * the query runs on a background thread. Only the latest navigation wins; a view that
+ * finishes parsing after the user has moved on is cached but not shown.
+ *
+ * All methods must be called on the FX thread.
+ */
+public final class ViewManager {
+
+    private static final String FXML_DIR = "/com/sms/ui/";
+    private static final LatencyHistogram LOAD_VIEW_TIME = Metrics.timer("ui.loadView");
+    private static final LatencyHistogram VIEW_DATA_TIME = Metrics.timer("ui.viewData");
+
+    private final StackPane contentArea;
+    private final Map<String, CompletableFuture<LoadedView>> views = new ConcurrentHashMap<>();
+    private final ExecutorService parser = Executors.newSingleThreadExecutor(daemon("view-loader"));
+    private final ExecutorService queries = Executors.newSingleThreadExecutor(daemon("view-data"));
+    private final ProgressIndicator loading = new ProgressIndicator();
+    private long navigation; // incremented by every show(); stale callbacks compare against it
+
+    private record LoadedView(String name, Node root, Object controller) {}
+
+    public ViewManager(StackPane contentArea) {
+        this.contentArea = contentArea;
+        contentArea.getProperties().put(ViewManager.class, this);
+        loading.setMaxSize(48, 48);
+        loading.setMouseTransparent(true);
+    }
+
+    /** The manager of the window containing the node, e.g. for the dashboard's quick actions. */
+    public static ViewManager of(Node node) {
+        Node area = node.getScene() == null ? null : node.getScene().lookup("#contentArea");
+        return area == null ? null : (ViewManager) area.getProperties().get(ViewManager.class);
+    }
+
+    /** Starts parsing the views in the background so that their first visit is instant. */
+    public void preload(String... fxmlFileNames) {
+        for (String name : fxmlFileNames) load(name);
+    }
+
+    public void show(String fxmlFileName) {
+        show(fxmlFileName, null);
+    }
+
+    /**
+     * Shows the view, parsing it first if needed, and reloads its data if it is a DataView.
+     *
+     * @param onShown receives the view's controller once the view is in place (may be null)
+     */
+    @SuppressWarnings("unchecked")
+    public <C> void show(String fxmlFileName, Consumer<C> onShown) {
+        long nav = ++navigation;
+        CompletableFuture<LoadedView> future = load(fxmlFileName);
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            attach(future.join(), nav, (Consumer<Object>) onShown);
+            return;
+        }
+        contentArea.getChildren().setAll(loading);
+        future.whenComplete((view, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                views.remove(fxmlFileName, future); // try again on the next visit
+                AppLogger.error(LogCategory.UI, "Failed to load view {}: {}", fxmlFileName, rootCause(error));
+            }
+            if (nav != navigation) return; // the user has moved on
+            if (error != null) {
+                contentArea.getChildren().setAll(new Label("⚠️ Could not open this screen: " + rootCause(error)));
+            } else {
+                attach(view, nav, (Consumer<Object>) onShown);
+            }
+        }));
+    }
+
+    /**
+     * Reloads the data of the view on screen, e.g. after it saved a change: the query runs
+     * in the background as on show(), under the same loading indicator.
+     */
+    public void reload(DataView<?> view) {
+        reload(view.getClass().getSimpleName(), view, navigation);
+    }
+
+    // ── Loading ───────────────────────────────────────────────────────────────
+
+    private CompletableFuture<LoadedView> load(String fxmlFileName) {
+        return views.computeIfAbsent(fxmlFileName,
+                name -> CompletableFuture.supplyAsync(() -> parse(name), parser));
+    }
+
+    /** Runs on the loader thread: FXML parsing and the controller's initialize(). */
+    private static LoadedView parse(String fxmlFileName) {
+        long start = System.nanoTime();
+        URL url = ViewManager.class.getResource(FXML_DIR + fxmlFileName);
+        if (url == null) throw new IllegalArgumentException("FXML file not found: " + fxmlFileName);
+        FXMLLoader loader = new FXMLLoader(url);
+        JfrEvents.ViewLoadEvent event = new JfrEvents.ViewLoadEvent(fxmlFileName);
+        event.begin();
+        try {
+            Node root = loader.load();
+            LOAD_VIEW_TIME.recordSince(start);
+            Metrics.timer("ui.loadView." + fxmlFileName.replace(".fxml", "")).recordSince(start);
+            return new LoadedView(fxmlFileName, root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void attach(LoadedView view, long nav, Consumer<Object> onShown) {
+        if (view.controller() instanceof DataView<?> dataView) {
+            contentArea.getChildren().setAll(view.root(), loading);
+            reload(view.name(), dataView, nav);
+        } else {
+            contentArea.getChildren().setAll(view.root());
+        }
+        if (onShown != null) onShown.accept(view.controller());
+    }
+
+    private <T> void reload(String name, DataView<T> view, long nav) {
+        if (!contentArea.getChildren().contains(loading)) contentArea.getChildren().add(loading);
+        Callable<T> query = view.dataQuery();
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, queries).whenComplete((data, error) -> Platform.runLater(() -> {
+            VIEW_DATA_TIME.recordSince(start);
+            if (nav == navigation) contentArea.getChildren().remove(loading);
+            if (error != null) {
+                AppLogger.error(LogCategory.UI, "Loading data for {} failed: {}", name, rootCause(error));
+            } else {
+                view.showData(data); // also when hidden meanwhile: the cached view stays current
+            }
+        }));
+    }
+
+    private static String rootCause(Throwable t) {
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage() != null ? t.getMessage() : t.toString();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -4,36 +4,253 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 /**
  * Simple file-based logger.
  * Writes timestamped log lines to data/app.log.
  * Personal student data is never logged – only IDs and action summaries.
+ *
+ * Logging is asynchronous: info()/warn()/error() put the message in a bounded lock-free
+ * ring (LogRing) and return. One background thread keeps data/app.log open, formats
+ * records in batches and writes each batch with a single FileChannel write. What
+ * happens when the ring is full is set by the overflow policy (sms.log.overflow):
+ *   BLOCK  the caller waits for space (default; nothing is lost)
+ *   DROP   the message is discarded and counted (getDroppedCount())
+ *   COUNT  as DROP, and the writer logs how many messages were dropped
+ * Call flush() to wait for everything logged so far, and shutdown() on exit.
+ *
+ * app.log rolls when it would pass sms.log.maxSizeMb or when the date changes. Rolled
+ * segments are gzipped in the background with a time index (LogSegments), and old ones
+ * are deleted according to sms.log.maxFiles / sms.log.maxAgeDays. Use LogSearch to find
+ * lines in a time window. With -Dsms.log.format=json each line is a JSON object with
+ * ts, level, category, event and, for event() calls, studentId and durationMs. See LogConfig.
+ *
+ * Each LogCategory has its own threshold (sms.log.level.repository=WARN etc., falling
+ * back to sms.log.level, default INFO). The category overloads take {} patterns or a
+ * Supplier, so a call below the threshold returns after one comparison without building
+ * its message; {} arguments are substituted on the writer thread.
  */
 public class AppLogger {
 
+    public enum OverflowPolicy { BLOCK, DROP, COUNT }
+
     private static final String LOG_FILE = "data" + File.separator + "app.log";
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BATCH_LINES = 1024;
+    private static final int BATCH_CHARS = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private static volatile OverflowPolicy overflowPolicy = policyFromProperty();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile Writer writer;
+    private static boolean shutDown;
 
     private AppLogger() {}
 
     public static void info(String message) {
-        write("INFO ", message);
+        log(LogCategory.GENERAL, LogLevel.INFO, message, null, null, 0);
     }
 
     public static void warn(String message) {
-        write("WARN ", message);
+        log(LogCategory.GENERAL, LogLevel.WARN, message, null, null, 0);
     }
 
     public static void error(String message) {
-        write("ERROR", message);
+        log(LogCategory.GENERAL, LogLevel.ERROR, message, null, null, 0);
+    }
+
+    // ── Category / lazy overloads ─────────────────────────────────────────────
+    //
+    // Patterns use {} placeholders, filled in on the writer thread, so a disabled call
+    // costs one threshold check and an enabled one never builds the string on the
+    // caller's thread. Pass values (IDs, counts, messages), not objects that change later.
+
+    public static boolean isEnabled(LogCategory category, LogLevel level) {
+        return level.ordinal() >= category.threshold.ordinal();
+    }
+
+    public static void debug(LogCategory c, String message)                      { log(c, LogLevel.DEBUG, message, null, null, 0); }
+    public static void debug(LogCategory c, String pattern, Object arg)          { log(c, LogLevel.DEBUG, pattern, arg, null, 1); }
+    public static void debug(LogCategory c, String pattern, Object a1, Object a2) { log(c, LogLevel.DEBUG, pattern, a1, a2, 2); }
+    public static void debug(LogCategory c, String pattern, Object... args)      { logArray(c, LogLevel.DEBUG, pattern, args); }
+    public static void debug(LogCategory c, Supplier<String> message)            { logSupplied(c, LogLevel.DEBUG, message); }
+
+    public static void info(LogCategory c, String message)                       { log(c, LogLevel.INFO, message, null, null, 0); }
+    public static void info(LogCategory c, String pattern, Object arg)           { log(c, LogLevel.INFO, pattern, arg, null, 1); }
+    public static void info(LogCategory c, String pattern, Object a1, Object a2) { log(c, LogLevel.INFO, pattern, a1, a2, 2); }
+    public static void info(LogCategory c, String pattern, Object... args)       { logArray(c, LogLevel.INFO, pattern, args); }
+    public static void info(LogCategory c, Supplier<String> message)             { logSupplied(c, LogLevel.INFO, message); }
+
+    public static void warn(LogCategory c, String message)                       { log(c, LogLevel.WARN, message, null, null, 0); }
+    public static void warn(LogCategory c, String pattern, Object arg)           { log(c, LogLevel.WARN, pattern, arg, null, 1); }
+    public static void warn(LogCategory c, String pattern, Object a1, Object a2) { log(c, LogLevel.WARN, pattern, a1, a2, 2); }
+    public static void warn(LogCategory c, String pattern, Object... args)       { logArray(c, LogLevel.WARN, pattern, args); }
+    public static void warn(LogCategory c, Supplier<String> message)             { logSupplied(c, LogLevel.WARN, message); }
+
+    public static void error(LogCategory c, String message)                       { log(c, LogLevel.ERROR, message, null, null, 0); }
+    public static void error(LogCategory c, String pattern, Object arg)           { log(c, LogLevel.ERROR, pattern, arg, null, 1); }
+    public static void error(LogCategory c, String pattern, Object a1, Object a2) { log(c, LogLevel.ERROR, pattern, a1, a2, 2); }
+    public static void error(LogCategory c, String pattern, Object... args)       { logArray(c, LogLevel.ERROR, pattern, args); }
+    public static void error(LogCategory c, Supplier<String> message)             { logSupplied(c, LogLevel.ERROR, message); }
+
+    /**
+     * Structured INFO record, e.g. event(REPOSITORY, "Student added", id, 3). In the text
+     * format this reads "Student added: ID=STU0001 (3 ms)"; in JSON the parts are separate
+     * fields. Pass null / -1 to leave out the student ID / duration.
+     */
+    public static void event(LogCategory category, String event, String studentId, long durationMillis) {
+        if (isEnabled(category, LogLevel.INFO)) {
+            write(category, LogLevel.INFO, event, null, null, 0, studentId, durationMillis);
+        }
+    }
+
+    public static void setLevel(LogCategory category, LogLevel threshold) {
+        category.threshold = threshold;
+    }
+
+    public static LogLevel getLevel(LogCategory category) {
+        return category.threshold;
+    }
+
+    // ── Control ───────────────────────────────────────────────────────────────
+
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /** Messages discarded because the ring was full (DROP / COUNT policies). */
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Waits (up to 5 s) until everything logged before this call is in the file. */
+    public static void flush() {
+        Writer w = writer;
+        if (w != null) w.awaitWritten(w.ring.produced());
     }
 
-    private static void write(String level, String message) {
+    /**
+     * Writes out everything still queued, stops the writer thread and closes the file.
+     * Anything logged afterwards is written synchronously, as before.
+     */
+    public static void shutdown() {
+        Writer w;
+        synchronized (AppLogger.class) {
+            w = writer;
+            writer = null;
+            shutDown = true;
+        }
+        if (w != null) w.stop();
+    }
+
+    /** Replaces the writer (tests use this to log to a temp file with a small ring). */
+    static synchronized void restart(Path file, int capacity, boolean console) {
+        LogConfig defaults = LogConfig.fromSystemProperties(file);
+        restart(new LogConfig(file, capacity, console, defaults.maxBytes(), defaults.rollDaily(),
+                defaults.maxFiles(), defaults.maxAgeDays(), defaults.json()));
+    }
+
+    static synchronized void restart(LogConfig config) {
+        if (writer != null) writer.stop();
+        dropped.set(0);
+        shutDown = false;
+        writer = new Writer(config);
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static void log(LogCategory c, LogLevel level, String message, Object a1, Object a2, int argCount) {
+        if (isEnabled(c, level)) write(c, level, message, a1, a2, argCount, null, -1);
+    }
+
+    private static void logArray(LogCategory c, LogLevel level, String pattern, Object[] args) {
+        if (isEnabled(c, level)) {
+            write(c, level, appendPattern(new StringBuilder(), pattern, args).toString(), null, null, 0, null, -1);
+        }
+    }
+
+    private static void logSupplied(LogCategory c, LogLevel level, Supplier<String> message) {
+        if (isEnabled(c, level)) write(c, level, message.get(), null, null, 0, null, -1);
+    }
+
+    private static void write(LogCategory category, LogLevel level, String message, Object a1, Object a2,
+                              int argCount, String studentId, long durationMillis) {
+        Writer w = writer != null ? writer : startWriter();
+        long now = System.currentTimeMillis();
+        if (w == null) {
+            writeDirect(category, now, level, message, a1, a2, argCount, studentId, durationMillis);
+            return;
+        }
+        if (w.ring.offer(now, level.label, category, message, a1, a2, argCount, studentId, durationMillis)) {
+            w.wake();
+            return;
+        }
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            dropped.incrementAndGet();
+            return;
+        }
+        while (!w.ring.offer(now, level.label, category, message, a1, a2, argCount, studentId, durationMillis)) {
+            if (w.stopped) {
+                writeDirect(category, now, level, message, a1, a2, argCount, studentId, durationMillis);
+                return;
+            }
+            w.wake();
+            LockSupport.parkNanos(50_000);
+        }
+        w.wake();
+    }
+
+    private static OverflowPolicy policyFromProperty() {
+        String value = System.getProperty("sms.log.overflow", "BLOCK");
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown sms.log.overflow '" + value + "', using BLOCK");
+            return OverflowPolicy.BLOCK;
+        }
+    }
+
+    private static synchronized Writer startWriter() {
+        if (writer == null && !shutDown) {
+            writer = new Writer(LogConfig.fromSystemProperties(Path.of(LOG_FILE)));
+        }
+        return writer;
+    }
+
+    private static void writeDirect(LogCategory category, long time, LogLevel level, String message,
+                                    Object a1, Object a2, int argCount, String studentId, long durationMillis) {
+        String stamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()).format(FMT);
+        StringBuilder line = new StringBuilder().append('[').append(stamp).append("] ");
+        appendText(line, level.label, category, message, a1, a2, argCount, studentId, durationMillis);
+        writeDirect(line.toString());
+    }
+
+    /** The original synchronous path, used after shutdown(). */
+    private static synchronized void writeDirect(String line) {
         new File("data").mkdirs();
-        String line = "[" + LocalDateTime.now().format(FMT) + "] [" + level + "] " + message;
 
         // Also print to console so IntelliJ shows it
         System.out.println(line);
@@ -44,4 +261,265 @@ public class AppLogger {
             System.err.println("Logger could not write to file: " + e.getMessage());
         }
     }
+
+    /** "[LEVEL] [category] message: ID=... (n ms)" – everything after the timestamp. */
+    private static void appendText(StringBuilder out, String level, LogCategory category, String message,
+                                   Object a1, Object a2, int argCount, String studentId, long durationMillis) {
+        out.append('[').append(level).append("] ");
+        if (category != LogCategory.GENERAL) out.append('[').append(category.label).append("] ");
+        appendMessage(out, message, a1, a2, argCount);
+        if (studentId != null) out.append(": ID=").append(studentId);
+        if (durationMillis >= 0) out.append(" (").append(durationMillis).append(" ms)");
+    }
+
+    private static StringBuilder appendMessage(StringBuilder out, String message, Object a1, Object a2, int argCount) {
+        return switch (argCount) {
+            case 0  -> out.append(message);
+            case 1  -> appendPattern(out, message, a1);
+            default -> appendPattern(out, message, a1, a2);
+        };
+    }
+
+    /** Replaces each {} in the pattern with the next argument; extra {} are left as they are. */
+    static StringBuilder appendPattern(StringBuilder out, String pattern, Object... args) {
+        int from = 0, next = 0;
+        int at;
+        while (next < args.length && (at = pattern.indexOf("{}", from)) >= 0) {
+            out.append(pattern, from, at).append(args[next++]);
+            from = at + 2;
+        }
+        return out.append(pattern, from, pattern.length());
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"'  -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /** The background thread: drains the ring in batches into one open FileChannel. */
+    private static final class Writer implements Runnable {
+        final LogRing ring;
+        final Thread thread;
+        private final LogConfig config;
+        private final Path file;
+        private final ExecutorService compressor;
+        private FileChannel channel;
+        private long size;
+        private long segmentDay;
+        private final StringBuilder text = new StringBuilder(64 * 1024);
+        private volatile boolean sleeping;
+        private volatile boolean stopping;
+        volatile boolean stopped;
+        private volatile long written;      // records the ring has handed over to the file
+        private long reportedDrops;
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedStamp;
+
+        Writer(LogConfig config) {
+            this.config = config;
+            this.ring = new LogRing(config.capacity());
+            this.file = config.file();
+            this.compressor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "app-logger-compress");
+                t.setDaemon(true);
+                return t;
+            });
+            this.thread = new Thread(this, "app-logger");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void wake() {
+            if (sleeping) LockSupport.unpark(thread);
+        }
+
+        void awaitWritten(long target) {
+            long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+            while (written < target && !stopped && System.currentTimeMillis() < deadline) {
+                LockSupport.unpark(thread);
+                LockSupport.parkNanos(100_000);
+            }
+        }
+
+        void stop() {
+            stopping = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(FLUSH_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!thread.isAlive()) {
+                // A producer may have slipped a record in after the thread's last pass
+                while (drain() > 0) emit();
+                closeChannel();
+            }
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    if (drain() > 0) {
+                        emit();
+                        continue;
+                    }
+                    if (stopping) break;
+                    sleeping = true;
+                    if (ring.peek() == null && !stopping) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    sleeping = false;
+                }
+            } finally {
+                stopped = true;
+            }
+        }
+
+        /** Formats up to BATCH_LINES records (or about 64 KB) into the text buffer; returns how many. */
+        private int drain() {
+            int n = 0;
+            LogRing.Slot slot;
+            while (n < BATCH_LINES && text.length() < BATCH_CHARS && (slot = ring.peek()) != null) {
+                appendLine(slot.time, slot.level, slot.category, slot.message, slot.arg1, slot.arg2,
+                        slot.argCount, slot.studentId, slot.durationMillis);
+                ring.release();
+                n++;
+            }
+            if (overflowPolicy == OverflowPolicy.COUNT) {
+                long drops = dropped.get();
+                if (drops > reportedDrops) {
+                    appendLine(System.currentTimeMillis(), LogLevel.WARN.label, LogCategory.GENERAL,
+                            "{} log messages dropped (log buffer full)", drops - reportedDrops, null, 1, null, -1);
+                    reportedDrops = drops;
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        private void appendLine(long time, String level, LogCategory category, String message, Object a1, Object a2,
+                                int argCount, String studentId, long durationMillis) {
+            if (config.json()) {
+                text.append("{\"ts\":\"").append(Instant.ofEpochMilli(time)).append("\",\"level\":\"")
+                    .append(level.trim()).append("\",\"category\":\"").append(category.label).append("\",\"event\":");
+                appendJsonString(text, argCount == 0 ? message : appendMessage(new StringBuilder(), message, a1, a2, argCount).toString());
+                if (studentId != null) {
+                    text.append(",\"studentId\":");
+                    appendJsonString(text, studentId);
+                }
+                if (durationMillis >= 0) text.append(",\"durationMs\":").append(durationMillis);
+                text.append('}').append(System.lineSeparator());
+                return;
+            }
+            long second = time / 1000;
+            if (second != cachedSecond) {
+                cachedStamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault()).format(FMT);
+                cachedSecond = second;
+            }
+            text.append('[').append(cachedStamp).append("] ");
+            appendText(text, level, category, message, a1, a2, argCount, studentId, durationMillis);
+            text.append(System.lineSeparator());
+        }
+
+        private void emit() {
+            String batch = text.toString();
+            text.setLength(0);
+            if (config.console()) System.out.print(batch);
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+                if (channel == null) {
+                    open();
+                } else if (needsRoll(bytes.remaining())) {
+                    roll();
+                }
+                while (bytes.hasRemaining()) size += channel.write(bytes);
+            } catch (IOException e) {
+                System.err.println("Logger could not write to file: " + e.getMessage());
+                closeChannel();
+            }
+            written = ring.consumed();
+        }
+
+        // ── Rolling ───────────────────────────────────────────────────────────
+
+        /** Opens app.log for appending, first rolling away a leftover file from an earlier day. */
+        private void open() throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (config.rollDaily() && Files.exists(file) && Files.size(file) > 0
+                    && epochDay(Files.getLastModifiedTime(file).toMillis()) != today()) {
+                rollFile();
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            size = channel.size();
+            segmentDay = today();
+            compressor.execute(this::housekeeping); // segments left uncompressed by an earlier run
+        }
+
+        private boolean needsRoll(int incoming) {
+            if (size == 0) return false;
+            return (config.maxBytes() > 0 && size + incoming > config.maxBytes())
+                || (config.rollDaily() && today() != segmentDay);
+        }
+
+        private void roll() throws IOException {
+            closeChannel();
+            rollFile();
+            open();
+        }
+
+        private void rollFile() throws IOException {
+            Path rolled = LogSegments.rolledName(file, System.currentTimeMillis());
+            Files.move(file, rolled);
+        }
+
+        /** Compresses rolled plain segments and applies retention (compressor thread). */
+        private void housekeeping() {
+            try {
+                for (Path segment : LogSegments.rolledSegments(file)) {
+                    if (!segment.toString().endsWith(LogSegments.GZ)) LogSegments.compress(segment);
+                }
+                LogSegments.enforceRetention(file, config.maxFiles(), config.maxAgeDays());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Logger could not compress rolled logs: " + e.getMessage());
+            }
+        }
+
+        private static long today() {
+            return LocalDate.now().toEpochDay();
+        }
+
+        private static long epochDay(long millis) {
+            return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).toEpochDay();
+        }
+
+        private void closeChannel() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Logger could not close the log file: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
 }
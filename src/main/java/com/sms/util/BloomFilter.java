@@ -0,0 +1,70 @@
+package com.sms.util;
+
+/**
+ * Fixed-size Bloom filter for string keys.
+ * mightContain() never gives a false negative; false positives happen at roughly the
+ * rate the filter was sized for, so a positive must be confirmed by an exact lookup.
+ */
+public class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedItems number of keys the filter should hold at the target rate
+     * @param falsePositiveRate e.g. 0.01 for about 1% false positives
+     */
+    public BloomFilter(long expectedItems, double falsePositiveRate) {
+        long n = Math.max(1, expectedItems);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(64, Math.min(bits, (long) Integer.MAX_VALUE * 64));
+        this.words = new long[(int) ((bits + 63) / 64)];
+        this.bitCount = (long) words.length * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * ln2));
+    }
+
+    public void add(CharSequence key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) * 0x9E3779B97F4A7C15L >>> 1;
+            bit %= bitCount;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) * 0x9E3779B97F4A7C15L >>> 1;
+            bit %= bitCount;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Approximate memory used by the bit array, in bytes. */
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /** 64-bit FNV-1a over the chars, finished with the MurmurHash3 mixer for better bit spread. */
+    private static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -3,44 +3,80 @@ package com.sms.util;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Manages the SQLite database connection and schema creation.
- * Uses a single shared connection (singleton-style).
+ * Manages the SQLite database connections and schema creation.
+ *
+ * Reads and single statements use one shared connection in auto-commit mode.
+ * inTransaction() runs on a second, dedicated connection, one transaction at a time, and
+ * binds it to the calling thread; statements from any other thread keep going through
+ * the shared connection and so never join (or get rolled back with) a running import
+ * batch. The database is in WAL mode so readers are not blocked by a transaction.
  */
 public class DatabaseManager {
 
     private static final String DATA_DIR  = "data";
     private static final String DB_FILE   = DATA_DIR + File.separator + "students.db";
+    /** Overrides the database file, e.g. for benchmarks on a seeded copy. Read on each (re)connect. */
+    public static final String DB_PATH_PROPERTY = "sms.db.path";
+    /** How long a statement waits for another connection's write lock before failing. */
+    private static final int BUSY_TIMEOUT_MS = 10_000;
     private static Connection connection;
+    private static Connection transactionConnection;
+    private static final ReentrantLock TRANSACTION_LOCK = new ReentrantLock();
+    private static final ThreadLocal<Connection> TRANSACTION = new ThreadLocal<>();
 
     // Private constructor – no instances needed
     private DatabaseManager() {}
 
     /**
-     * Returns the shared SQLite connection, creating it if needed.
+     * Returns the connection of the transaction running on this thread, if any, else the
+     * shared SQLite connection, creating it if needed.
+     * Statements run through it are timed by SlowQueryLog.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            // Make sure the data folder exists
-            new File(DATA_DIR).mkdirs();
-
-            connection = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
-            connection.setAutoCommit(true);
+        Connection tx = TRANSACTION.get();
+        return tx != null ? tx : sharedConnection();
+    }
 
-            AppLogger.info("Database connection opened: " + DB_FILE);
+    /** Synchronized so that threads asking at the same time cannot open it twice. */
+    private static synchronized Connection sharedConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = open();
             createSchema(connection);
         }
         return connection;
     }
 
+    private static Connection open() throws SQLException {
+        // Make sure the data folder exists
+        File dbFile = new File(System.getProperty(DB_PATH_PROPERTY, DB_FILE));
+        dbFile.getAbsoluteFile().getParentFile().mkdirs();
+
+        Connection conn = SlowQueryLog.wrap(DriverManager.getConnection("jdbc:sqlite:" + dbFile.getPath()));
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+        AppLogger.info("Database connection opened: " + dbFile.getPath());
+        return conn;
+    }
+
     /**
-     * Creates the students table if it does not already exist.
-     * All constraints are enforced at the database level.
+     * Creates the students, change-tracking and import_checkpoints tables if they do not
+     * already exist. All constraints are enforced at the database level.
+     *
+     * Every write to students takes the next value from change_sequence and stores it in
+     * modified_seq; deletes leave a row in student_tombstones. Both are indexed so a delta
+     * export only touches the rows changed since its watermark.
      */
     private static void createSchema(Connection conn) throws SQLException {
+        // ValidationRules.SCHEMA_LEVELS / SCHEMA_GPA_* mirror the level and gpa CHECKs
         String sql = """
                 CREATE TABLE IF NOT EXISTS students (
                     student_id   TEXT    PRIMARY KEY NOT NULL,
@@ -51,22 +87,148 @@ public class DatabaseManager {
                     email        TEXT    NOT NULL,
                     phone_number TEXT    NOT NULL,
                     date_added   TEXT    NOT NULL,
-                    status       TEXT    NOT NULL DEFAULT 'Active'
+                    status       TEXT    NOT NULL DEFAULT 'Active',
+                    modified_seq INTEGER NOT NULL DEFAULT 0
+                );
+                """;
+        String sequence = """
+                CREATE TABLE IF NOT EXISTS change_sequence (
+                    id    INTEGER PRIMARY KEY CHECK(id = 1),
+                    value INTEGER NOT NULL
+                );
+                """;
+        String tombstones = """
+                CREATE TABLE IF NOT EXISTS student_tombstones (
+                    student_id  TEXT    PRIMARY KEY NOT NULL,
+                    deleted_seq INTEGER NOT NULL
+                );
+                """;
+        String watermarks = """
+                CREATE TABLE IF NOT EXISTS export_watermarks (
+                    target      TEXT    PRIMARY KEY NOT NULL,
+                    last_seq    INTEGER NOT NULL,
+                    exported_at TEXT    NOT NULL
+                );
+                """;
+        String checkpoints = """
+                CREATE TABLE IF NOT EXISTS import_checkpoints (
+                    fingerprint   TEXT    PRIMARY KEY NOT NULL,
+                    file_path     TEXT    NOT NULL,
+                    byte_offset   INTEGER NOT NULL,
+                    line_number   INTEGER NOT NULL,
+                    rows_imported INTEGER NOT NULL,
+                    error_count   INTEGER NOT NULL,
+                    updated_at    TEXT    NOT NULL
                 );
                 """;
         try (Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
+            stmt.execute(sequence);
+            stmt.execute("INSERT OR IGNORE INTO change_sequence (id, value) VALUES (1, 0)");
+            addModifiedSeqColumn(stmt);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_students_modified_seq ON students(modified_seq)");
+            stmt.execute(tombstones);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_tombstones_deleted_seq ON student_tombstones(deleted_seq)");
+            stmt.execute(watermarks);
+            stmt.execute(checkpoints);
             AppLogger.info("Database schema verified/created.");
         }
     }
 
+    /**
+     * Databases created before change tracking lack students.modified_seq. Existing rows are
+     * numbered by rowid and the sequence continues after them, so the first delta export
+     * includes every row.
+     */
+    private static void addModifiedSeqColumn(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(students)")) {
+            while (rs.next()) {
+                if ("modified_seq".equals(rs.getString("name"))) return;
+            }
+        }
+        stmt.execute("ALTER TABLE students ADD COLUMN modified_seq INTEGER NOT NULL DEFAULT 0");
+        stmt.execute("UPDATE students SET modified_seq = rowid");
+        stmt.execute("UPDATE change_sequence SET value = (SELECT COALESCE(MAX(modified_seq), 0) FROM students)");
+        AppLogger.info("Database migrated: added students.modified_seq.");
+    }
+
+    /**
+     * Runs the work as one transaction on the transaction connection: commits if it returns
+     * normally, rolls back and rethrows if it throws. Repository calls made inside the
+     * work, on this thread, take part automatically because getConnection() returns that
+     * connection to them. Transactions from other threads wait for this one to finish.
+     * A nested call joins the transaction already running on this thread.
+     */
+    public static void inTransaction(Runnable work) {
+        if (TRANSACTION.get() != null) {
+            work.run();
+            return;
+        }
+        TRANSACTION_LOCK.lock();
+        try {
+            Connection conn;
+            try {
+                conn = transactionConnection();
+                conn.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new RuntimeException("Could not start transaction: " + e.getMessage(), e);
+            }
+            TRANSACTION.set(conn);
+            try {
+                work.run();
+                conn.commit();
+            } catch (RuntimeException | SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                AppLogger.error("Transaction rolled back: " + e.getMessage());
+                if (e instanceof RuntimeException re) throw re;
+                throw new RuntimeException("Could not commit transaction: " + e.getMessage(), e);
+            } finally {
+                TRANSACTION.remove();
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    AppLogger.error("Could not restore auto-commit: " + e.getMessage());
+                }
+            }
+        } finally {
+            TRANSACTION_LOCK.unlock();
+        }
+    }
+
+    /** Called with TRANSACTION_LOCK held. The shared connection is opened first, for the schema. */
+    private static Connection transactionConnection() throws SQLException {
+        if (transactionConnection == null || transactionConnection.isClosed()) {
+            getConnection();
+            transactionConnection = open();
+        }
+        return transactionConnection;
+    }
+
     /**
      * Closes the connection cleanly on app shutdown.
      */
     public static void closeConnection() {
-        if (connection != null) {
+        TRANSACTION_LOCK.lock();
+        try {
+            close(transactionConnection);
+            transactionConnection = null;
+            synchronized (DatabaseManager.class) {
+                close(connection);
+                connection = null;
+            }
+        } finally {
+            TRANSACTION_LOCK.unlock();
+        }
+    }
+
+    private static void close(Connection conn) {
+        if (conn != null) {
             try {
-                connection.close();
+                conn.close();
                 AppLogger.info("Database connection closed.");
             } catch (SQLException e) {
                 AppLogger.error("Error closing database connection: " + e.getMessage());
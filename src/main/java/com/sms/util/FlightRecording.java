@@ -0,0 +1,88 @@
+package com.sms.util;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The optional always-on flight recording. With -Dsms.jfr=true the app records JVM and
+ * JfrEvents events continuously into a ring buffer on disk that keeps the last
+ * sms.jfr.maxAgeMin minutes (10) or sms.jfr.maxSizeMb megabytes (100), whichever is
+ * smaller. When a user reports a freeze, dump() (the Diagnostics screen's "Dump Flight
+ * Recording" button) writes that window to data/ as a .jfr file for JDK Mission Control.
+ *
+ * sms.jfr.settings picks the JFR configuration: "default" (about 1% overhead) or
+ * "profile" (more detail, a few percent).
+ */
+public final class FlightRecording {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static Recording recording;
+
+    private FlightRecording() {}
+
+    /** Starts the recording if -Dsms.jfr=true; does nothing otherwise. */
+    public static void startFromSystemProperties() {
+        if (!Boolean.getBoolean("sms.jfr")) return;
+        try {
+            start(System.getProperty("sms.jfr.settings", "default"),
+                    Duration.ofMinutes(Long.getLong("sms.jfr.maxAgeMin", 10)),
+                    Long.getLong("sms.jfr.maxSizeMb", 100) * 1024 * 1024);
+        } catch (IOException | ParseException | RuntimeException e) {
+            AppLogger.warn("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void start(String settings, Duration maxAge, long maxBytes)
+            throws IOException, ParseException {
+        if (isRunning()) return;
+        Recording r = new Recording(Configuration.getConfiguration(settings));
+        r.setName("sms-continuous");
+        r.setToDisk(true);
+        r.setMaxAge(maxAge);
+        r.setMaxSize(maxBytes);
+        r.enable(JfrEvents.RepositoryEvent.class);
+        r.enable(JfrEvents.CsvStageEvent.class);
+        r.enable(JfrEvents.ViewLoadEvent.class);
+        r.enable(JfrEvents.FxBlockingEvent.class);
+        r.start();
+        recording = r;
+        AppLogger.info("Flight recording started (" + settings + ", last " + maxAge.toMinutes() + " min kept).");
+    }
+
+    public static synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Writes what the ring buffer holds now to data/sms-&lt;time&gt;.jfr; recording continues.
+     * @throws IllegalStateException if no recording is running
+     */
+    public static synchronized Path dump() throws IOException {
+        return dump(Path.of("data", "sms-" + LocalDateTime.now().format(FILE_STAMP) + ".jfr"));
+    }
+
+    public static synchronized Path dump(Path file) throws IOException {
+        if (!isRunning()) throw new IllegalStateException("No flight recording is running (start the app with -Dsms.jfr=true)");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        recording.dump(file);
+        AppLogger.info("Flight recording dumped to " + file.toAbsolutePath());
+        return file;
+    }
+
+    /** Stops and discards the recording (on exit). */
+    public static synchronized void stop() {
+        if (recording == null) return;
+        recording.close();
+        recording = null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sms.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the app's own operations, shown under "SMS" in JDK
+ * Mission Control next to the JVM's GC, I/O and lock events.
+ *
+ * Event objects are cheap when no recording is running: begin()/commit() do nothing
+ * and the JIT removes the allocation, so they can stay in hot paths. See FlightRecording
+ * for the always-on recording started with -Dsms.jfr=true.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {}
+
+    /** One StudentRepository call (see InstrumentedStudentRepository). */
+    @Name("com.sms.Repository")
+    @Label("Repository Call")
+    @Category({"SMS", "Repository"})
+    @StackTrace(false)
+    public static final class RepositoryEvent extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Rows")
+        @Description("Rows returned or written, -1 if not applicable")
+        public long rows = -1;
+
+        @Label("Failed")
+        public boolean failed;
+
+        @Label("On FX Thread")
+        @Description("The call blocked the JavaFX application thread")
+        public boolean fxThread;
+    }
+
+    /**
+     * One stage of an import or export over a block of rows: "parse", "validate" or "write".
+     */
+    @Name("com.sms.CsvStage")
+    @Label("Import/Export Stage")
+    @Category({"SMS", "Import/Export"})
+    @StackTrace(false)
+    public static final class CsvStageEvent extends Event {
+        @Label("Stage")
+        public String stage;
+
+        @Label("File")
+        public String file;
+
+        @Label("Rows")
+        public long rows;
+
+        /** A started event for the stage; call finish() when the block is done. */
+        public static CsvStageEvent start(String stage, String file) {
+            CsvStageEvent event = new CsvStageEvent();
+            event.begin();
+            event.stage = stage;
+            event.file = file;
+            return event;
+        }
+
+        public void finish(long rows) {
+            this.rows = rows;
+            commit();
+        }
+    }
+
+    /** FXML parsing plus the controller's initialize(). */
+    @Name("com.sms.ViewLoad")
+    @Label("View Load")
+    @Category({"SMS", "UI"})
+    public static final class ViewLoadEvent extends Event {
+        @Label("View")
+        public String view;
+
+        public ViewLoadEvent(String view) {
+            this.view = view;
+        }
+    }
+
+    /**
+     * Work done on the JavaFX application thread that keeps it from painting, e.g. a
+     * database query behind a button. Long ones are what a user sees as a freeze.
+     */
+    @Name("com.sms.FxBlocking")
+    @Label("FX Thread Blocked")
+    @Category({"SMS", "UI"})
+    public static final class FxBlockingEvent extends Event {
+        @Label("Section")
+        public String section;
+
+        /** Call begin() right before the blocking call and commit() in a finally block after it. */
+        public FxBlockingEvent(String section) {
+            this.section = section;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sms.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds, bucketed the way HdrHistogram does it:
+ * values below 64 get a bucket each, and every power of two above that is split into
+ * 32 linear sub-buckets. Any recorded value is therefore reported within about 3%, the
+ * whole range up to Long.MAX_VALUE fits in under 2000 counters, and record() is a few
+ * shifts plus one atomic increment – cheap enough to wrap every repository call.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 64;               // values 0..63 are exact
+    private static final int SUB_BITS = 5;              // 32 sub-buckets per power of two
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (63 - 6) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(nanos));
+        total.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /** Records the time since startNanos (a System.nanoTime() value). */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /** A consistent-enough copy for reporting; recording carries on meanwhile. */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        return new Snapshot(copy, n, sum.sum(), max.get());
+    }
+
+    static int indexOf(long v) {
+        if (v < LINEAR) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);     // 6..62
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (v >>> shift) - SUB;                  // 0..31
+        return LINEAR + (exponent - 6) * SUB + sub;
+    }
+
+    /** Largest value that falls in the bucket, so percentiles never under-report. */
+    static long highestIn(int index) {
+        if (index < LINEAR) return index;
+        int i = index - LINEAR;
+        int exponent = i / SUB + 6;
+        int shift = exponent - SUB_BITS;
+        long sub = (i % SUB) + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long sumNanos;
+        public final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /** Value at the given percentile (0–100), in nanoseconds; 0 if nothing was recorded. */
+        public long percentile(double p) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(count * p / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+}
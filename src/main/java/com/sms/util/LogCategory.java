@@ -0,0 +1,38 @@
+package com.sms.util;
+
+import java.util.Locale;
+
+/**
+ * Area of the app a log record comes from, each with its own level threshold.
+ *
+ * Thresholds start from -Dsms.log.level.<name> (e.g. -Dsms.log.level.repository=WARN),
+ * then -Dsms.log.level, then INFO, and can be changed at runtime with AppLogger.setLevel().
+ */
+public enum LogCategory {
+    GENERAL("general"),
+    REPOSITORY("repository"),
+    CSV("csv"),
+    UI("ui");
+
+    final String label;
+    volatile LogLevel threshold;
+
+    LogCategory(String label) {
+        this.label = label;
+        this.threshold = levelFromProperty("sms.log.level." + label,
+                levelFromProperty("sms.log.level", LogLevel.INFO));
+    }
+
+    public String getLabel() { return label; }
+
+    private static LogLevel levelFromProperty(String key, LogLevel fallback) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown " + key + " '" + value + "', using " + fallback);
+            return fallback;
+        }
+    }
+}
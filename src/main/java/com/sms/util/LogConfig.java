@@ -0,0 +1,28 @@
+package com.sms.util;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for AppLogger's writer, read from system properties:
+ *   sms.log.buffer      ring capacity in records (8192)
+ *   sms.log.maxSizeMb   roll app.log once it would grow past this size (10; 0 = never)
+ *   sms.log.rollDaily   also roll when the date changes (true)
+ *   sms.log.maxFiles    rolled segments to keep (20; 0 = unlimited)
+ *   sms.log.maxAgeDays  delete rolled segments older than this (30; 0 = never)
+ *   sms.log.format      "text" (default) or "json" for one JSON object per line
+ *   sms.log.console     also echo log lines to standard output (true)
+ */
+record LogConfig(Path file, int capacity, boolean console, long maxBytes, boolean rollDaily,
+                 int maxFiles, int maxAgeDays, boolean json) {
+
+    static LogConfig fromSystemProperties(Path file) {
+        return new LogConfig(file,
+                Integer.getInteger("sms.log.buffer", 8192),
+                Boolean.parseBoolean(System.getProperty("sms.log.console", "true")),
+                Long.getLong("sms.log.maxSizeMb", 10) * 1024 * 1024,
+                Boolean.parseBoolean(System.getProperty("sms.log.rollDaily", "true")),
+                Integer.getInteger("sms.log.maxFiles", 20),
+                Integer.getInteger("sms.log.maxAgeDays", 30),
+                "json".equalsIgnoreCase(System.getProperty("sms.log.format", "text")));
+    }
+}
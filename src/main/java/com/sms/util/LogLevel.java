@@ -0,0 +1,17 @@
+package com.sms.util;
+
+/** Severity of a log record, lowest first. OFF is only used as a threshold. */
+public enum LogLevel {
+    DEBUG("DEBUG"),
+    INFO ("INFO "),
+    WARN ("WARN "),
+    ERROR("ERROR"),
+    OFF  ("OFF  ");
+
+    /** Fixed-width label used in text log lines. */
+    final String label;
+
+    LogLevel(String label) {
+        this.label = label;
+    }
+}
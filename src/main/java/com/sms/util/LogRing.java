@@ -0,0 +1,103 @@
+package com.sms.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of log records: many producers, one consumer (the writer thread).
+ *
+ * Each slot carries a sequence number saying whose turn it is. A producer claims the
+ * next position with one CAS and publishes the filled slot by bumping its sequence;
+ * the consumer frees a slot by moving its sequence one lap ahead. Slots are allocated
+ * once and reused, so logging allocates nothing beyond the message string itself.
+ */
+final class LogRing {
+
+    /** One log record. Fields are written by the producer before the slot is published. */
+    static final class Slot {
+        long time;
+        String level;
+        LogCategory category;
+        String message;         // a {} pattern when argCount > 0
+        Object arg1, arg2;
+        int argCount;
+        String studentId;       // structured fields; null / -1 when not given
+        long durationMillis;
+    }
+
+    private final int mask;
+    private final Slot[] slots;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer only
+
+    LogRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1; // next power of two
+        this.mask = size - 1;
+        this.slots = new Slot[size];
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequence.set(i, i);
+        }
+    }
+
+    int capacity() { return slots.length; }
+
+    /** Adds a record; false if the ring is full. */
+    boolean offer(long time, String level, String message) {
+        return offer(time, level, LogCategory.GENERAL, message, null, null, 0, null, -1);
+    }
+
+    boolean offer(long time, String level, LogCategory category, String message, Object arg1, Object arg2,
+                  int argCount, String studentId, long durationMillis) {
+        while (true) {
+            long t = tail.get();
+            int i = (int) t & mask;
+            long s = sequence.get(i);
+            if (s == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    Slot slot = slots[i];
+                    slot.time = time;
+                    slot.level = level;
+                    slot.category = category;
+                    slot.message = message;
+                    slot.arg1 = arg1;
+                    slot.arg2 = arg2;
+                    slot.argCount = argCount;
+                    slot.studentId = studentId;
+                    slot.durationMillis = durationMillis;
+                    sequence.set(i, t + 1);
+                    return true;
+                }
+            } else if (s < t) {
+                return false; // the consumer has not freed this slot yet
+            }
+            // else another producer took position t; try the next one
+        }
+    }
+
+    /** The consumer's next record, or null if none is ready. Call release() once it is used. */
+    Slot peek() {
+        int i = (int) head & mask;
+        return sequence.get(i) == head + 1 ? slots[i] : null;
+    }
+
+    void release() {
+        int i = (int) head & mask;
+        Slot slot = slots[i];
+        slot.level = null;
+        slot.message = null;
+        slot.arg1 = null;
+        slot.arg2 = null;
+        slot.studentId = null;
+        sequence.set(i, head + slots.length);
+        head++;
+    }
+
+    /** Number of records claimed so far by producers. */
+    long produced() { return tail.get(); }
+
+    /** Number of records the consumer has released (consumer thread only). */
+    long consumed() { return head; }
+}
@@ -0,0 +1,158 @@
+package com.sms.util;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Finds log lines in a time window across app.log and its rolled segments.
+ *
+ * Compressed segments are not decompressed as a whole: their .idx side file says which
+ * gzip members cover which times, so only the members that overlap the window are read.
+ * Segments last modified before the window starts are skipped without being opened.
+ * Works for both the text and the JSON log format.
+ */
+public class LogSearch {
+
+    private final Path liveLog;
+
+    public LogSearch(Path liveLog) {
+        this.liveLog = liveLog;
+    }
+
+    /**
+     * Sends every line logged between {@code from} and {@code to} (inclusive) that contains
+     * {@code text} (null = any) to {@code out}, oldest first.
+     *
+     * @return number of matching lines
+     */
+    public long search(Instant from, Instant to, String text, Consumer<String> out) throws IOException {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        Matcher m = new Matcher(fromMillis, toMillis, text, out);
+
+        List<Path> segments = new ArrayList<>(LogSegments.rolledSegments(liveLog));
+        if (Files.exists(liveLog)) segments.add(liveLog);
+        for (Path segment : segments) {
+            if (Files.getLastModifiedTime(segment).toMillis() < fromMillis - 1000) continue; // all older
+            if (segment.toString().endsWith(LogSegments.GZ)) {
+                searchCompressed(segment, m);
+            } else {
+                try (BufferedReader in = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                    m.scan(in);
+                }
+            }
+            if (m.pastWindow) break;
+        }
+        return m.matches;
+    }
+
+    /** Convenience form that collects up to {@code limit} lines. */
+    public List<String> search(Instant from, Instant to, String text, int limit) throws IOException {
+        List<String> lines = new ArrayList<>();
+        search(from, to, text, line -> {
+            if (lines.size() < limit) lines.add(line);
+        });
+        return lines;
+    }
+
+    private void searchCompressed(Path gz, Matcher m) throws IOException {
+        Path idx = LogSegments.indexFor(gz);
+        if (!Files.exists(idx)) {
+            try (BufferedReader in = reader(new GZIPInputStream(Files.newInputStream(gz), 64 * 1024))) {
+                m.scan(in);
+            }
+            return;
+        }
+        try (FileChannel ch = FileChannel.open(gz, StandardOpenOption.READ)) {
+            for (LogSegments.Block b : LogSegments.readIndex(idx)) {
+                if (b.lastMillis() < m.from) continue;
+                if (b.firstMillis() > m.to) {
+                    m.pastWindow = true;
+                    return;
+                }
+                ch.position(b.offset());
+                InputStream member = new BoundedInputStream(Channels.newInputStream(ch), b.length());
+                try (BufferedReader in = reader(new GZIPInputStream(member, 64 * 1024))) {
+                    m.scan(in); // closing ends the member's Inflater; the channel stays open
+                }
+            }
+        }
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /** Filters lines by timestamp and text; continuation lines inherit the previous timestamp. */
+    private static final class Matcher {
+        final long from, to;
+        final String text;
+        final Consumer<String> out;
+        long matches;
+        long lastTime = Long.MIN_VALUE;
+        boolean pastWindow;
+
+        Matcher(long from, long to, String text, Consumer<String> out) {
+            this.from = from;
+            this.to = to;
+            this.text = text;
+            this.out = out;
+        }
+
+        void scan(BufferedReader in) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lastTime = LogSegments.timestampOf(line, lastTime);
+                if (lastTime > to) {
+                    pastWindow = true;
+                    return;
+                }
+                if (lastTime >= from && (text == null || line.contains(text))) {
+                    out.accept(line);
+                    matches++;
+                }
+            }
+        }
+    }
+
+    /** Reads at most {@code remaining} bytes of the underlying stream, without closing it. */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // the channel is shared by all members of the segment
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.sms.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File handling for rolled log segments.
+ *
+ * When app.log rolls it is renamed to app-yyyyMMdd-HHmmss-SSS.log, and then compressed
+ * in the background to app-....log.gz. The .gz holds a series of gzip members, each about
+ * 64 KB of log lines. A side file, app-....idx, records for each member its byte offset,
+ * length and first/last timestamp. A reader can then decompress only the members that
+ * overlap a time window (see LogSearch), and any gzip tool still reads the whole file.
+ */
+final class LogSegments {
+
+    static final String GZ = ".gz";
+    static final String INDEX = ".idx";
+    private static final int BLOCK_BYTES = 64 * 1024;
+    private static final DateTimeFormatter ROLL_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private LogSegments() {}
+
+    /** One gzip member of a compressed segment. */
+    record Block(long offset, int length, long firstMillis, long lastMillis) {}
+
+    // ── Naming ────────────────────────────────────────────────────────────────
+
+    static String stem(Path live) {
+        String name = live.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /** A new, unused name for rolling the live file away at the given time. */
+    static Path rolledName(Path live, long millis) {
+        Path dir = live.toAbsolutePath().getParent();
+        while (true) {
+            String stamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(ROLL_NAME);
+            Path candidate = dir.resolve(stem(live) + "-" + stamp + ".log");
+            if (Files.notExists(candidate) && Files.notExists(Path.of(candidate + GZ))) return candidate;
+            millis++;
+        }
+    }
+
+    static Path indexFor(Path gz) {
+        String name = gz.getFileName().toString();
+        return gz.resolveSibling(name.substring(0, name.length() - ".log.gz".length()) + INDEX);
+    }
+
+    /** Rolled segments (plain and compressed), oldest first. Names sort by roll time. */
+    static List<Path> rolledSegments(Path live) throws IOException {
+        Path dir = live.toAbsolutePath().getParent();
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return segments;
+        String prefix = stem(live) + "-";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*.{log,log.gz}")) {
+            for (Path f : files) {
+                // A plain file next to its .gz was interrupted after compression; the .gz wins
+                if (!f.toString().endsWith(GZ) && Files.exists(Path.of(f + GZ))) continue;
+                segments.add(f);
+            }
+        }
+        segments.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+        return segments;
+    }
+
+    // ── Compression ───────────────────────────────────────────────────────────
+
+    /** Compresses a rolled plain segment into .log.gz + .idx, then deletes the plain file. */
+    static Path compress(Path plain) throws IOException {
+        Path gz = Path.of(plain + GZ);
+        Path tmp = Path.of(gz + ".tmp");
+        List<Block> blocks = new ArrayList<>();
+
+        try (BufferedReader in = Files.newBufferedReader(plain, StandardCharsets.UTF_8);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            ByteArrayOutputStream member = new ByteArrayOutputStream(BLOCK_BYTES);
+            StringBuilder block = new StringBuilder(BLOCK_BYTES + 1024);
+            long offset = 0, first = Long.MIN_VALUE, last = Long.MIN_VALUE;
+            String line;
+            while ((line = in.readLine()) != null) {
+                long t = timestampOf(line, last);
+                if (first == Long.MIN_VALUE) first = t;
+                last = t;
+                block.append(line).append('\n');
+                if (block.length() >= BLOCK_BYTES) {
+                    offset += writeMember(block, member, out, offset, first, last, blocks);
+                    first = Long.MIN_VALUE;
+                }
+            }
+            if (block.length() > 0) writeMember(block, member, out, offset, first, last, blocks);
+        }
+
+        Files.move(tmp, gz, StandardCopyOption.REPLACE_EXISTING);
+        try (PrintWriter idx = new PrintWriter(Files.newBufferedWriter(indexFor(gz), StandardCharsets.UTF_8))) {
+            idx.println("offset,length,first_millis,last_millis");
+            for (Block b : blocks) idx.println(b.offset() + "," + b.length() + "," + b.firstMillis() + "," + b.lastMillis());
+        }
+        Files.delete(plain);
+        return gz;
+    }
+
+    private static int writeMember(StringBuilder block, ByteArrayOutputStream member, OutputStream out,
+                                   long offset, long first, long last, List<Block> blocks) throws IOException {
+        member.reset();
+        try (GZIPOutputStream gz = new GZIPOutputStream(member, 8192)) {
+            gz.write(block.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        member.writeTo(out);
+        blocks.add(new Block(offset, member.size(), first, last));
+        block.setLength(0);
+        return member.size();
+    }
+
+    static List<Block> readIndex(Path idx) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        for (String line : Files.readAllLines(idx, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("offset")) continue;
+            String[] f = line.split(",");
+            blocks.add(new Block(Long.parseLong(f[0]), Integer.parseInt(f[1]), Long.parseLong(f[2]), Long.parseLong(f[3])));
+        }
+        return blocks;
+    }
+
+    // ── Retention ─────────────────────────────────────────────────────────────
+
+    /** Deletes the oldest rolled segments beyond maxFiles and any older than maxAgeDays. */
+    static void enforceRetention(Path live, int maxFiles, int maxAgeDays) throws IOException {
+        List<Path> segments = rolledSegments(live);
+        long cutoff = maxAgeDays > 0 ? System.currentTimeMillis() - Duration.ofDays(maxAgeDays).toMillis() : Long.MIN_VALUE;
+        int excess = maxFiles > 0 ? segments.size() - maxFiles : 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path s = segments.get(i);
+            if (i < excess || Files.getLastModifiedTime(s).toMillis() < cutoff) {
+                Files.deleteIfExists(s);
+                if (s.toString().endsWith(GZ)) Files.deleteIfExists(indexFor(s));
+            }
+        }
+    }
+
+    // ── Timestamps ────────────────────────────────────────────────────────────
+
+    /**
+     * Epoch millis of a text line ("[yyyy-MM-dd HH:mm:ss] ...", local time) or a JSON line
+     * ({"ts":"<ISO instant>",...}). Lines without a timestamp get {@code fallback}.
+     */
+    static long timestampOf(String line, long fallback) {
+        try {
+            if (line.length() >= 21 && line.charAt(0) == '[' && line.charAt(20) == ']') {
+                LocalDateTime t = LocalDateTime.of(
+                        num(line, 1, 5), num(line, 6, 8), num(line, 9, 11),
+                        num(line, 12, 14), num(line, 15, 17), num(line, 18, 20));
+                return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            if (line.startsWith("{\"ts\":\"")) {
+                int end = line.indexOf('"', 7);
+                if (end > 7) return Instant.parse(line.substring(7, end)).toEpochMilli();
+            }
+        } catch (DateTimeException | NumberFormatException e) {
+            // not a log line we wrote; keep the fallback
+        }
+        return fallback;
+    }
+
+    private static int num(String s, int from, int to) {
+        return Integer.parseInt(s, from, to, 10);
+    }
+}
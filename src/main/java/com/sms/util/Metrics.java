@@ -0,0 +1,124 @@
+package com.sms.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process metrics: counters, gauges and latency timers, keyed by dotted names such
+ * as "repository.findAll" or "csv.import".
+ *
+ * Look a metric up once and keep it in a field; recording is lock-free. Throughput is
+ * measured from the last reset() (or application start). snapshot() gives the rows the
+ * Diagnostics screen shows, and dump() writes them to a text file.
+ */
+public final class Metrics {
+
+    private static final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static volatile long since = System.nanoTime();
+
+    static {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm.heap.usedMb", () -> memory.getHeapMemoryUsage().getUsed() >> 20);
+        gauge("jvm.threads", () -> Thread.activeCount());
+        gauge("log.dropped", AppLogger::getDroppedCount);
+    }
+
+    private Metrics() {}
+
+    public static LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /** Registers (or replaces) a value read each time a snapshot is taken. */
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /** Clears every timer and counter and restarts the throughput window. Gauges stay. */
+    public static void reset() {
+        timers.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+        since = System.nanoTime();
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────────
+
+    /** One line of a snapshot. Timer fields are milliseconds; other kinds only set value. */
+    public static final class Row {
+        public final String name;
+        public final String kind;          // "timer", "counter" or "gauge"
+        public final long count;           // calls (timers) or the value (counters, gauges)
+        public final double perSecond;     // timers and counters
+        public final double p50Millis, p99Millis, maxMillis, meanMillis;
+
+        Row(String name, String kind, long count, double perSecond,
+            double p50Millis, double p99Millis, double maxMillis, double meanMillis) {
+            this.name = name;
+            this.kind = kind;
+            this.count = count;
+            this.perSecond = perSecond;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.meanMillis = meanMillis;
+        }
+    }
+
+    /** All metrics, sorted by name. */
+    public static List<Row> snapshot() {
+        double seconds = Math.max(1e-3, (System.nanoTime() - since) / 1e9);
+        Map<String, Row> rows = new TreeMap<>();
+        timers.forEach((name, h) -> {
+            LatencyHistogram.Snapshot s = h.snapshot();
+            rows.put(name, new Row(name, "timer", s.count, s.count / seconds,
+                    millis(s.percentile(50)), millis(s.percentile(99)), millis(s.maxNanos), s.meanNanos() / 1e6));
+        });
+        counters.forEach((name, c) -> {
+            long v = c.sum();
+            rows.put(name, new Row(name, "counter", v, v / seconds, 0, 0, 0, 0));
+        });
+        gauges.forEach((name, g) -> rows.put(name, new Row(name, "gauge", g.getAsLong(), 0, 0, 0, 0, 0)));
+        return new ArrayList<>(rows.values());
+    }
+
+    /** Writes the current snapshot as an aligned text table; returns the file. */
+    public static Path dump(Path file) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("# SMS metrics snapshot ")
+           .append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append('\n');
+        out.append(String.format(Locale.ROOT, "%-36s %-8s %12s %10s %10s %10s %10s %10s%n",
+                "name", "kind", "count", "per_sec", "p50_ms", "p99_ms", "max_ms", "mean_ms"));
+        for (Row r : snapshot()) {
+            out.append(String.format(Locale.ROOT, "%-36s %-8s %12d %10.2f %10.3f %10.3f %10.3f %10.3f%n",
+                    r.name, r.kind, r.count, r.perSecond, r.p50Millis, r.p99Millis, r.maxMillis, r.meanMillis));
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(file, out, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -1,8 +1,13 @@
 package com.sms.util;
 
+import com.sms.repository.InstrumentedStudentRepository;
+import com.sms.repository.SQLiteExportWatermarkRepository;
+import com.sms.repository.SQLiteImportCheckpointRepository;
 import com.sms.repository.SQLiteStudentRepository;
 import com.sms.repository.StudentRepository;
 import com.sms.service.CsvService;
+import com.sms.service.ImportService;
+import com.sms.service.SnapshotService;
 import com.sms.service.StudentService;
 import com.sms.service.ValidationService;
 
@@ -10,31 +15,58 @@ import com.sms.service.ValidationService;
  * Provides shared service instances to all controllers.
  * This avoids creating duplicate service objects everywhere.
  * Think of it as a simple dependency injection container.
+ *
+ * Thread-safe: controllers are created on the view-loader thread while the FX thread
+ * may be asking for the same services, so every getter is synchronized.
  */
 public class ServiceLocator {
 
+    private static StudentRepository studentRepository;
     private static StudentService studentService;
     private static CsvService csvService;
-    private static double atRiskThreshold = 2.0;
+    private static ImportService importService;
+    private static SnapshotService snapshotService;
+    private static volatile double atRiskThreshold = 2.0;
 
     private ServiceLocator() {}
 
-    public static StudentService getStudentService() {
+    public static synchronized StudentService getStudentService() {
         if (studentService == null) {
-            StudentRepository repo = new SQLiteStudentRepository();
             ValidationService vs   = new ValidationService();
-            studentService = new StudentService(repo, vs);
+            studentService = new StudentService(getStudentRepository(), vs);
         }
         return studentService;
     }
 
-    public static CsvService getCsvService() {
+    public static synchronized ImportService getImportService() {
+        if (importService == null) {
+            importService = new ImportService(getStudentRepository(), new SQLiteImportCheckpointRepository(),
+                    getCsvService(), getSnapshotService(), new ValidationService());
+        }
+        return importService;
+    }
+
+    private static synchronized StudentRepository getStudentRepository() {
+        if (studentRepository == null) {
+            studentRepository = new InstrumentedStudentRepository(new SQLiteStudentRepository());
+        }
+        return studentRepository;
+    }
+
+    public static synchronized CsvService getCsvService() {
         if (csvService == null) {
-            csvService = new CsvService();
+            csvService = new CsvService(getStudentRepository(), new SQLiteExportWatermarkRepository());
         }
         return csvService;
     }
 
+    public static synchronized SnapshotService getSnapshotService() {
+        if (snapshotService == null) {
+            snapshotService = new SnapshotService();
+        }
+        return snapshotService;
+    }
+
     public static double getAtRiskThreshold() {
         return atRiskThreshold;
     }
@@ -0,0 +1,395 @@
+package com.sms.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every SQL statement run through the shared connection and reports the slow ones.
+ *
+ * Opt-in: start the app with -Dsms.db.slowQueryMs=200 (any threshold >= 0) and
+ * DatabaseManager hands out a proxy of its connection (see wrap()). The proxy is reflective,
+ * so every JDBC call (each setXxx, getXxx and next) pays for a Method.invoke; without the
+ * property the raw connection is used and nothing is timed.
+ *
+ * Each statement's time is what the database spent on it: execute() plus every
+ * ResultSet.next(), but not the caller's work between rows. A statement over the threshold
+ * is logged as a REPOSITORY warning with its parameters redacted to type and length –
+ * student data never reaches the log. The first time a statement shape is slow, its
+ * EXPLAIN QUERY PLAN is captured and logged once, so a full table SCAN is easy to spot.
+ *
+ * Statements are grouped by shape: whitespace collapsed, literals replaced by ?, and IN
+ * lists of any length folded to (?+). topOffenders() ranks shapes by total time.
+ */
+public final class SlowQueryLog {
+
+    private static final int MAX_SHAPES = 512;
+    private static final String OTHER = "(other statements)";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w?])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static volatile long thresholdNanos = millisToNanos(Long.getLong("sms.db.slowQueryMs", -1));
+    private static final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private static final Map<String, Shape> shapeBySql = new ConcurrentHashMap<>();
+    private static final LongAdder slowCount = Metrics.counter("db.slowQueries");
+
+    private SlowQueryLog() {}
+
+    // ── Configuration ─────────────────────────────────────────────────────────
+
+    public static long getThresholdMillis() {
+        return thresholdNanos < 0 ? -1 : thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * 0 logs every statement. A negative value stops logging, but a connection that is
+     * already proxied keeps timing; whether to proxy is decided when a connection is opened.
+     */
+    public static void setThresholdMillis(long millis) {
+        thresholdNanos = millisToNanos(millis);
+    }
+
+    /** The connection to hand out: a timing proxy, or the connection itself if the log is off. */
+    static Connection wrap(Connection raw) {
+        if (thresholdNanos < 0) return raw;
+        return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(raw));
+    }
+
+    /** Forgets all statistics and captured plans. */
+    public static void reset() {
+        shapes.clear();
+        shapeBySql.clear();
+    }
+
+    // ── Report ────────────────────────────────────────────────────────────────
+
+    /** Per-shape totals. Times are milliseconds; plan is null until the shape was slow once. */
+    public static final class Offender {
+        public final String statement;
+        public final long calls;
+        public final long slowCalls;
+        public final double totalMillis;
+        public final double maxMillis;
+        public final String plan;
+
+        Offender(String statement, long calls, long slowCalls, double totalMillis, double maxMillis, String plan) {
+            this.statement = statement;
+            this.calls = calls;
+            this.slowCalls = slowCalls;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+            this.plan = plan;
+        }
+    }
+
+    /** The statement shapes with the most total time, worst first. */
+    public static List<Offender> topOffenders(int limit) {
+        List<Offender> all = new ArrayList<>();
+        shapes.values().forEach(s -> all.add(s.toOffender()));
+        all.sort(Comparator.comparingDouble((Offender o) -> o.totalMillis).reversed());
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    /** topOffenders() as text, for snapshot files. */
+    public static String report(int limit) {
+        StringBuilder out = new StringBuilder();
+        out.append("# Top statements by total time (slow threshold ").append(getThresholdMillis()).append(" ms)\n");
+        for (Offender o : topOffenders(limit)) {
+            out.append(String.format(Locale.ROOT, "%10.1f ms total  %8d calls  %6d slow  %10.1f ms max   %s%n",
+                    o.totalMillis, o.calls, o.slowCalls, o.maxMillis, o.statement));
+            if (o.plan != null) out.append("           plan: ").append(o.plan).append('\n');
+        }
+        return out.toString();
+    }
+
+    // ── Shapes ────────────────────────────────────────────────────────────────
+
+    /** SQL with literals replaced by ? and IN lists folded; used to group statements. */
+    static String shapeOf(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("IN (?+)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static Shape shapeFor(String sql) {
+        Shape cached = shapeBySql.get(sql);
+        if (cached != null) return cached;
+        String key = shapeOf(sql);
+        if (shapes.size() >= MAX_SHAPES && !shapes.containsKey(key)) key = OTHER;
+        Shape shape = shapes.computeIfAbsent(key, Shape::new);
+        if (shapeBySql.size() < MAX_SHAPES * 4) shapeBySql.put(sql, shape);
+        return shape;
+    }
+
+    private static final class Shape {
+        final String text;
+        final LongAdder calls = new LongAdder();
+        final LongAdder slowCalls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicBoolean planCaptured = new AtomicBoolean();
+        volatile String plan;
+
+        Shape(String text) {
+            this.text = text;
+        }
+
+        Offender toOffender() {
+            return new Offender(text, calls.sum(), slowCalls.sum(), totalNanos.sum() / 1e6, maxNanos.get() / 1e6, plan);
+        }
+    }
+
+    // ── Recording ─────────────────────────────────────────────────────────────
+
+    private static void record(Connection raw, String sql, Object[] params, int paramCount, int batchRows, long nanos) {
+        if (sql == null) return;
+        Shape shape = shapeFor(sql);
+        shape.calls.increment();
+        shape.totalNanos.add(nanos);
+        shape.maxNanos.accumulate(nanos);
+
+        long threshold = thresholdNanos;
+        if (threshold < 0 || nanos < threshold) return;
+        shape.slowCalls.increment();
+        slowCount.increment();
+        AppLogger.warn(LogCategory.REPOSITORY, "Slow query ({} ms): {} {}",
+                nanos / 1_000_000, shape.text, describeParams(params, paramCount, batchRows));
+        if (shape != shapes.get(OTHER) && shape.planCaptured.compareAndSet(false, true)) {
+            shape.plan = explain(raw, sql, params, paramCount);
+            if (shape.plan != null) {
+                AppLogger.warn(LogCategory.REPOSITORY, "Query plan for {}: {}", shape.text, shape.plan);
+            }
+        }
+    }
+
+    /** Parameters as type and size only, e.g. [text(16), int, null]. */
+    static String describeParams(Object[] params, int paramCount, int batchRows) {
+        StringJoiner out = new StringJoiner(", ", "[", "]");
+        for (int i = 1; i <= paramCount; i++) out.add(redact(params[i]));
+        String described = out.toString();
+        if (batchRows > 1) described += " x" + batchRows + " rows";
+        return described.equals("[]") ? "" : described;
+    }
+
+    static String redact(Object value) {
+        if (value == null) return "null";
+        if (value instanceof CharSequence cs) return "text(" + cs.length() + ")";
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) return "int";
+        if (value instanceof Double || value instanceof Float) return "real";
+        if (value instanceof byte[] bytes) return "blob(" + bytes.length + ")";
+        return value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+    }
+
+    /** EXPLAIN QUERY PLAN with the same parameters, as "detail | detail | ..."; null if there is none. */
+    private static String explain(Connection raw, String sql, Object[] params, int paramCount) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        if (!(head.startsWith("SELECT") || head.startsWith("WITH") || head.startsWith("UPDATE")
+                || head.startsWith("DELETE") || head.startsWith("INSERT"))) {
+            return null;
+        }
+        try (PreparedStatement ps = raw.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 1; i <= paramCount; i++) ps.setObject(i, params[i]);
+            StringJoiner plan = new StringJoiner(" | ");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) plan.add(rs.getString("detail"));
+            }
+            return plan.length() == 0 ? null : plan.toString();
+        } catch (SQLException e) {
+            return "(plan unavailable: " + e.getMessage() + ")";
+        }
+    }
+
+    private static long millisToNanos(long millis) {
+        return millis < 0 ? -1 : millis * 1_000_000;
+    }
+
+    // ── Proxies ───────────────────────────────────────────────────────────────
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+
+        ConnectionHandler(Connection raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(raw, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement((Statement) result, (String) args[0], PreparedStatement.class);
+                case "createStatement"  -> wrapStatement((Statement) result, null, Statement.class);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, String sql, Class<?> type) {
+            return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(raw, statement, sql));
+        }
+    }
+
+    /**
+     * Remembers bound parameters and times executions. A query stays open until its
+     * ResultSet (or the statement) is closed or the statement runs again, so time spent
+     * in next() is added before it is recorded.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Connection raw;
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] params;          // 1-based, as JDBC
+        private int paramCount;           // highest index bound
+        private int batchRows;
+        private String openSql;           // query whose ResultSet is still being read
+        private long openNanos;
+
+        StatementHandler(Connection raw, Statement target, String preparedSql) {
+            this.raw = raw;
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && preparedSql != null) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return call(target, method, args);
+            }
+            switch (name) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                    finishOpen();
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    long start = System.nanoTime();
+                    Object result = call(target, method, args);
+                    long nanos = System.nanoTime() - start;
+                    if (result instanceof ResultSet rs) {
+                        openSql = sql;
+                        openNanos = nanos;
+                        return wrapResultSet(rs);
+                    }
+                    if (name.equals("execute") && Boolean.TRUE.equals(result)) {
+                        openSql = sql;
+                        openNanos = nanos;
+                    } else {
+                        record(raw, sql, params, paramCount, 1, nanos);
+                    }
+                    return result;
+                }
+                case "addBatch" -> {
+                    batchRows++;
+                    return call(target, method, args);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    finishOpen();
+                    long start = System.nanoTime();
+                    try {
+                        return call(target, method, args);
+                    } finally {
+                        record(raw, preparedSql, params, paramCount, batchRows, System.nanoTime() - start);
+                        batchRows = 0;
+                    }
+                }
+                case "getResultSet" -> {
+                    Object result = call(target, method, args);
+                    return result instanceof ResultSet rs ? wrapResultSet(rs) : result;
+                }
+                case "clearParameters" -> paramCount = 0;
+                case "clearBatch" -> batchRows = 0;
+                case "close" -> finishOpen();
+                default -> { }
+            }
+            return call(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (params == null || params.length <= index) {
+                params = params == null ? new Object[Math.max(index + 1, 8)] : Arrays.copyOf(params, index * 2);
+            }
+            params[index] = value;
+            if (index > paramCount) paramCount = index;
+        }
+
+        void addRowTime(long nanos) {
+            openNanos += nanos;
+        }
+
+        void finishOpen() {
+            if (openSql == null) return;
+            String sql = openSql;
+            openSql = null;
+            record(raw, sql, params, paramCount, 1, openNanos);
+        }
+
+        private Object wrapResultSet(ResultSet rs) {
+            return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(this, rs));
+        }
+    }
+
+    /** Adds the time of each next() to its statement; close() records the query. */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final StatementHandler statement;
+        private final ResultSet target;
+
+        ResultSetHandler(StatementHandler statement, ResultSet target) {
+            this.statement = statement;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    try {
+                        return call(target, method, args);
+                    } finally {
+                        statement.addRowTime(System.nanoTime() - start);
+                    }
+                }
+                case "close" -> {
+                    try {
+                        return call(target, method, args);
+                    } finally {
+                        statement.finishOpen();
+                    }
+                }
+                default -> {
+                    return call(target, method, args);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
+import com.sms.service.CsvService;
+import com.sms.util.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the change feed behind delta export, against a database file in a temp folder:
+ * every write takes the next sequence number, deletes leave tombstones, and the watermark
+ * only hands each change to a target once.
+ */
+class SQLiteStudentRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private StudentRepository repository;
+    private ExportWatermarkRepository watermarks;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.closeConnection();
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dir.resolve("test.db").toString());
+        repository = new SQLiteStudentRepository();
+        watermarks = new SQLiteExportWatermarkRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.closeConnection();
+        System.clearProperty(DatabaseManager.DB_PATH_PROPERTY);
+    }
+
+    @Test
+    void test01_writesAreStampedInOrder() {
+        assertEquals(0, repository.currentChangeSequence());
+        repository.save(make("S001", 3.0));
+        repository.saveAll(List.of(make("S002", 3.0), make("S003", 3.0)));
+        repository.update(make("S001", 3.5));
+        assertEquals(3, repository.currentChangeSequence(), "a batch takes a single sequence number");
+
+        List<String> changes = changes(0, 3);
+        assertEquals(List.of("U2 S002", "U2 S003", "U3 S001"), changes.stream().sorted().toList(),
+                "an update moves the row to its newest sequence");
+        assertEquals("U3 S001", changes.get(2));
+        assertEquals(List.of("U3 S001"), changes(2, 3), "the range is (after, upTo]");
+        assertEquals(3.5, repository.findById("S001").orElseThrow().getGpa());
+    }
+
+    @Test
+    void test02_deletesLeaveTombstonesUntilReAdded() {
+        repository.saveAll(List.of(make("S001", 3.0), make("S002", 3.0)));
+        repository.delete("S001");
+        repository.delete("NOPE"); // nothing deleted: no tombstone, no sequence number
+        assertEquals(2, repository.currentChangeSequence());
+        assertEquals(List.of("U1 S002", "D2 S001"), changes(0, 2));
+
+        repository.save(make("S001", 2.0));
+        assertEquals(List.of("U1 S002", "U3 S001"), changes(0, 3), "re-adding clears the tombstone");
+    }
+
+    @Test
+    void test03_deltaExportAdvancesTheWatermark() throws Exception {
+        CsvService csv = new CsvService(repository, watermarks);
+        String target = "test-" + System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        try {
+            repository.saveAll(List.of(make("S001", 3.0), make("S002", 3.0)));
+            CsvService.DeltaResult first = csv.exportDelta(target, null);
+            files.add(first.file);
+            assertEquals(0, first.fromSequence);
+            assertEquals(1, first.toSequence);
+            assertEquals(2, first.upserts);
+            assertEquals(1, watermarks.findLastSequence(target));
+
+            repository.update(make("S002", 3.9));
+            repository.delete("S001");
+            CsvService.DeltaResult second = csv.exportDelta(target, null);
+            files.add(second.file);
+            assertEquals(1, second.fromSequence);
+            assertEquals(3, second.toSequence);
+            assertEquals(1, second.upserts);
+            assertEquals(1, second.deletes);
+            List<String> lines = Files.readAllLines(second.file);
+            assertEquals(3, lines.size(), "header plus only the two new changes");
+            assertTrue(lines.get(1).startsWith("U,2,S002,"));
+            assertTrue(lines.get(2).startsWith("D,3,S001,"));
+
+            CsvService.DeltaResult third = csv.exportDelta(target, null);
+            files.add(third.file);
+            assertEquals(0, third.upserts + third.deletes);
+            assertEquals(0, watermarks.findLastSequence("other-" + target), "watermarks are per target");
+        } finally {
+            for (Path f : files) Files.deleteIfExists(f);
+        }
+    }
+
+    private List<String> changes(long after, long upTo) {
+        List<String> out = new ArrayList<>();
+        repository.forEachChangeSince(after, upTo, c ->
+                out.add((c.getType() == StudentChange.Type.DELETE ? "D" : "U") + c.getSequence() + " " + c.getStudentId()));
+        return out;
+    }
+
+    private static Student make(String id, double gpa) {
+        return new Student(id, "Test Student", "CS", 100, gpa, "t@uni.edu", "0241234567", LocalDate.now(), "Active");
+    }
+}
@@ -0,0 +1,137 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvExportWriter: what it writes, with and without gzip, and how the
+ * temp file replaces the target.
+ */
+class CsvExportWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private static final Student PLAIN  = new Student("STU0001", "Kwame Asante", "Computer Science", 100, 3.5,
+            "kwame@stu.edu.gh", "0244123456", LocalDate.of(2025, 1, 9), "Active");
+    private static final Student QUOTED = new Student("STU0002", "Mensah, \"Abena\"", "Économie", 200, 2.75,
+            "abena@stu.edu.gh", "0244123457", LocalDate.of(2025, 10, 20), "Inactive");
+    private static final Student EMOJI  = new Student("STU0003", "😀 Ama", "Maths", 300, 4.0,
+            "ama@stu.edu.gh", "0244123458", LocalDate.of(2024, 12, 1), "Active");
+
+    private static final List<String> EXPECTED = List.of(
+            CsvExportWriter.HEADER,
+            "STU0001,Kwame Asante,Computer Science,100,3.5,kwame@stu.edu.gh,0244123456,2025-01-09,Active",
+            "STU0002,\"Mensah, \"\"Abena\"\"\",Économie,200,2.75,abena@stu.edu.gh,0244123457,2025-10-20,Inactive",
+            "STU0003,😀 Ama,Maths,300,4.0,ama@stu.edu.gh,0244123458,2024-12-01,Active");
+
+    private Path export(String name, boolean gzip) throws IOException {
+        Path target = dir.resolve(name);
+        try (CsvExportWriter w = new CsvExportWriter(target, gzip)) {
+            w.writeHeader();
+            for (Student s : List.of(PLAIN, QUOTED, EMOJI)) w.writeRow(s);
+            assertEquals(3, w.getRowCount());
+            w.commit();
+        }
+        return target;
+    }
+
+    /** Files in the folder other than the target: the writer's "<target>…tmp" files. */
+    private List<Path> tempFiles(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> !p.equals(target)).toList();
+        }
+    }
+
+    @Test
+    void test01_plainRoundTrip() throws IOException {
+        Path target = export("students.csv", false);
+        assertEquals(EXPECTED, Files.readAllLines(target, StandardCharsets.UTF_8));
+
+        try (CsvParser p = new CsvParser(Files.newBufferedReader(target, StandardCharsets.UTF_8))) {
+            assertTrue(p.nextRecord()); // header
+            assertTrue(p.nextRecord());
+            assertTrue(p.nextRecord());
+            assertEquals("Mensah, \"Abena\"", p.getString(1));
+            assertEquals(2.75, p.getDouble(4));
+            assertEquals(LocalDate.of(2025, 10, 20), p.getDate(7));
+            assertTrue(p.nextRecord());
+            assertEquals("😀 Ama", p.getString(1));
+            assertFalse(p.nextRecord());
+        }
+        assertTrue(tempFiles(target).isEmpty());
+    }
+
+    @Test
+    void test02_gzipRoundTrip() throws IOException {
+        Path target = export("students.csv.gz", true);
+        try (Reader in = new InputStreamReader(new GZIPInputStream(Files.newInputStream(target)), StandardCharsets.UTF_8)) {
+            char[] buf = new char[4096];
+            StringBuilder text = new StringBuilder();
+            for (int n; (n = in.read(buf)) != -1; ) text.append(buf, 0, n);
+            assertEquals(String.join("\n", EXPECTED) + "\n", text.toString());
+        }
+        assertTrue(tempFiles(target).isEmpty());
+    }
+
+    @Test
+    void test03_deltaRows() throws IOException {
+        Path target = dir.resolve("delta.csv");
+        try (CsvExportWriter w = new CsvExportWriter(target, false)) {
+            w.writeLine(CsvExportWriter.DELTA_HEADER);
+            w.writeChange(StudentChange.upsert(PLAIN, 7));
+            w.writeChange(StudentChange.delete("STU0002", 8));
+            assertEquals(2, w.getRowCount());
+            w.commit();
+        }
+        assertEquals(List.of(CsvExportWriter.DELTA_HEADER, "U,7," + EXPECTED.get(1), "D,8,STU0002,,,,,,,,"),
+                Files.readAllLines(target, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void test04_commitReplacesTheTargetInOneStep() throws IOException {
+        Path target = dir.resolve("students.csv");
+        Files.writeString(target, "old export\n");
+        try (CsvExportWriter w = new CsvExportWriter(target, false)) {
+            w.writeHeader();
+            w.writeRow(PLAIN);
+            assertEquals("old export\n", Files.readString(target), "target untouched until commit()");
+            List<Path> temps = tempFiles(target);
+            assertEquals(1, temps.size());
+            assertTrue(temps.get(0).getFileName().toString().startsWith("students.csv"));
+            assertTrue(temps.get(0).getFileName().toString().endsWith(".tmp"));
+
+            w.commit();
+        }
+        assertEquals(EXPECTED.subList(0, 2), Files.readAllLines(target, StandardCharsets.UTF_8));
+        assertTrue(tempFiles(target).isEmpty(), "the temp file was renamed over the target");
+    }
+
+    @Test
+    void test05_closeWithoutCommit_keepsOldTargetAndDeletesTemp() throws IOException {
+        Path target = dir.resolve("students.csv.gz");
+        Files.writeString(target, "old export\n");
+        try (CsvExportWriter w = new CsvExportWriter(target, true)) {
+            w.writeHeader();
+            w.writeRow(PLAIN);
+            assertEquals(1, tempFiles(target).size());
+        }
+        assertEquals("old export\n", Files.readString(target));
+        assertTrue(tempFiles(target).isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.sms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvParser.
+ * Covers the RFC 4180 cases the old split(",") parser got wrong.
+ */
+class CsvParserTest {
+
+    private CsvParser parser(String csv) {
+        return new CsvParser(new StringReader(csv), 16); // tiny buffer exercises refills mid-field
+    }
+
+    @Test
+    void test01_plainRecord_splitsAndTrims() throws IOException {
+        CsvParser p = parser("STU0001, Kwame Asante ,CS\n");
+        assertTrue(p.nextRecord());
+        assertEquals(3, p.getFieldCount());
+        assertEquals("STU0001", p.getString(0));
+        assertEquals("Kwame Asante", p.getString(1));
+        assertEquals("CS", p.getString(2));
+        assertFalse(p.nextRecord());
+    }
+
+    @Test
+    void test02_quotedFieldWithCommaAndEscapedQuote() throws IOException {
+        CsvParser p = parser("A,\"Mensah, \"\"Abena\"\"\",B\n");
+        assertTrue(p.nextRecord());
+        assertEquals(3, p.getFieldCount());
+        assertEquals("Mensah, \"Abena\"", p.getString(1));
+        assertEquals("B", p.getString(2));
+    }
+
+    @Test
+    void test03_embeddedNewline_keepsRecordTogetherAndCountsLines() throws IOException {
+        CsvParser p = parser("h1,h2\r\n\"line one\nline two\",x\r\nlast,y");
+        assertTrue(p.nextRecord());
+        assertEquals(1, p.getLineNumber());
+        assertTrue(p.nextRecord());
+        assertEquals(2, p.getLineNumber());
+        assertEquals("line one\nline two", p.getString(0));
+        assertTrue(p.nextRecord());
+        assertEquals(4, p.getLineNumber());
+        assertEquals("y", p.getString(1));
+        assertFalse(p.nextRecord());
+    }
+
+    @Test
+    void test04_byteOrderMark_isSkipped() throws IOException {
+        CsvParser p = parser("\uFEFFstudent_id,full_name\n");
+        assertTrue(p.nextRecord());
+        assertTrue(p.fieldEquals(0, "student_id"));
+    }
+
+    @Test
+    void test05_blankLine_isReportedAsBlank() throws IOException {
+        CsvParser p = parser("a,b\n   \nc,d\n");
+        assertTrue(p.nextRecord());
+        assertTrue(p.nextRecord());
+        assertTrue(p.isBlankRecord());
+        assertTrue(p.nextRecord());
+        assertFalse(p.isBlankRecord());
+    }
+
+    @Test
+    void test06_numbersAndDate_decodedFromBuffer() throws IOException {
+        CsvParser p = parser("300,3.8,-0.25,2025-09-01,1e1\n");
+        assertTrue(p.nextRecord());
+        assertEquals(300, p.getInt(0));
+        assertEquals(3.8, p.getDouble(1));
+        assertEquals(-0.25, p.getDouble(2));
+        assertEquals(LocalDate.of(2025, 9, 1), p.getDate(3));
+        assertEquals(10.0, p.getDouble(4)); // exponent form falls back to Double.parseDouble
+    }
+
+    @Test
+    void test07_badNumberOrDate_throws() throws IOException {
+        CsvParser p = parser("3x0,abc,2025-13-01\n");
+        assertTrue(p.nextRecord());
+        assertThrows(NumberFormatException.class, () -> p.getInt(0));
+        assertThrows(NumberFormatException.class, () -> p.getDouble(1));
+        assertThrows(IllegalArgumentException.class, () -> p.getDate(2));
+    }
+
+    @Test
+    void test08_unterminatedQuote_throws() {
+        CsvParser p = parser("a,\"never closed\n");
+        assertThrows(IllegalArgumentException.class, p::nextRecord);
+    }
+
+    @Test
+    void test09_nextRecordOffset_countsUtf8BytesAndResumes() throws IOException {
+        String first = "\uFEFFid,name\r\nS1,\"Kɔfi, €\"\n";
+        String rest = "S2,😀 Ama\n";
+        CsvParser p = parser(first + rest);
+        assertTrue(p.nextRecord());
+        assertTrue(p.nextRecord());
+        long offset = p.getNextRecordOffset();
+        assertEquals(first.getBytes(StandardCharsets.UTF_8).length, offset);
+
+        CsvParser resumed = parser(rest);
+        resumed.resumeAt(p.getNextLineNumber(), offset);
+        assertTrue(resumed.nextRecord());
+        assertEquals(3, resumed.getLineNumber());
+        assertEquals("😀 Ama", resumed.getString(1));
+        assertEquals((first + rest).getBytes(StandardCharsets.UTF_8).length, resumed.getNextRecordOffset());
+    }
+}
@@ -0,0 +1,103 @@
+package com.sms.service;
+
+import com.sms.domain.ImportErrorCode;
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteExportWatermarkRepository;
+import com.sms.repository.SQLiteImportCheckpointRepository;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DuplicateChecker and the duplicate handling of ImportService, against a
+ * database file in a temp folder.
+ */
+class DuplicateCheckerTest {
+
+    @TempDir
+    Path dir;
+
+    private StudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.closeConnection();
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dir.resolve("test.db").toString());
+        repository = new SQLiteStudentRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.closeConnection();
+        System.clearProperty(DatabaseManager.DB_PATH_PROPERTY);
+    }
+
+    @Test
+    void test01_findsExistingIdsOnly() {
+        List<Student> existing = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) existing.add(make(String.format("OLD%05d", i)));
+        repository.saveAll(existing);
+
+        DuplicateChecker checker = new DuplicateChecker(repository, 5_000);
+        List<String> probe = new ArrayList<>();
+        for (int i = 0; i < 5_000; i += 100) probe.add(String.format("OLD%05d", i));
+        for (int i = 0; i < 5_000; i++) probe.add(String.format("NEW%05d", i)); // Bloom false positives must not leak through
+        assertEquals(Set.copyOf(probe.subList(0, 50)), checker.findExisting(probe));
+    }
+
+    @Test
+    void test02_committedIdsAreFoundByLaterBatches() {
+        DuplicateChecker checker = new DuplicateChecker(repository, 10);
+        assertTrue(checker.findExisting(List.of("S001", "S002")).isEmpty());
+        repository.saveAll(List.of(make("S001"), make("S002")));
+        checker.markCommitted(List.of("S001", "S002"));
+        assertEquals(Set.of("S002"), checker.findExisting(List.of("S002", "S003")));
+    }
+
+    @Test
+    void test03_importRejectsInFileDuplicatesAcrossBatches() throws IOException {
+        int rows = ImportService.BATCH_SIZE * 2 + 10;
+        List<String> lines = new ArrayList<>();
+        lines.add(CsvExportWriter.HEADER);
+        for (int i = 0; i < rows; i++) lines.add(csv(String.format("S%05d", i)));
+        lines.add(csv("S00005"));                          // repeats a row of the first batch
+        lines.add(csv(String.format("S%05d", rows - 1)));  // and one of the last, uncommitted batch
+        Path file = dir.resolve("students.csv");
+        Files.write(file, lines);
+
+        ImportService importService = new ImportService(repository, new SQLiteImportCheckpointRepository(),
+                new CsvService(repository, new SQLiteExportWatermarkRepository()), new SnapshotService(),
+                new ValidationService());
+        ImportService.ImportSummary summary = importService.importFile(file.toFile(), null, null);
+        try {
+            assertEquals(rows, summary.imported);
+            assertEquals(2, summary.errorCount);
+            assertEquals(2, summary.errors.getCount(ImportErrorCode.DUPLICATE_ID));
+            assertEquals(rows, repository.count());
+        } finally {
+            summary.errors.close();
+        }
+    }
+
+    private static String csv(String id) {
+        return id + ",Test Student,CS,100,3.0,t@uni.edu,0241234567,2025-01-01,Active";
+    }
+
+    private static Student make(String id) {
+        return new Student(id, "Test Student", "CS", 100, 3.0, "t@uni.edu", "0241234567", LocalDate.now(), "Active");
+    }
+}
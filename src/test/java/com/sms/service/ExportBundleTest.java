@@ -0,0 +1,93 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExportBundle: every report file from one pass over an in-memory source.
+ */
+class ExportBundleTest {
+
+    @TempDir
+    Path dir;
+
+    private List<Student> students() {
+        List<Student> list = new ArrayList<>();
+        String[] programmes = {"Computer Science", "Information Technology", "Nursing"};
+        for (int i = 0; i < 5000; i++) {
+            list.add(new Student("STU" + (10000 + i), "Student " + i, programmes[i % 3], 100,
+                    (i * 7 % 401) / 100.0, "s" + i + "@stu.edu.gh", "0244000000",
+                    LocalDate.of(2025, 1, 1), i % 4 == 0 ? "Inactive" : "Active"));
+        }
+        return list;
+    }
+
+    private List<String> ids(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(CsvExportWriter.HEADER, lines.get(0));
+        return lines.subList(1, lines.size()).stream().map(l -> l.substring(0, l.indexOf(','))).toList();
+    }
+
+    @Test
+    void test01_singleScan_writesEveryReport() throws IOException {
+        List<Student> all = students();
+        int[] scans = {0};
+        Consumer<Consumer<Student>> source = c -> { scans[0]++; all.forEach(c); };
+
+        Map<String, Long> files = new ExportBundle(dir, 10, 2.0).run(source, null);
+
+        assertEquals(1, scans[0]);
+        assertEquals(5000L, files.get(ExportBundle.ALL_FILE));
+        assertEquals(5000, ids(dir.resolve(ExportBundle.ALL_FILE)).size());
+        assertEquals(5000L, files.get("programmes/computer_science.csv")
+                + files.get("programmes/information_technology.csv") + files.get("programmes/nursing.csv"));
+    }
+
+    @Test
+    void test02_topPerformers_matchFullSort() throws IOException {
+        List<Student> all = students();
+        new ExportBundle(dir, 10, 2.0).run(all::forEach, null);
+
+        List<String> expected = all.stream()
+                .filter(s -> "Active".equals(s.getStatus()))
+                .sorted((a, b) -> Double.compare(b.getGpa(), a.getGpa()))
+                .limit(10).map(Student::getStudentId).toList();
+        assertEquals(expected, ids(dir.resolve(ExportBundle.TOP_FILE)));
+    }
+
+    @Test
+    void test03_atRisk_belowThresholdLowestFirst() throws IOException {
+        List<Student> all = students();
+        new ExportBundle(dir, 10, 1.0).run(all::forEach, null);
+
+        List<String> expected = all.stream()
+                .filter(s -> s.getGpa() < 1.0)
+                .sorted((a, b) -> Double.compare(a.getGpa(), b.getGpa()))
+                .map(Student::getStudentId).toList();
+        assertEquals(expected, ids(dir.resolve(ExportBundle.AT_RISK_FILE)));
+    }
+
+    @Test
+    void test04_failedScan_leavesNoFiles() {
+        Consumer<Consumer<Student>> failing = c -> {
+            students().subList(0, 3000).forEach(c);
+            throw new UncheckedIOException(new IOException("cursor lost"));
+        };
+        assertThrows(UncheckedIOException.class, () -> new ExportBundle(dir, 10, 2.0).run(failing, null));
+        assertFalse(Files.exists(dir.resolve(ExportBundle.ALL_FILE)));
+        assertFalse(Files.exists(dir.resolve(ExportBundle.TOP_FILE)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.sms.service;
+
+import com.sms.domain.ImportErrorCode;
+import com.sms.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImportErrorSink: capped preview, per-code counters and the spill file.
+ */
+class ImportErrorSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void test01_previewIsCapped_butEveryErrorIsSpilled() throws IOException {
+        try (ImportErrorSink sink = new ImportErrorSink(dir)) {
+            for (int i = 0; i < 10_000; i++) sink.addDuplicate(i + 2, "STU" + i);
+            sink.flush();
+
+            assertEquals(10_000, sink.getTotal());
+            assertEquals(ImportErrorSink.PREVIEW_LIMIT, sink.getPreview().size());
+            assertEquals("Line 2: Duplicate ID 'STU0' – skipped.", sink.getPreview().get(0));
+
+            Path report = dir.resolve("import_errors.csv");
+            sink.saveTo(report);
+            List<String> lines = Files.readAllLines(report);
+            assertEquals(10_001, lines.size());
+            assertEquals(ImportErrorSink.REPORT_HEADER, lines.get(0));
+            assertEquals("10001,student_id,DUPLICATE_ID,Duplicate ID 'STU9999' – skipped.", lines.get(10_000));
+        }
+        assertEquals(1, Files.list(dir).count()); // spill was moved, not copied
+    }
+
+    @Test
+    void test02_validationErrors_oneRecordPerField() throws IOException {
+        Student s = new Student("S1", "Ama", "CS", 150, 5.0, "ama@x.com", "0244000000",
+                LocalDate.of(2025, 1, 1), "Active");
+        try (ImportErrorSink sink = new ImportErrorSink(dir)) {
+            sink.addValidation(7, new ValidationService().validate(s));
+            sink.flush();
+
+            assertEquals(3, sink.getCount(ImportErrorCode.INVALID_VALUE)); // ID length, level, GPA
+            Path report = dir.resolve("errors.csv");
+            sink.saveTo(report);
+            List<String> fields = Files.readAllLines(report).stream().skip(1)
+                    .map(l -> l.split(",")[1]).toList();
+            assertEquals(List.of("student_id", "level", "gpa"), fields);
+        }
+    }
+
+    @Test
+    void test03_unparseableRow_namesColumnAndCode() throws IOException {
+        CsvParser p = new CsvParser(new StringReader("STU1,Ama,CS,abc,3.0,a@b.c,0244000000,2025-01-01,Active\n"));
+        p.nextRecord();
+        try (ImportErrorSink sink = new ImportErrorSink(dir)) {
+            try {
+                new CsvService().toStudent(p);
+                fail("expected a parse error");
+            } catch (IllegalArgumentException e) {
+                sink.addUnreadable(2, e);
+            }
+            assertEquals(1, sink.getCount(ImportErrorCode.BAD_NUMBER));
+            assertTrue(sink.getPreview().get(0).startsWith("Line 2: Could not parse row"));
+        }
+        assertEquals(0, Files.list(dir).count()); // unsaved spill is deleted on close
+    }
+}
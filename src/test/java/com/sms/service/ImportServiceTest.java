@@ -0,0 +1,159 @@
+package com.sms.service;
+
+import com.sms.domain.ImportCheckpoint;
+import com.sms.domain.ImportErrorCode;
+import com.sms.repository.SQLiteExportWatermarkRepository;
+import com.sms.repository.SQLiteImportCheckpointRepository;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batched CSV import of ImportService and resuming it from a checkpoint,
+ * against a database file in a temp folder.
+ */
+class ImportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private StudentRepository repository;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.closeConnection();
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dir.resolve("test.db").toString());
+        repository = new SQLiteStudentRepository();
+        importService = new ImportService(repository, new SQLiteImportCheckpointRepository(),
+                new CsvService(repository, new SQLiteExportWatermarkRepository()), new SnapshotService(),
+                new ValidationService());
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.closeConnection();
+        System.clearProperty(DatabaseManager.DB_PATH_PROPERTY);
+    }
+
+    @Test
+    void test01_errorsAcrossValidationBlocksAreReportedInFileOrder() throws IOException {
+        int blockRecords = ImportService.BLOCK_BATCHES * ImportService.BATCH_SIZE;
+        int rows = blockRecords + 500;
+        List<String> lines = new ArrayList<>();
+        lines.add(CsvExportWriter.HEADER);
+        for (int i = 0; i < rows; i++) {
+            String id = String.format("S%05d", i);
+            if (i == 10 || i == blockRecords - 1) lines.add(id + ",Bad Level,CS,150,3.0,t@uni.edu,0241234567,2025-01-01,Active");
+            else if (i == 11 || i == blockRecords) lines.add(id + ",Bad GPA,CS,100,abc,t@uni.edu,0241234567,2025-01-01,Active");
+            else if (i == 12) lines.add("");
+            else lines.add(csv(id));
+        }
+        Path file = dir.resolve("students.csv");
+        Files.write(file, lines);
+
+        List<Long> progress = new ArrayList<>();
+        ImportService.ImportSummary summary = importService.importFile(file.toFile(), null, progress::add);
+        try {
+            assertEquals(rows - 5, summary.imported);
+            assertEquals(4, summary.errorCount);
+            assertEquals(2, summary.errors.getCount(ImportErrorCode.INVALID_VALUE));
+            assertEquals(rows - 5, repository.count());
+            assertEquals(ImportService.BLOCK_BATCHES + 1, progress.size());  // each whole batch, then the end
+
+            // Line numbers count the header, so record i is on line i + 2
+            List<String> preview = summary.errors.getPreview();
+            assertEquals(4, preview.size());
+            assertTrue(preview.get(0).startsWith("Line 12:"));
+            assertTrue(preview.get(1).startsWith("Line 13:"));
+            assertTrue(preview.get(2).startsWith("Line " + (blockRecords + 1) + ":"));
+            assertTrue(preview.get(3).startsWith("Line " + (blockRecords + 2) + ":"));
+            assertTrue(importService.findCheckpoint(file.toFile()).isEmpty());
+        } finally {
+            summary.errors.close();
+        }
+    }
+
+    @Test
+    void test02_resumeContinuesAfterTheLastCommittedBatch() throws IOException {
+        int rows = ImportService.BATCH_SIZE * 3 + 200;
+        Path file = writeWithErrors(rows);
+
+        ImportCheckpoint cp = interruptAfterFirstBatch(file);
+        assertEquals(ImportService.BATCH_SIZE + 2, cp.getLineNumber());   // header + one batch, 1-based
+        assertEquals(ImportService.BATCH_SIZE - 2, cp.getRowsImported());
+        assertEquals(2, cp.getErrorCount());
+        assertEquals(ImportService.BATCH_SIZE - 2, repository.count());
+
+        List<Long> progress = new ArrayList<>();
+        ImportService.ImportSummary summary = importService.importFile(file.toFile(), cp, progress::add);
+        try {
+            assertTrue(summary.resumed);
+            assertEquals(rows - 4, summary.imported);
+            assertEquals(4, summary.errorCount);                        // both runs
+            assertEquals(2, summary.errors.getTotal());                 // only the rows after the checkpoint
+            assertTrue(summary.errors.getPreview().get(0).startsWith("Line " + (ImportService.BATCH_SIZE * 2 + 12) + ":"));
+            assertEquals(List.of(2L * ImportService.BATCH_SIZE - 2, 3L * ImportService.BATCH_SIZE - 4, rows - 4L), progress);
+            assertEquals(rows - 4, repository.count());
+            assertTrue(importService.findCheckpoint(file.toFile()).isEmpty());
+        } finally {
+            summary.errors.close();
+        }
+    }
+
+    @Test
+    void test03_changedFileIsNotResumed() throws IOException {
+        Path file = writeWithErrors(ImportService.BATCH_SIZE * 2);
+        ImportCheckpoint cp = interruptAfterFirstBatch(file);
+
+        Files.writeString(file, csv("S99999") + "\n", StandardOpenOption.APPEND);
+        assertTrue(importService.findCheckpoint(file.toFile()).isEmpty());
+        assertThrows(IllegalStateException.class, () -> importService.importFile(file.toFile(), cp, null));
+        assertEquals(ImportService.BATCH_SIZE - 2, repository.count());
+    }
+
+    /**
+     * Rows S00000.. with an invalid level on record 10, a bad GPA on record 11 and, in the
+     * third batch, another of each on records 2010 and 2011.
+     */
+    private Path writeWithErrors(int rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CsvExportWriter.HEADER);
+        for (int i = 0; i < rows; i++) {
+            String id = String.format("S%05d", i);
+            int inBatch = i % (2 * ImportService.BATCH_SIZE);
+            if (inBatch == 10) lines.add(id + ",Bad Level,CS,150,3.0,t@uni.edu,0241234567,2025-01-01,Active");
+            else if (inBatch == 11) lines.add(id + ",Bad GPA,CS,100,abc,t@uni.edu,0241234567,2025-01-01,Active");
+            else lines.add(csv(id));
+        }
+        Path file = dir.resolve("students.csv");
+        Files.write(file, lines);
+        return file;
+    }
+
+    /** Imports until the first batch is committed, then fails; returns the checkpoint left behind. */
+    private ImportCheckpoint interruptAfterFirstBatch(Path file) throws IOException {
+        RuntimeException stop = new RuntimeException("stopped");
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> importService.importFile(file.toFile(), null, imported -> { throw stop; }));
+        assertSame(stop, thrown);
+        return importService.findCheckpoint(file.toFile()).orElseThrow();
+    }
+
+    private static String csv(String id) {
+        return id + ",Test Student,CS,100,3.0,t@uni.edu,0241234567,2025-01-01,Active";
+    }
+}
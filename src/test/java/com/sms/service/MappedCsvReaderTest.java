@@ -0,0 +1,59 @@
+package com.sms.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedCsvReader.
+ * Uses tiny windows so multi-byte characters straddle window boundaries.
+ */
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private String readAll(MappedCsvReader reader, int chunk) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[chunk];
+        int n;
+        while ((n = reader.read(buf, 0, buf.length)) != -1) sb.append(buf, 0, n);
+        reader.close();
+        return sb.toString();
+    }
+
+    @Test
+    void test01_multiByteCharsAcrossWindows_decodeIntact() throws IOException {
+        String text = "Ama Ɔsei,Kɔfi Nyarkɔ,€ fees,😀 emoji\n".repeat(50);
+        Path file = Files.writeString(dir.resolve("utf8.csv"), text, StandardCharsets.UTF_8);
+
+        for (long window : new long[]{7, 8, 13, 64}) {
+            assertEquals(text, readAll(new MappedCsvReader(file, 0, window), 5), "window=" + window);
+        }
+    }
+
+    @Test
+    void test02_singleCharReads_handleSurrogatePairs() throws IOException {
+        String text = "a😀b";
+        Path file = Files.writeString(dir.resolve("pair.csv"), text, StandardCharsets.UTF_8);
+        assertEquals(text, readAll(new MappedCsvReader(file, 0, 8), 1));
+    }
+
+    @Test
+    void test03_startOffset_skipsLeadingBytes() throws IOException {
+        Path file = Files.writeString(dir.resolve("offset.csv"), "header\nrow1\n", StandardCharsets.UTF_8);
+        assertEquals("row1\n", readAll(new MappedCsvReader(file, 7), 64));
+    }
+
+    @Test
+    void test04_emptyFile_returnsEof() throws IOException {
+        Path file = Files.createFile(dir.resolve("empty.csv"));
+        assertEquals("", readAll(new MappedCsvReader(file), 16));
+    }
+}
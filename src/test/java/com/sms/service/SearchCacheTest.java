@@ -0,0 +1,109 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SearchCache against a fake search with the same matching rules as
+ * SQLiteStudentRepository.search, counting how often the "database" is queried.
+ */
+class SearchCacheTest {
+
+    private final List<Student> db = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+    private SearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        db.add(make("STU001", "Kwame Mensah"));
+        db.add(make("STU002", "Kwabena Osei"));
+        db.add(make("STU003", "Ama Kwarteng"));
+        db.add(make("STU004", "Kofi Annan"));
+        db.add(make("STU005", "Akua_Boateng"));
+        cache = new SearchCache(q -> {
+            queries.add(q);
+            String pattern = q.toLowerCase();
+            List<Student> out = new ArrayList<>();
+            for (Student s : db) {
+                if (pattern.contains("_") ? s.getFullName().contains("_")
+                        : s.getStudentId().toLowerCase().contains(pattern) || s.getFullName().toLowerCase().contains(pattern)) {
+                    out.add(s);
+                }
+            }
+            return out;
+        });
+    }
+
+    @Test
+    void test01_longerQueryNarrowsInMemory() {
+        assertEquals(3, cache.search("Kwa").size());
+        List<Student> narrowed = cache.search("Kwam");
+        assertEquals(List.of("STU001"), ids(narrowed));
+        assertEquals(List.of("Kwa"), queries, "only the first query reaches the database");
+        assertEquals(List.of("STU003"), ids(cache.search("KWARTENG")));
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void test02_repeatAndBackspaceAreHits() {
+        cache.search("kof");
+        cache.search("kofi");
+        cache.search("kof");
+        assertEquals(List.of("kof"), queries);
+    }
+
+    @Test
+    void test03_unrelatedQueryAndWildcardsGoToDatabase() {
+        cache.search("Kwa");
+        cache.search("Osei");      // does not extend "kwa"
+        cache.search("Kwa_");      // LIKE wildcard: never narrowed
+        assertEquals(List.of("Kwa", "Osei", "Kwa_"), queries);
+    }
+
+    @Test
+    void test04_clearForgetsResults() {
+        cache.search("Kwa");
+        db.add(make("STU006", "Kwasi Appiah"));
+        cache.clear();
+        assertEquals(4, cache.search("Kwa").size());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void test05_matchingFoldsAsciiOnly() {
+        assertEquals("kwame mensah", SearchCache.asciiLower("Kwame MENSAH"));
+        assertEquals("É", SearchCache.asciiLower("É"));
+        assertFalse(SearchCache.narrowable("Éfua"));
+        assertFalse(SearchCache.narrowable("50%"));
+        assertTrue(SearchCache.matches(make("STU001", "Kwame Mensah"), "stu0"));
+    }
+
+    @Test
+    void test06_emptyDatabaseAnswerIsNotKept() {
+        assertTrue(cache.search("Yaw").isEmpty()); // e.g. the query failed and was logged
+        db.add(make("STU006", "Yaw Mensah"));
+        assertEquals(List.of("STU006"), ids(cache.search("Yaw")));
+        assertEquals(List.of("STU006"), ids(cache.search("Yaw M")));
+        assertEquals(List.of("Yaw", "Yaw"), queries, "the second answer is kept and narrowed");
+
+        cache.search("Kwa");
+        assertTrue(cache.search("Kwaz").isEmpty());
+        assertTrue(cache.search("Kwaz").isEmpty());
+        assertEquals(3, queries.size(), "an empty narrowing of a kept answer is still a hit");
+    }
+
+    private static List<String> ids(List<Student> students) {
+        return students.stream().map(Student::getStudentId).toList();
+    }
+
+    private static Student make(String id, String name) {
+        return new Student(id, name, "CS", 100, 3.0, "a@b.com", "0241234567", LocalDate.now(), "Active");
+    }
+}
@@ -0,0 +1,110 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary snapshot format (SnapshotWriter / SnapshotReader).
+ * Row counts cross the 64k block boundary so multi-block files are covered.
+ */
+class SnapshotFormatTest {
+
+    @TempDir
+    Path dir;
+
+    private final SnapshotService service = new SnapshotService();
+
+    private List<Student> sampleStudents(int n) {
+        List<Student> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(new Student("STU" + (100000 + i), "Ama Ɔsei " + i,
+                    i % 3 == 0 ? "Computer Science" : "Information Technology",
+                    100 * (1 + i % 4), (i % 401) / 100.0,
+                    i % 10 == 0 ? null : "s" + i + "@stu.edu.gh", "0244" + (100000 + i),
+                    i % 7 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(i % 500),
+                    i % 5 == 0 ? "Inactive" : "Active"));
+        }
+        return list;
+    }
+
+    private List<Student> readAll(Path file, EnumSet<SnapshotColumn> columns) throws IOException {
+        List<Student> out = new ArrayList<>();
+        service.readSnapshot(file.toFile(), columns, out::add);
+        return out;
+    }
+
+    @Test
+    void test01_roundTrip_preservesEveryField() throws IOException {
+        List<Student> students = sampleStudents(70_000);
+        for (boolean compress : new boolean[]{false, true}) {
+            Path file = dir.resolve("all" + compress + ".smsb");
+            assertEquals(students.size(), service.exportSnapshot(students::forEach, file, compress, null));
+
+            List<Student> back = readAll(file, EnumSet.allOf(SnapshotColumn.class));
+            assertEquals(students.size(), back.size());
+            for (int i = 0; i < students.size(); i++) {
+                Student a = students.get(i), b = back.get(i);
+                assertEquals(a.getStudentId(), b.getStudentId());
+                assertEquals(a.getFullName(), b.getFullName());
+                assertEquals(a.getProgramme(), b.getProgramme());
+                assertEquals(a.getLevel(), b.getLevel());
+                assertEquals(a.getGpa(), b.getGpa());
+                assertEquals(a.getEmail(), b.getEmail());
+                assertEquals(a.getPhoneNumber(), b.getPhoneNumber());
+                assertEquals(a.getDateAdded(), b.getDateAdded());
+                assertEquals(a.getStatus(), b.getStatus());
+            }
+        }
+    }
+
+    @Test
+    void test02_columnSubset_leavesOtherFieldsEmpty() throws IOException {
+        Path file = dir.resolve("subset.smsb");
+        service.exportSnapshot(sampleStudents(100)::forEach, file, true, null);
+
+        List<Student> back = readAll(file, EnumSet.of(SnapshotColumn.STUDENT_ID, SnapshotColumn.GPA));
+        assertEquals("STU100042", back.get(42).getStudentId());
+        assertEquals(0.42, back.get(42).getGpa());
+        assertNull(back.get(42).getFullName());
+        assertNull(back.get(42).getDateAdded());
+        assertEquals(0, back.get(42).getLevel());
+    }
+
+    @Test
+    void test03_unroundedGpa_isStoredExactly() throws IOException {
+        Student s = sampleStudents(1).get(0);
+        s.setGpa(3.14159);
+        Path file = dir.resolve("gpa.smsb");
+        service.exportSnapshot(List.of(s)::forEach, file, false, null);
+        assertEquals(3.14159, readAll(file, EnumSet.of(SnapshotColumn.GPA)).get(0).getGpa());
+    }
+
+    @Test
+    void test04_corruptedColumn_failsChecksum() throws IOException {
+        Path file = dir.resolve("corrupt.smsb");
+        service.exportSnapshot(sampleStudents(1000)::forEach, file, false, null);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 100] ^= 0x55; // inside the last column block
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> readAll(file, EnumSet.allOf(SnapshotColumn.class)));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    @Test
+    void test05_notASnapshot_isRejected() throws IOException {
+        Path file = Files.writeString(dir.resolve("plain.smsb"), "student_id,full_name\n");
+        assertThrows(IOException.class, () -> readAll(file, EnumSet.allOf(SnapshotColumn.class)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StudentIndex: every filter combination must give the same rows, in the
+ * same order, as a plain scan with SQLiteStudentRepository.filter's rules.
+ */
+class StudentIndexTest {
+
+    private static final String[] PROGRAMMES = {"CS", "Math", "Nursing", null, ""};
+    private static final Integer[] LEVELS = {100, 200, 300, 700, null};
+    private static final String[] STATUSES = {"Active", "Inactive", "active", null, ""};
+
+    private List<Student> students;
+    private StudentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        students = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            students.add(new Student(String.format("S%03d", i), "Student " + i,
+                    i % 7 == 0 ? "Math" : i % 3 == 0 ? "Nursing" : "CS", 100 * (1 + i % 4), 3.0,
+                    "s" + i + "@uni.edu", "0241234567", LocalDate.now(), i % 5 == 0 ? "Inactive" : "Active"));
+        }
+        index = new StudentIndex(students);
+    }
+
+    @Test
+    void test01_everyCombinationMatchesAScan() {
+        for (String programme : PROGRAMMES) {
+            for (Integer level : LEVELS) {
+                for (String status : STATUSES) {
+                    assertEquals(scan(programme, level, status), index.filter(programme, level, status),
+                            programme + "/" + level + "/" + status);
+                }
+            }
+        }
+    }
+
+    @Test
+    void test02_noCriteriaSelectsEverything() {
+        assertEquals(200, index.select(null, null, "").cardinality());
+        assertEquals(students, index.all());
+        assertEquals(200, index.size());
+    }
+
+    @Test
+    void test03_unknownValueSelectsNothing() {
+        assertTrue(index.filter("Law", null, null).isEmpty());
+        assertTrue(index.filter("CS", 700, "Active").isEmpty());
+    }
+
+    @Test
+    void test04_selectDoesNotChangeTheIndex() {
+        index.select("CS", 100, "Active").clear();
+        assertEquals(scan("CS", null, null), index.filter("CS", null, null));
+    }
+
+    private List<Student> scan(String programme, Integer level, String status) {
+        return students.stream()
+                .filter(s -> programme == null || programme.isEmpty() || programme.equals(s.getProgramme()))
+                .filter(s -> level == null || level == s.getLevel())
+                .filter(s -> status == null || status.isEmpty() || status.equals(s.getStatus()))
+                .toList();
+    }
+}
@@ -1,12 +1,14 @@
 package com.sms.service;
 
 import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
 import com.sms.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,6 +95,29 @@ class StudentServiceTest {
         assertThrows(IllegalArgumentException.class, () -> service.addStudent(dup));
     }
 
+    @Test
+    void test_addStudents_savesWholeBatch() {
+        service.addStudents(List.of(make("S006", "Fiifi", "CS", 100, 3.0), make("S007", "Gifty", "Math", 200, 2.0)));
+        assertEquals(7, fakeDb.size());
+    }
+
+    @Test
+    void test_addStudents_namesFirstBadRowAndSavesNothing() {
+        Student ok = make("S006", "Fiifi", "CS", 100, 3.0);
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> service.addStudents(List.of(ok, make("S007", "Gifty", "CS", 100, 9.0))));
+        assertTrue(invalid.getMessage().startsWith("Row 2: "), invalid.getMessage());
+
+        IllegalArgumentException repeated = assertThrows(IllegalArgumentException.class,
+                () -> service.addStudents(List.of(ok, make("S007", "Gifty", "CS", 100, 3.0), ok)));
+        assertTrue(repeated.getMessage().startsWith("Row 3: "), repeated.getMessage());
+
+        IllegalArgumentException taken = assertThrows(IllegalArgumentException.class,
+                () -> service.addStudents(List.of(ok, make("S003", "Carol", "Math", 300, 2.5))));
+        assertEquals("Row 2: Student ID 'S003' already exists.", taken.getMessage());
+        assertEquals(5, fakeDb.size());
+    }
+
     // ── Fake in-memory repository ─────────────────────────────────────────────
 
     private Student make(String id, String name, String prog, int level, double gpa) {
@@ -118,6 +143,8 @@ class StudentServiceTest {
             }
             @Override public List<String> findAllProgrammes() { return fakeDb.stream().map(Student::getProgramme).distinct().sorted().toList(); }
             @Override public boolean existsById(String id) { return fakeDb.stream().anyMatch(s -> s.getStudentId().equals(id)); }
+            @Override public long currentChangeSequence() { return 0; }
+            @Override public void forEachChangeSince(long after, long upTo, Consumer<StudentChange> action) { }
         };
     }
 }
@@ -0,0 +1,149 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.domain.ValidationError;
+import com.sms.domain.ValidationRules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the configurable validation rules, their compiled form and hot reload.
+ */
+class ValidationRulesTest {
+
+    @TempDir
+    Path dir;
+
+    private final ValidationService vs = new ValidationService();
+
+    @AfterEach
+    void restoreDefaults() {
+        ValidationService.install(ValidationRules.defaults());
+    }
+
+    private static Student student(String id, int level, String phone) {
+        return new Student(id, "Kwame Asante", "Computer Science", level, 3.5,
+                "kwame@stu.edu.gh", phone, LocalDate.now(), "Active");
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve(ValidationRuleWatcher.RULES_FILE);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    void test01_bundledTemplate_matchesDefaults() throws IOException {
+        Path file = dir.resolve(ValidationRuleWatcher.RULES_FILE);
+        try (ValidationRuleWatcher w = ValidationRuleWatcher.start(file)) {
+            assertTrue(Files.exists(file), "missing rule file is created from the template");
+            assertTrue(w.reload(), "the template is a valid rule file");
+            ValidationRules r = ValidationService.getRules();
+            assertEquals(4, r.studentIdMin);
+            assertArrayEquals(new int[]{100, 200, 300, 400, 500, 600, 700}, r.levels);
+        }
+        assertEquals("Student ID must contain only letters and digits.", ValidationError.STUDENT_ID_CHARS.getMessage());
+        assertEquals("Email must contain '@' and '.'.", ValidationError.EMAIL_FORMAT.getMessage());
+        assertEquals("Level must be one of: 100, 200, 300, 400, 500, 600, 700.", ValidationError.LEVEL_INVALID.getMessage());
+    }
+
+    @Test
+    void test02_customRules_checkedAndQuotedInMessages() throws IOException {
+        ValidationService.install(ValidationRules.load(write("""
+                student_id.min_length=6
+                student_id.chars=letters,digits,-
+                level.allowed=100,200,400
+                phone_number.min_length=9
+                """)));
+
+        assertEquals(0, vs.check(student("ENG-0001", 400, "024412345")));
+        assertEquals(ValidationError.STUDENT_ID_LENGTH.bit() | ValidationError.LEVEL_INVALID.bit(),
+                vs.check(student("E-01", 300, "024412345")));
+        assertEquals(ValidationError.STUDENT_ID_CHARS.bit(), vs.check(student("ENG_0001", 100, "0244123456")));
+
+        assertEquals(List.of("Student ID must be between 6 and 20 characters.", "Level must be one of: 100, 200, 400."),
+                vs.validate(student("E-01", 300, "024412345")).getErrors());
+        assertEquals("Student ID must contain only letters, digits and '-'.",
+                ValidationError.STUDENT_ID_CHARS.getMessage());
+    }
+
+    @Test
+    void test03_badFile_keepsCurrentRules() throws IOException {
+        Path file = write("student_id.min_length=5\n");
+        try (ValidationRuleWatcher w = ValidationRuleWatcher.start(file)) {
+            assertEquals(5, ValidationService.getRules().studentIdMin);
+
+            write("student_id.min_length=30\n"); // greater than max_length
+            assertFalse(w.reload());
+            assertEquals(5, ValidationService.getRules().studentIdMin);
+
+            write("gpa.max=four\n");
+            assertFalse(w.reload());
+            assertEquals(5, ValidationService.getRules().studentIdMin);
+        }
+    }
+
+    @Test
+    void test04_editedFile_isReloaded() throws Exception {
+        Path file = write("student_id.min_length=4\n");
+        ValidationRuleWatcher w = ValidationRuleWatcher.start(file);
+        try {
+            assertEquals(0, vs.check(student("STU1", 100, "0244123456")));
+
+            write("student_id.min_length=8\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (ValidationService.getRules().studentIdMin != 8 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(8, ValidationService.getRules().studentIdMin, "rule file change was not picked up");
+            assertEquals(ValidationError.STUDENT_ID_LENGTH.bit(), vs.check(student("STU1", 100, "0244123456")));
+        } finally {
+            w.close();
+        }
+    }
+
+    @Test
+    void test05_spacesAroundCommasAreIgnored() throws IOException {
+        ValidationService.install(ValidationRules.load(write("""
+                student_id.chars=letters, digits
+                phone_number.chars=digits , +
+                """)));
+
+        assertEquals(0, vs.check(student("STU0001", 100, "+233244123")));
+        assertEquals(ValidationError.STUDENT_ID_CHARS.bit(), vs.check(student("STU 0001", 100, "0244123456")));
+        assertEquals(ValidationError.PHONE_DIGITS.bit(), vs.check(student("STU0001", 100, "024 4123456")),
+                "the space after the comma is not an allowed character");
+        assertEquals("Student ID must contain only letters and digits.", ValidationError.STUDENT_ID_CHARS.getMessage());
+        assertEquals("Phone number must contain digits and '+' only.", ValidationError.PHONE_DIGITS.getMessage());
+    }
+
+    @Test
+    void test06_valuesTheDatabaseRejects_areRefused() throws IOException {
+        Path file = write("level.allowed=100,200\n");
+        try (ValidationRuleWatcher w = ValidationRuleWatcher.start(file)) {
+            write("level.allowed=100,250\n");
+            assertFalse(w.reload());
+            write("gpa.max=5.0\n");
+            assertFalse(w.reload());
+            write("gpa.min=-1.0\n");
+            assertFalse(w.reload());
+            assertArrayEquals(new int[]{100, 200}, ValidationService.getRules().levels);
+            assertEquals(4.0, ValidationService.getRules().gpaMax);
+        }
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ValidationRules.load(write("level.allowed=100,800\n")));
+        assertTrue(e.getMessage().contains("800"), e.getMessage());
+    }
+}
@@ -1,11 +1,16 @@
 package com.sms.service;
 
+import com.sms.domain.BatchValidationResult;
 import com.sms.domain.Student;
+import com.sms.domain.ValidationError;
 import com.sms.domain.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -194,4 +199,90 @@ class ValidationServiceTest {
         assertFalse(r.isValid(), "Student with multiple bad fields should fail");
         assertTrue(r.getErrors().size() > 1, "Should report multiple errors at once");
     }
+
+    @Test
+    void test21_checkMask_matchesMessages() {
+        Student s = new Student("AB", "Jo3", "CS", 150, 5.0,
+                "notanemail", "123", LocalDate.now(), "Active");
+        int mask = vs.check(s);
+        assertEquals(ValidationError.STUDENT_ID_LENGTH.bit() | ValidationError.FULL_NAME_DIGITS.bit()
+                | ValidationError.LEVEL_INVALID.bit() | ValidationError.GPA_RANGE.bit()
+                | ValidationError.EMAIL_FORMAT.bit() | ValidationError.PHONE_LENGTH.bit(), mask);
+        assertEquals(vs.validate(s).getErrors(), ValidationResult.fromMask(mask).getErrors());
+        assertEquals("Student ID must be between 4 and 20 characters.", vs.validate(s).getErrors().get(0));
+    }
+
+    @Test
+    void test22_checkValidStudent_allocatesNothing() {
+        Student s = new Student("STU0001", "Kwame Asante", "Computer Science",
+                300, 3.5, "kwame@stu.edu.gh", "0244123456",
+                LocalDate.now(), "Active");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+        int sum = 0;
+        for (int i = 0; i < 10_000; i++) sum += vs.check(s); // warm up
+
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100_000; i++) sum += vs.check(s);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertEquals(0, sum);
+        assertTrue(allocated < 1024, "check() allocated " + allocated + " bytes for 100k valid students");
+    }
+
+    // ────────────────────────────────────────────────────────────────────────
+    // Batch validation
+    // ────────────────────────────────────────────────────────────────────────
+
+    private static List<Student> batch(int size, int... badRows) {
+        List<Student> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            rows.add(new Student(String.format("STU%06d", i), "Kwame Asante", "Computer Science",
+                    300, 3.5, "kwame@stu.edu.gh", "0244123456", LocalDate.now(), "Active"));
+        }
+        for (int row : badRows) rows.get(row).setGpa(5.0);
+        return rows;
+    }
+
+    @Test
+    void test23_validateAll_parallelMatchesCheck() {
+        List<Student> rows = batch(50_000, 0, 63, 64, 4097, 49_999);
+        rows.get(64).setEmail("nope");
+        BatchValidationResult r = vs.validateAll(rows);
+
+        assertTrue(r.isComplete());
+        assertEquals(5, r.getInvalidCount());
+        assertEquals(49_995, r.getValidCount());
+        assertEquals(0, r.getFirstInvalid());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(vs.check(rows.get(i)), r.getErrorMask(i), "row " + i);
+            assertEquals(vs.check(rows.get(i)) == 0, r.isValid(i), "row " + i);
+        }
+        assertEquals(1, r.nextValid(0));
+        assertEquals(65, r.nextValid(63));
+        assertEquals(-1, r.nextValid(49_999));
+        assertEquals(List.of(ValidationError.GPA_RANGE.getMessage(), ValidationError.EMAIL_FORMAT.getMessage()),
+                r.getMessages(64, Locale.ENGLISH));
+    }
+
+    @Test
+    void test24_validateAll_failFastStopsAtFirstInvalid() {
+        List<Student> rows = batch(40_000, 30_000, 12_345, 39_000);
+        BatchValidationResult r = vs.validateAll(rows, ValidationService.Mode.FAIL_FAST);
+
+        assertFalse(r.allValid());
+        assertFalse(r.isComplete());
+        assertEquals(12_345, r.getFirstInvalid());
+        assertEquals(1, r.getInvalidCount(), "rows after the first invalid one are unchecked");
+        assertTrue(r.isValid(12_344));
+        assertFalse(r.isChecked(12_346));
+        assertFalse(r.isValid(12_346));
+        assertEquals(12_345, r.getValidCount());
+
+        BatchValidationResult ok = vs.validateAll(batch(100), ValidationService.Mode.FAIL_FAST);
+        assertTrue(ok.allValid());
+        assertTrue(ok.isComplete());
+        assertEquals(100, ok.getValidCount());
+    }
 }
@@ -0,0 +1,168 @@
+package com.sms.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the asynchronous AppLogger and its ring buffer.
+ */
+class AppLoggerTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void restoreDefaultLog() {
+        AppLogger.setOverflowPolicy(AppLogger.OverflowPolicy.BLOCK);
+        AppLogger.setLevel(LogCategory.REPOSITORY, LogLevel.INFO);
+        AppLogger.setLevel(LogCategory.CSV, LogLevel.INFO);
+        AppLogger.restart(Path.of("data", "app.log"), 8192, true);
+    }
+
+    @Test
+    void test01_concurrentLogging_allLinesWrittenInOrderPerThread() throws Exception {
+        Path log = dir.resolve("app.log");
+        AppLogger.restart(log, 64, false); // small ring, so producers block on a full buffer
+        int threads = 4, perThread = 5000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) AppLogger.info("t" + id + " #" + i);
+            }));
+        }
+        for (Thread w : workers) w.join();
+        AppLogger.flush();
+
+        List<String> lines = Files.readAllLines(log);
+        assertEquals(threads * perThread, lines.size());
+        int[] next = new int[threads];
+        for (String line : lines) {
+            assertTrue(line.matches("\\[\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d] \\[INFO ] t\\d #\\d+"), line);
+            String msg = line.substring(line.indexOf("] t") + 3);
+            int thread = msg.charAt(0) - '0';
+            assertEquals(next[thread]++, Integer.parseInt(msg.substring(3)), "lines of one thread stay in order");
+        }
+        assertEquals(0, AppLogger.getDroppedCount());
+    }
+
+    @Test
+    void test02_ringRejectsWhenFull_andReusesSlots() {
+        LogRing ring = new LogRing(4);
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i, "INFO ", "m" + i));
+        assertFalse(ring.offer(4, "INFO ", "m4"), "full ring rejects");
+
+        assertEquals("m0", ring.peek().message);
+        ring.release();
+        assertTrue(ring.offer(4, "INFO ", "m4"));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals("m" + i, ring.peek().message);
+            ring.release();
+        }
+        assertNull(ring.peek());
+        assertEquals(5, ring.produced());
+    }
+
+    @Test
+    void test03_shutdown_writesQueuedLines() throws Exception {
+        Path log = dir.resolve("app.log");
+        AppLogger.restart(log, 8192, false);
+        for (int i = 0; i < 1000; i++) AppLogger.warn("line " + i);
+        AppLogger.shutdown();
+
+        List<String> lines = Files.readAllLines(log);
+        assertEquals(1000, lines.size());
+        assertTrue(lines.get(999).endsWith("[WARN ] line 999"));
+    }
+
+    @Test
+    void test04_rolling_compressesAndKeepsMaxFiles() throws Exception {
+        Path log = dir.resolve("app.log");
+        AppLogger.restart(new LogConfig(log, 1024, false, 128 * 1024, true, 3, 30, true));
+        for (int i = 0; i < 6000; i++) AppLogger.event(LogCategory.REPOSITORY, "Student added", "STU" + i, i % 7);
+        AppLogger.shutdown(); // also waits for background compression
+
+        List<Path> segments = LogSegments.rolledSegments(log);
+        assertEquals(3, segments.size(), "retention keeps the newest 3 segments");
+        for (Path seg : segments) {
+            assertTrue(seg.toString().endsWith(".log.gz"), seg + " was not compressed");
+            assertTrue(Files.exists(LogSegments.indexFor(seg)));
+        }
+        assertTrue(Files.size(log) <= 128 * 1024);
+        String last = Files.readAllLines(log).get(Files.readAllLines(log).size() - 1);
+        assertTrue(last.matches("\\{\"ts\":\"[^\"]+\",\"level\":\"INFO\",\"category\":\"repository\",\"event\":\"Student added\","
+                + "\"studentId\":\"STU5999\",\"durationMs\":\\d}"), last);
+    }
+
+    @Test
+    void test05_search_readsOnlyMembersInWindow() throws Exception {
+        Path log = dir.resolve("app.log");
+        Path plain = dir.resolve("app-20260101-000000-000.log");
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0, 0);
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        List<String> written = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) { // one line per second, ~1 MB
+            written.add("[" + start.plusSeconds(i).format(fmt) + "] [INFO ] Student added: ID=STU" + i
+                    + (i % 100 == 0 ? " checkpoint" : ""));
+        }
+        Files.write(plain, written);
+        Path gz = LogSegments.compress(plain);
+        Files.setLastModifiedTime(gz, FileTime.from(
+                start.plusSeconds(20_000).atZone(ZoneId.systemDefault()).toInstant()));
+
+        List<LogSegments.Block> blocks = LogSegments.readIndex(LogSegments.indexFor(gz));
+        assertTrue(blocks.size() > 5, "segment is split into several gzip members");
+        try (var in = new GZIPInputStream(Files.newInputStream(gz))) {
+            assertEquals(written, new String(in.readAllBytes()).lines().toList(), "still one valid gzip file");
+        }
+
+        Instant from = start.plusSeconds(5000).atZone(ZoneId.systemDefault()).toInstant();
+        Instant to = start.plusSeconds(5999).atZone(ZoneId.systemDefault()).toInstant();
+        LogSearch search = new LogSearch(log);
+        assertEquals(written.subList(5000, 6000), search.search(from, to, null, Integer.MAX_VALUE));
+        assertEquals(List.of(written.get(5000), written.get(5100), written.get(5200)),
+                search.search(from, to, "checkpoint", 3));
+    }
+
+    @Test
+    void test06_levels_disabledCallsSkipFormatting() throws Exception {
+        Path log = dir.resolve("app.log");
+        AppLogger.restart(log, 1024, false);
+        AppLogger.setLevel(LogCategory.REPOSITORY, LogLevel.WARN);
+        AppLogger.setLevel(LogCategory.CSV, LogLevel.DEBUG);
+
+        assertFalse(AppLogger.isEnabled(LogCategory.REPOSITORY, LogLevel.INFO));
+        AppLogger.info(LogCategory.REPOSITORY, () -> fail("supplier of a disabled level was called"));
+        AppLogger.info(LogCategory.REPOSITORY, "Students added in batch: {}", 5);
+        AppLogger.event(LogCategory.REPOSITORY, "Student added", "STU0001", 2);
+        AppLogger.error(LogCategory.REPOSITORY, "DB error on {}: {}", "save", "disk full");
+        AppLogger.debug(LogCategory.CSV, () -> "parsed " + 3 + " rows");
+        AppLogger.info(LogCategory.CSV, "{} of {} rows, {} errors", 2, 3, 1);
+        AppLogger.warn(LogCategory.CSV, "no args {} left as is");
+        AppLogger.info("general lines have no category tag");
+        AppLogger.flush();
+
+        List<String> lines = Files.readAllLines(log).stream().map(l -> l.substring(22)).toList();
+        assertEquals(List.of(
+                "[ERROR] [repository] DB error on save: disk full",
+                "[DEBUG] [csv] parsed 3 rows",
+                "[INFO ] [csv] 2 of 3 rows, 1 errors",
+                "[WARN ] [csv] no args {} left as is",
+                "[INFO ] general lines have no category tag"), lines);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sms.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter: never a false negative, and false positives close to the
+ * rate the filter was sized for.
+ */
+class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void test01_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) filter.add(String.format("STU%07d", i));
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain(String.format("STU%07d", i)), "added key " + i);
+        }
+    }
+
+    @Test
+    void test02_falsePositiveRateNearTarget() {
+        for (double target : new double[] {0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(KEYS, target);
+            for (int i = 0; i < KEYS; i++) filter.add(String.format("STU%07d", i));
+            int falsePositives = 0;
+            for (int i = KEYS; i < 2 * KEYS; i++) {
+                if (filter.mightContain(String.format("STU%07d", i))) falsePositives++;
+            }
+            double rate = (double) falsePositives / KEYS;
+            assertTrue(rate < target * 2, "rate " + rate + " for target " + target);
+        }
+    }
+
+    @Test
+    void test03_sizedFromTheTarget() {
+        // About 9.6 bits per key at 1%, 14.4 at 0.1%
+        assertEquals(9.6, new BloomFilter(KEYS, 0.01).sizeInBytes() * 8.0 / KEYS, 0.1);
+        assertEquals(14.4, new BloomFilter(KEYS, 0.001).sizeInBytes() * 8.0 / KEYS, 0.1);
+        assertTrue(new BloomFilter(0, 0.01).sizeInBytes() >= 8, "never empty");
+    }
+}
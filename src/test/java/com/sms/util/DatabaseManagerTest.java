@@ -0,0 +1,72 @@
+package com.sms.util;
+
+import com.sms.domain.Student;
+import com.sms.repository.ExportWatermarkRepository;
+import com.sms.repository.SQLiteExportWatermarkRepository;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DatabaseManager.inTransaction against a database file in a temp folder:
+ * a transaction belongs to its thread, and other threads neither see nor join it.
+ */
+class DatabaseManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private StudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.closeConnection();
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dir.resolve("test.db").toString());
+        repository = new SQLiteStudentRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.closeConnection();
+        System.clearProperty(DatabaseManager.DB_PATH_PROPERTY);
+    }
+
+    @Test
+    void test01_otherThreadsDoNotSeeOrJoinTheTransaction() {
+        assertThrows(IllegalStateException.class, () -> DatabaseManager.inTransaction(() -> {
+            repository.saveAll(List.of(make("S001")));
+            assertEquals(1, repository.count(), "the transaction sees its own row");
+            assertEquals(0, CompletableFuture.supplyAsync(repository::count).join(), "other threads do not");
+            repository.save(make("S002")); // nested: joins this transaction
+            throw new IllegalStateException("roll back");
+        }));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void test02_writesFromOtherThreadsSurviveARollback() {
+        ExportWatermarkRepository watermarks = new SQLiteExportWatermarkRepository();
+        assertThrows(IllegalStateException.class, () -> DatabaseManager.inTransaction(() -> {
+            // e.g. a Students-screen save while an import batch is open
+            CompletableFuture.runAsync(() -> watermarks.save("students.csv", 42)).join();
+            repository.save(make("S001"));
+            throw new IllegalStateException("roll back");
+        }));
+        assertEquals(42, watermarks.findLastSequence("students.csv"));
+        assertFalse(repository.existsById("S001"));
+    }
+
+    private static Student make(String id) {
+        return new Student(id, "Test Student", "CS", 100, 3.0, "t@uni.edu", "0241234567", LocalDate.now(), "Active");
+    }
+}
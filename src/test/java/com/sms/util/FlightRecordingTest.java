@@ -0,0 +1,51 @@
+package com.sms.util;
+
+import com.sms.repository.InstrumentedStudentRepository;
+import com.sms.repository.StudentRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FlightRecording and the app's own JFR events.
+ */
+class FlightRecordingTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void test01_capturesAppEvents() throws Exception {
+        StudentRepository repo = new InstrumentedStudentRepository(new MetricsTest.StubRepository(new ArrayList<>()));
+        FlightRecording.start("default", Duration.ofMinutes(1), 16 * 1024 * 1024);
+        try {
+            repo.findAll();
+            JfrEvents.ViewLoadEvent load = new JfrEvents.ViewLoadEvent("TestView.fxml");
+            load.begin();
+            Thread.sleep(1);
+            load.commit();
+            JfrEvents.CsvStageEvent.start("parse", "test.csv").finish(3);
+
+            Path file = FlightRecording.dump(dir.resolve("test.jfr"));
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.sms.Repository")
+                    && "findAll".equals(e.getString("operation")) && e.getLong("rows") == 0));
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.sms.ViewLoad")
+                    && "TestView.fxml".equals(e.getString("view"))));
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.sms.CsvStage")
+                    && e.getLong("rows") == 3));
+        } finally {
+            FlightRecording.stop();
+        }
+        assertFalse(FlightRecording.isRunning());
+        assertThrows(IllegalStateException.class, () -> FlightRecording.dump(dir.resolve("none.jfr")));
+    }
+}
@@ -0,0 +1,93 @@
+package com.sms.util;
+
+import com.sms.domain.Student;
+import com.sms.domain.StudentChange;
+import com.sms.repository.InstrumentedStudentRepository;
+import com.sms.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram, the Metrics registry and the instrumented repository.
+ */
+class MetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void test01_histogram_percentilesWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1000); // 1 µs .. 100 ms, uniform
+        LatencyHistogram.Snapshot s = h.snapshot();
+
+        assertEquals(100_000, s.count);
+        assertEquals(100_000_000L, s.maxNanos);
+        assertEquals(50_000_000, s.percentile(50), 50_000_000 * 0.035);
+        assertEquals(99_000_000, s.percentile(99), 99_000_000 * 0.035);
+        assertEquals(100_000_000L, s.percentile(100), "never reports above the real maximum");
+        assertTrue(s.percentile(50) >= 50_000_000L, "bucket upper bound, never under-reports");
+
+        for (long v : new long[]{0, 1, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int i = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestIn(i) >= v, "bucket of " + v + " contains it");
+            assertTrue(i == 0 || LatencyHistogram.highestIn(i - 1) < v, "previous bucket ends below " + v);
+        }
+    }
+
+    @Test
+    void test02_instrumentedRepository_timesCallsAndCountsErrors() {
+        List<Student> rows = new ArrayList<>(List.of(new Student()));
+        StudentRepository repo = new InstrumentedStudentRepository(new StubRepository(rows));
+        long findAllBefore = Metrics.timer("repository.findAll").getCount();
+        long errorsBefore = Metrics.counter("repository.errors").sum();
+
+        for (int i = 0; i < 3; i++) assertEquals(1, repo.findAll().size());
+        assertThrows(IllegalStateException.class, () -> repo.delete("S001"));
+
+        assertEquals(findAllBefore + 3, Metrics.timer("repository.findAll").getCount());
+        assertEquals(errorsBefore + 1, Metrics.counter("repository.errors").sum());
+        assertTrue(Metrics.timer("repository.delete").getCount() >= 1, "failed calls are timed too");
+    }
+
+    @Test
+    void test03_dump_writesOneLinePerMetric() throws Exception {
+        Metrics.timer("test.dump").record(2_500_000);
+        Metrics.counter("test.dump.rows").add(7);
+
+        Path file = Metrics.dump(dir.resolve("metrics.txt"));
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(0).startsWith("# SMS metrics snapshot"));
+        assertTrue(lines.stream().anyMatch(l -> l.matches("test\\.dump\\s+timer\\s+1\\s.*")), "timer row");
+        assertTrue(lines.stream().anyMatch(l -> l.matches("test\\.dump\\.rows\\s+counter\\s+7\\s.*")), "counter row");
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("jvm.heap.usedMb")), "built-in gauges");
+    }
+
+    /** Returns fixed rows; delete() always fails. */
+    static final class StubRepository implements StudentRepository {
+        private final List<Student> rows;
+
+        StubRepository(List<Student> rows) { this.rows = rows; }
+
+        @Override public void save(Student student) { rows.add(student); }
+        @Override public void update(Student student) { }
+        @Override public void delete(String studentId) { throw new IllegalStateException("read-only"); }
+        @Override public Optional<Student> findById(String studentId) { return Optional.empty(); }
+        @Override public List<Student> findAll() { return rows; }
+        @Override public List<Student> search(String query) { return List.of(); }
+        @Override public List<Student> filter(String programme, Integer level, String status) { return List.of(); }
+        @Override public List<String> findAllProgrammes() { return List.of(); }
+        @Override public boolean existsById(String studentId) { return false; }
+        @Override public long currentChangeSequence() { return 0; }
+        @Override public void forEachChangeSince(long afterSeq, long upToSeq, Consumer<StudentChange> action) { }
+    }
+}
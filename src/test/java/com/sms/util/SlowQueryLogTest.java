@@ -0,0 +1,125 @@
+package com.sms.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlowQueryLog, run against an in-memory SQLite database.
+ */
+class SlowQueryLogTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+    private long savedThreshold;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        savedThreshold = SlowQueryLog.getThresholdMillis();
+        SlowQueryLog.setThresholdMillis(0); // every statement counts as slow
+        SlowQueryLog.reset();
+        conn = SlowQueryLog.wrap(DriverManager.getConnection("jdbc:sqlite::memory:"));
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE students (student_id TEXT PRIMARY KEY, full_name TEXT, programme TEXT, level INTEGER)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO students VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < 200; i++) {
+                ps.setString(1, "STU" + i);
+                ps.setString(2, "Student " + i);
+                ps.setString(3, i % 2 == 0 ? "Computer Science" : "Nursing");
+                ps.setInt(4, 100 * (1 + i % 4));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+        SlowQueryLog.setThresholdMillis(savedThreshold);
+        SlowQueryLog.reset();
+        AppLogger.restart(Path.of("data", "app.log"), 8192, true);
+    }
+
+    @Test
+    void test01_shapes_foldLiteralsAndInLists() {
+        assertEquals("SELECT * FROM students WHERE level = ? AND full_name = ?",
+                SlowQueryLog.shapeOf("SELECT *  FROM students\n WHERE level = 300 AND full_name = 'O''Neil'"));
+        assertEquals("SELECT student_id FROM students WHERE student_id IN (?+)",
+                SlowQueryLog.shapeOf("SELECT student_id FROM students WHERE student_id IN (?,?,?)"));
+        assertEquals(SlowQueryLog.shapeOf("SELECT x FROM t WHERE id IN (?)"),
+                SlowQueryLog.shapeOf("SELECT x FROM t WHERE id IN (?, ?, ?, ?)"));
+        assertEquals("SELECT * FROM t1 WHERE c2 = ?", SlowQueryLog.shapeOf("SELECT * FROM t1 WHERE c2 = 5"));
+    }
+
+    @Test
+    void test02_slowQuery_loggedRedactedWithPlanOnce() throws Exception {
+        Path log = dir.resolve("app.log");
+        AppLogger.restart(log, 1024, false);
+        String sql = "SELECT * FROM students WHERE programme = ? ORDER BY full_name";
+        for (int run = 0; run < 3; run++) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, "Computer Science");
+                int rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) rows++;
+                }
+                assertEquals(100, rows);
+            }
+        }
+        AppLogger.flush();
+
+        String text = Files.readString(log);
+        assertFalse(text.contains("Computer Science"), "parameter values never reach the log");
+        assertTrue(text.contains("[WARN ] [repository] Slow query ("), text);
+        assertTrue(text.contains(sql + " [text(16)]"), text);
+        assertEquals(1, text.lines().filter(l -> l.contains("Query plan for " + sql)).count(), "plan logged once per shape");
+
+        SlowQueryLog.Offender o = SlowQueryLog.topOffenders(10).stream()
+                .filter(x -> x.statement.equals(sql)).findFirst().orElseThrow();
+        assertEquals(3, o.calls);
+        assertEquals(3, o.slowCalls);
+        assertTrue(o.plan.contains("SCAN"), "no index on programme: " + o.plan);
+    }
+
+    @Test
+    void test03_topOffenders_rankByTotalTimeAndShowIndexUse() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT full_name FROM students WHERE student_id = ?")) {
+                ps.setString(1, "STU" + i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    assertTrue(rs.next());
+                }
+            }
+        }
+        List<SlowQueryLog.Offender> top = SlowQueryLog.topOffenders(10);
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).totalMillis >= top.get(i).totalMillis, "sorted worst first");
+        }
+        SlowQueryLog.Offender lookup = top.stream()
+                .filter(x -> x.statement.equals("SELECT full_name FROM students WHERE student_id = ?"))
+                .findFirst().orElseThrow();
+        assertEquals(5, lookup.calls);
+        assertTrue(lookup.plan.contains("USING INDEX"), lookup.plan);
+
+        SlowQueryLog.Offender insert = top.stream()
+                .filter(x -> x.statement.startsWith("INSERT INTO students")).findFirst().orElseThrow();
+        assertEquals(1, insert.calls, "a batch is one execution");
+        assertTrue(SlowQueryLog.report(10).contains("plan: "));
+    }
+}